@@ -0,0 +1,100 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headers are built for every request and copied from the config defaults and again for every async retry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeadersBenchmark {
+
+    @Param({"4", "16"})
+    public int size;
+
+    private String[] names;
+    private Headers populated;
+
+    @Setup
+    public void setup() {
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = "X-Header-" + i;
+        }
+        populated = build();
+    }
+
+    @Benchmark
+    public Headers construct() {
+        return build();
+    }
+
+    @Benchmark
+    public Headers copy() {
+        Headers copy = new Headers();
+        copy.addAll(populated);
+        return copy;
+    }
+
+    @Benchmark
+    public Headers putAll() {
+        Headers copy = new Headers();
+        copy.putAll(populated);
+        return copy;
+    }
+
+    @Benchmark
+    public String lookup() {
+        return populated.getFirst("x-header-0");
+    }
+
+    private Headers build() {
+        Headers headers = new Headers();
+        for (String name : names) {
+            headers.add(name, "value");
+        }
+        return headers;
+    }
+}
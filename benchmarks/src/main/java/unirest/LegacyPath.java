@@ -0,0 +1,78 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex based Path from 3.2.00, kept so the benchmarks have something to compare against.
+ */
+class LegacyPath {
+    private String url;
+
+    LegacyPath(String url) {
+        this.url = url;
+    }
+
+    void param(String name, String value) {
+        Matcher matcher = Pattern.compile("\\{" + name + "\\}").matcher(url);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        if (count == 0) {
+            throw new UnirestException("Can't find route parameter name \"" + name + "\"");
+        }
+        this.url = url.replaceAll("\\{" + name + "\\}", Util.encode(value));
+    }
+
+    void queryString(String name, Object value) {
+        StringBuilder queryString = new StringBuilder();
+        if (url.contains("?")) {
+            queryString.append("&");
+        } else {
+            queryString.append("?");
+        }
+        try {
+            queryString.append(URLEncoder.encode(name, "UTF-8"));
+            if (value != null) {
+                queryString.append("=").append(URLEncoder.encode(value.toString(), "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new UnirestException(e);
+        }
+        url += queryString.toString();
+    }
+
+    @Override
+    public String toString() {
+        return url;
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a templated url with route params and a query string, the way BaseRequest does for every request.
+ * The contended benchmarks do the same from several threads at once, which all look their template up in the shared cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathBenchmark {
+    private static final String ONE = "https://api.example.com/users/{user}";
+    private static final String THREE = "https://api.example.com/orgs/{org}/users/{user}/repos/{repo}";
+
+    @Param({"1", "3"})
+    public int params;
+
+    private String template;
+
+    @Setup
+    public void setup() {
+        template = params == 1 ? ONE : THREE;
+    }
+
+    @Benchmark
+    public String legacyPath() {
+        LegacyPath path = new LegacyPath(template);
+        path.param("user", "ryber");
+        if (params == 3) {
+            path.param("org", "openunirest");
+            path.param("repo", "unirest-java");
+        }
+        path.queryString("page", 2);
+        path.queryString("per_page", 100);
+        return path.toString();
+    }
+
+    @Benchmark
+    public String templatePath() {
+        Path path = new Path(template);
+        path.param("user", "ryber");
+        if (params == 3) {
+            path.param("org", "openunirest");
+            path.param("repo", "unirest-java");
+        }
+        path.queryString("page", 2);
+        path.queryString("per_page", 100);
+        return path.toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String legacyPathContended() {
+        return legacyPath();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String templatePathContended() {
+        return templatePath();
+    }
+}
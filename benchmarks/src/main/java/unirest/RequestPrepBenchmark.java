@@ -0,0 +1,93 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.client.methods.HttpRequestBase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a unirest request into an Apache request. This is the work done on the calling thread before anything hits the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestPrepBenchmark {
+    private Config config;
+
+    @Setup
+    public void setup() {
+        config = new Config()
+                .setDefaultHeader("Accept", "application/json")
+                .setDefaultHeader("X-Trace", "abc123");
+    }
+
+    @Benchmark
+    public HttpRequestBase get() {
+        HttpRequest request = new HttpRequestNoBody(config, HttpMethod.GET, "http://localhost/users/{id}")
+                .routeParam("id", "42")
+                .queryString("fields", "name");
+        return new RequestPrep(request, config.getContentDecoders(), false).prepare();
+    }
+
+    @Benchmark
+    public HttpRequestBase postJson() {
+        HttpRequest request = new HttpRequestBody(config, HttpMethod.POST, "http://localhost/users")
+                .header("Content-Type", "application/json")
+                .body("{\"name\":\"Ryan\",\"id\":42}");
+        return new RequestPrep(request, config.getContentDecoders(), false).prepare();
+    }
+
+    @Benchmark
+    public HttpRequestBase postForm() {
+        HttpRequest request = new HttpRequestBody(config, HttpMethod.POST, "http://localhost/users")
+                .field("name", "Ryan")
+                .field("id", "42");
+        return new RequestPrep(request, config.getContentDecoders(), false).prepare();
+    }
+
+    @Benchmark
+    public HttpRequestBase postJsonAsync() {
+        HttpRequest request = new HttpRequestBody(config, HttpMethod.POST, "http://localhost/users")
+                .header("Content-Type", "application/json")
+                .body("{\"name\":\"Ryan\",\"id\":42}");
+        return new RequestPrep(request, config.getContentDecoders(), true).prepare();
+    }
+}
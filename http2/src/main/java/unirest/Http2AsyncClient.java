@@ -0,0 +1,363 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpException;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodySubscribers;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends async requests with the JDK 11 java.net.http client. See Http2Client.
+ *
+ * Responses are fed into the same Apache response consumers as the NIO client, so max response sizes
+ * and timings work as usual. The body is only pulled from the connection as fast as the consumer reads it.
+ * Cancelling the returned future cancels the HTTP/2 stream.
+ */
+public class Http2AsyncClient implements AsyncClient {
+    private final Config config;
+    private final java.net.http.HttpClient client;
+
+    public Http2AsyncClient(Config config) {
+        this.config = config;
+        this.client = Http2Exchange.build(config);
+    }
+
+    @Override
+    public HttpAsyncClient getClient() {
+        throw new UnirestConfigException("The HTTP/2 client is not an Apache HttpAsyncClient");
+    }
+
+    @Override
+    public Future<org.apache.http.HttpResponse> execute(HttpUriRequest request,
+                                                        FutureCallback<org.apache.http.HttpResponse> callback) {
+        return execute(HttpAsyncMethods.create(request), HttpAsyncMethods.createConsumer(), callback);
+    }
+
+    @Override
+    public <T> Future<T> execute(HttpAsyncRequestProducer producer,
+                                 HttpAsyncResponseConsumer<T> consumer,
+                                 FutureCallback<T> callback) {
+        HttpContext context = new BasicHttpContext();
+        CompletableFuture<java.net.http.HttpResponse<Void>> sent = new CompletableFuture<>();
+        ConsumerSubscriber body = new ConsumerSubscriber(consumer, sent);
+        BasicFuture<T> future = new BasicFuture<T>(callback) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                body.cancel();
+                sent.cancel(mayInterruptIfRunning);
+                return super.cancel(mayInterruptIfRunning);
+            }
+        };
+        try {
+            org.apache.http.HttpRequest request = producer.generateRequest();
+            HttpRequest jdkRequest = Http2Exchange.toRequest(config, request, producer.getTarget(), context);
+            String method = request.getRequestLine().getMethod();
+            client.sendAsync(jdkRequest, handler(method, consumer, body)).whenComplete((response, error) -> {
+                if (error != null) {
+                    sent.completeExceptionally(error);
+                } else {
+                    sent.complete(response);
+                }
+            });
+            producer.requestCompleted(context);
+        } catch (IOException | HttpException | RuntimeException e) {
+            sent.completeExceptionally(e);
+        }
+        sent.whenComplete((response, error) -> {
+            if (error != null) {
+                finish(producer, consumer, context, future, unwrap(error));
+            } else {
+                body.drained.whenComplete((done, failure) -> finish(producer, consumer, context, future, unwrap(failure)));
+            }
+        });
+        return future;
+    }
+
+    private static BodyHandler<Void> handler(String method, HttpAsyncResponseConsumer<?> consumer, ConsumerSubscriber body) {
+        return info -> {
+            BasicHttpResponse response = Http2Exchange.toResponse(method, info.statusCode(), info.version(), info.headers());
+            try {
+                consumer.responseReceived(response);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (HttpException e) {
+                throw new UncheckedIOException(new IOException(e));
+            }
+            body.hasEntity = response.getEntity() != null;
+            return BodySubscribers.fromSubscriber(body);
+        };
+    }
+
+    private static <T> void finish(HttpAsyncRequestProducer producer,
+                                   HttpAsyncResponseConsumer<T> consumer,
+                                   HttpContext context,
+                                   BasicFuture<T> future,
+                                   Exception error) {
+        try {
+            if (error != null) {
+                producer.failed(error);
+                consumer.failed(error);
+                future.failed(error);
+                return;
+            }
+            consumer.responseCompleted(context);
+            if (consumer.getException() != null) {
+                future.failed(consumer.getException());
+            } else {
+                future.completed(consumer.getResult());
+            }
+        } finally {
+            Util.tryDo(producer, HttpAsyncRequestProducer::close);
+            Util.tryDo(consumer, HttpAsyncResponseConsumer::close);
+        }
+    }
+
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        if (cause == null || cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        return new UnirestException(cause);
+    }
+
+    /**
+     * Feeds the body into the consumer one chunk at a time. Chunks the consumer has not read yet are kept, and the next one is
+     * only requested from the JDK client once they have all been consumed. The subscriber is also the IOControl given to the
+     * consumer: suspending input stops feeding it, and requesting input picks up where it stopped, from whichever thread asks.
+     */
+    private static class ConsumerSubscriber implements Flow.Subscriber<List<ByteBuffer>>, IOControl {
+        private final HttpAsyncResponseConsumer<?> consumer;
+        private final CompletableFuture<?> exchange;
+        private final CompletableFuture<Void> drained = new CompletableFuture<>();
+        private final BufferDecoder decoder = new BufferDecoder();
+        private final Queue<ByteBuffer> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pumps = new AtomicInteger();
+        private final AtomicBoolean requested = new AtomicBoolean(true);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private volatile boolean hasEntity;
+        private volatile boolean suspended;
+        private volatile boolean upstreamDone;
+
+        ConsumerSubscriber(HttpAsyncResponseConsumer<?> consumer, CompletableFuture<?> exchange) {
+            this.consumer = consumer;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            if (cancelled) {
+                s.cancel();
+            } else {
+                s.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            pending.addAll(buffers);
+            requested.set(false);
+            pump();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            // the JDK client fails the exchange with it
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamDone = true;
+            pump();
+        }
+
+        @Override
+        public void requestInput() {
+            suspended = false;
+            pump();
+        }
+
+        @Override
+        public void suspendInput() {
+            suspended = true;
+        }
+
+        @Override
+        public void requestOutput() {
+        }
+
+        @Override
+        public void suspendOutput() {
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        /**
+         * Only one thread feeds the consumer at a time. A call made while another thread is feeding it, or made by the consumer
+         * itself, just makes that thread go round once more.
+         */
+        private void pump() {
+            if (pumps.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                try {
+                    if (!drained.isDone()) {
+                        feed();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    fail(e);
+                }
+            } while (pumps.decrementAndGet() != 0);
+        }
+
+        private void feed() throws IOException {
+            while (true) {
+                if (decoder.remaining() == 0) {
+                    ByteBuffer next = pending.poll();
+                    if (next != null) {
+                        decoder.feed(next);
+                    } else if (upstreamDone) {
+                        decoder.complete();
+                        if (hasEntity && !consumer.isDone()) {
+                            consumer.consumeContent(decoder, this);
+                        }
+                        drained.complete(null);
+                        return;
+                    } else {
+                        if (requested.compareAndSet(false, true)) {
+                            subscription.request(1);
+                        }
+                        return;
+                    }
+                } else if (!hasEntity || consumer.isDone()) {
+                    decoder.skip();
+                } else if (suspended) {
+                    return;
+                } else {
+                    int remaining = decoder.remaining();
+                    consumer.consumeContent(decoder, this);
+                    if (decoder.remaining() == remaining && !suspended) {
+                        // read nothing without suspending input, so wait for it to ask again rather than spin
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+            exchange.completeExceptionally(e);
+            drained.completeExceptionally(e);
+        }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    /**
+     * A ContentDecoder over the chunk of the body currently being handed to the consumer.
+     */
+    private static class BufferDecoder implements ContentDecoder {
+        private ByteBuffer buffer = ByteBuffer.allocate(0);
+        private boolean completed;
+
+        void feed(ByteBuffer next) {
+            buffer = next;
+        }
+
+        void complete() {
+            completed = true;
+        }
+
+        void skip() {
+            buffer.position(buffer.limit());
+        }
+
+        int remaining() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (!buffer.hasRemaining()) {
+                return completed ? -1 : 0;
+            }
+            int count = Math.min(dst.remaining(), buffer.remaining());
+            ByteBuffer slice = buffer.duplicate();
+            slice.limit(slice.position() + count);
+            dst.put(slice);
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed && !buffer.hasRemaining();
+        }
+    }
+}
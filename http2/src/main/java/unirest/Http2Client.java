@@ -0,0 +1,92 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.stream.Stream;
+
+/**
+ * Sends synchronous requests with the JDK 11 java.net.http client, which speaks HTTP/2 where the server does.
+ * Concurrent requests to a host are multiplexed over a single connection rather than each needing their own.
+ * <pre>{@code
+ * Unirest.config()
+ *         .httpClient(Http2Client::new)
+ *         .asyncClient(Http2AsyncClient::new);
+ * }</pre>
+ *
+ * HTTPS connections negotiate HTTP/2 with ALPN. Plain http connections try an upgrade to h2c on the first request
+ * and stay on HTTP/1.1 if the server doesn't take it.
+ * There is no Apache client underneath so getClient() can't be used, and request bodies are buffered before they are sent.
+ */
+public class Http2Client implements Client {
+    private final Config config;
+    private final java.net.http.HttpClient client;
+
+    public Http2Client(Config config) {
+        this.config = config;
+        this.client = Http2Exchange.build(config);
+    }
+
+    @Override
+    public HttpClient getClient() {
+        throw new UnirestConfigException("The HTTP/2 client is not an Apache HttpClient");
+    }
+
+    @Override
+    public Stream<Exception> close() {
+        return Stream.empty();
+    }
+
+    @Override
+    public org.apache.http.HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+        HttpRequest jdkRequest = Http2Exchange.toRequest(config, request, null, context == null ? new BasicHttpContext() : context);
+        try {
+            java.net.http.HttpResponse<InputStream> received = client.send(jdkRequest, BodyHandlers.ofInputStream());
+            BasicHttpResponse response = Http2Exchange.toResponse(request.getMethod(), received.statusCode(), received.version(), received.headers());
+            if (response.getEntity() != null) {
+                ((BasicHttpEntity) response.getEntity()).setContent(received.body());
+            } else {
+                received.body().close();
+            }
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Translates between the Apache requests and responses that unirest works with and the JDK client.
+ */
+final class Http2Exchange {
+    private static final ProtocolVersion HTTP_2 = new ProtocolVersion("HTTP", 2, 0);
+    /**
+     * Headers which the JDK client sets itself or which are not allowed in HTTP/2.
+     */
+    private static final Set<String> RESTRICTED = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "expect", "host", "keep-alive",
+            "proxy-connection", "te", "transfer-encoding", "upgrade"));
+
+    private Http2Exchange() {
+    }
+
+    static HttpClient build(Config config) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(config.getFollowRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER);
+        if (config.getConnectionTimeout() > 0) {
+            builder.connectTimeout(Duration.ofMillis(config.getConnectionTimeout()));
+        }
+        HttpHost proxy = config.getProxy();
+        if (proxy != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxy.getHostName(), proxy.getPort())));
+        }
+        if (config.getEnabledCookieManagement()) {
+            builder.cookieHandler(new CookieManager());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Run the config's interceptors over the request, as the Apache clients would, and turn it into a JDK request.
+     * The body is written out to a byte array first.
+     */
+    static HttpRequest toRequest(Config config, org.apache.http.HttpRequest request, HttpHost target, HttpContext context)
+            throws IOException {
+        try {
+            for (HttpRequestInterceptor interceptor : config.getInterceptors()) {
+                interceptor.process(request, context);
+            }
+        } catch (HttpException e) {
+            throw new IOException(e);
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(request, target))
+                .method(request.getRequestLine().getMethod(), body(request));
+        if (config.getSocketTimeout() > 0) {
+            builder.timeout(Duration.ofMillis(config.getSocketTimeout()));
+        }
+        for (Header header : request.getAllHeaders()) {
+            if (!RESTRICTED.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    private static URI uri(org.apache.http.HttpRequest request, HttpHost target) {
+        if (request instanceof HttpUriRequest && ((HttpUriRequest) request).getURI().isAbsolute()) {
+            return ((HttpUriRequest) request).getURI();
+        }
+        return URI.create(target.toURI() + request.getRequestLine().getUri());
+    }
+
+    private static HttpRequest.BodyPublisher body(org.apache.http.HttpRequest request) throws IOException {
+        HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+                ? ((HttpEntityEnclosingRequest) request).getEntity()
+                : null;
+        if (entity == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (entity.getContentType() != null && !request.containsHeader(entity.getContentType().getName())) {
+            request.addHeader(entity.getContentType());
+        }
+        if (entity.getContentEncoding() != null && !request.containsHeader(entity.getContentEncoding().getName())) {
+            request.addHeader(entity.getContentEncoding());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(entity.getContentLength() > 0 ? (int) entity.getContentLength() : 1024);
+        entity.writeTo(out);
+        return HttpRequest.BodyPublishers.ofByteArray(out.toByteArray());
+    }
+
+    /**
+     * @return an Apache response with the status and headers. Responses which can have a body get an entity
+     *         describing it, which the caller fills with content
+     */
+    static BasicHttpResponse toResponse(String method, int status, HttpClient.Version version, HttpHeaders headers) {
+        ProtocolVersion protocol = version == HttpClient.Version.HTTP_2 ? HTTP_2 : HttpVersion.HTTP_1_1;
+        String reason = EnglishReasonPhraseCatalog.INSTANCE.getReason(status, Locale.ENGLISH);
+        BasicHttpResponse response = new BasicHttpResponse(new BasicStatusLine(protocol, status, reason));
+        headers.map().forEach((name, values) -> {
+            if (!name.startsWith(":")) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        if (hasBody(method, status)) {
+            BasicHttpEntity entity = new BasicHttpEntity();
+            entity.setContentLength(headers.firstValueAsLong("Content-Length").orElse(-1));
+            entity.setContentType(response.getFirstHeader("Content-Type"));
+            entity.setContentEncoding(response.getFirstHeader("Content-Encoding"));
+            response.setEntity(entity);
+        }
+        return response;
+    }
+
+    private static boolean hasBody(String method, int status) {
+        return !"HEAD".equalsIgnoreCase(method) && status >= 200 && status != 204 && status != 304;
+    }
+}
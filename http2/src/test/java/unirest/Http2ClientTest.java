@@ -0,0 +1,232 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.ContentTooLongException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class Http2ClientTest {
+    private HttpServer server;
+    private UnirestInstance unirest;
+    private String host;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/echo", this::echo);
+        server.createContext("/big", exchange -> respond(exchange, 200, big()));
+        server.createContext("/missing", exchange -> respond(exchange, 404, new byte[0]));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        host = "http://localhost:" + server.getAddress().getPort();
+        unirest = new UnirestInstance(new Config()
+                .httpClient(Http2Client::new)
+                .asyncClient(Http2AsyncClient::new));
+    }
+
+    @After
+    public void tearDown() {
+        unirest.shutDown();
+        server.stop(0);
+    }
+
+    @Test
+    public void sendsSyncRequests() {
+        HttpResponse<String> response = unirest.get(host + "/echo")
+                .header("X-Test", "a")
+                .queryString("q", "1")
+                .asString();
+
+        assertEquals(200, response.getStatus());
+        assertEquals("OK", response.getStatusText());
+        assertEquals("GET /echo?q=1 a ", response.getBody());
+        assertEquals("a", response.getHeaders().getFirst("X-Echo"));
+    }
+
+    @Test
+    public void sendsBodies() {
+        HttpResponse<String> response = unirest.post(host + "/echo")
+                .header("Content-Type", "text/plain")
+                .body("hello")
+                .asString();
+
+        assertEquals("POST /echo null hello", response.getBody());
+    }
+
+    @Test
+    public void sendsAsyncRequests() throws ExecutionException, InterruptedException {
+        List<CompletableFuture<HttpResponse<String>>> futures = IntStream.range(0, 20)
+                .mapToObj(i -> unirest.get(host + "/echo").queryString("i", i).asStringAsync())
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals("GET /echo?i=" + i + " null ", futures.get(i).get().getBody());
+        }
+    }
+
+    @Test
+    public void asyncBodiesGoThroughTheResponseConsumer() throws InterruptedException {
+        unirest.config().maxResponseSize(4);
+
+        try {
+            unirest.post(host + "/echo").body("more than four bytes").asStringAsync().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause().toString(), e.getCause() instanceof ContentTooLongException);
+        }
+    }
+
+    @Test
+    public void errorStatusesAreReturned() throws ExecutionException, InterruptedException {
+        assertEquals(404, unirest.get(host + "/missing").asString().getStatus());
+        assertEquals(404, unirest.get(host + "/missing").asStringAsync().get().getStatus());
+    }
+
+    @Test
+    public void headRequestsHaveNoBody() {
+        HttpResponse<String> response = unirest.head(host + "/echo").asString();
+
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    public void interceptorsAreRun() {
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        unirest.config().addInterceptor((request, context) -> seen.add(request.getRequestLine().getMethod()));
+
+        unirest.get(host + "/echo").asString();
+
+        assertEquals(Collections.singletonList("GET"), seen);
+    }
+
+    @Test
+    public void slowSubscribersGetTheWholeBody() throws Exception {
+        BodyFlow.Publisher<ByteBuffer> body = unirest.get(host + "/big").asPublisherAsync().get().getBody();
+        ScheduledExecutorService later = Executors.newSingleThreadScheduledExecutor();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+
+        try {
+            body.subscribe(new BodyFlow.Subscriber<ByteBuffer>() {
+                private BodyFlow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(BodyFlow.Subscription s) {
+                    subscription = s;
+                    s.request(1);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    byte[] chunk = new byte[item.remaining()];
+                    item.get(chunk);
+                    read.write(chunk, 0, chunk.length);
+                    later.schedule(() -> subscription.request(1), 1, TimeUnit.MILLISECONDS);
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    done.completeExceptionally(error);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.complete(read.toByteArray());
+                }
+            });
+
+            assertArrayEquals(big(), done.get(30, TimeUnit.SECONDS));
+        } finally {
+            later.shutdownNow();
+        }
+    }
+
+    private static byte[] big() {
+        byte[] body = new byte[2_000_000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+        return body;
+    }
+
+    private void echo(HttpExchange exchange) throws IOException {
+        String body = read(exchange.getRequestBody());
+        String line = exchange.getRequestMethod() + " " + exchange.getRequestURI() + " "
+                + exchange.getRequestHeaders().getFirst("X-Test") + " " + body;
+        if (exchange.getRequestHeaders().containsKey("X-Test")) {
+            exchange.getResponseHeaders().add("x-echo", exchange.getRequestHeaders().getFirst("X-Test"));
+        }
+        respond(exchange, 200, line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        boolean head = exchange.getRequestMethod().equals("HEAD");
+        exchange.sendResponseHeaders(status, head || body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            if (!head) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -49,6 +49,8 @@ public class ApacheAsyncClient extends BaseApacheClient implements AsyncClient {
             manager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor());
             manager.setMaxTotal(config.getMaxConnections());
             manager.setDefaultMaxPerRoute(config.getMaxPerRoutes());
+            setRouteLimits(config, manager::setMaxPerRoute);
+            registerPool(config, "async", manager::getTotalStats);
 
             HttpAsyncClientBuilder ab = HttpAsyncClientBuilder.create()
                     .setDefaultRequestConfig(getRequestConfig(config))
@@ -41,7 +41,12 @@ public class ApacheClient extends BaseApacheClient implements Client {
     private final SyncIdleConnectionMonitorThread syncMonitor;
 
     public ApacheClient(Config config) {
-        manager = new PoolingHttpClientConnectionManager();
+        manager = config.getMetrics().isPresent() ? new InstrumentedConnectionManager() : new PoolingHttpClientConnectionManager();
+        manager.setMaxTotal(config.getMaxConnections());
+        manager.setDefaultMaxPerRoute(config.getMaxPerRoutes());
+        setRouteLimits(config, manager::setMaxPerRoute);
+        registerPool(config, "sync", manager::getTotalStats);
+
         syncMonitor = new SyncIdleConnectionMonitorThread(manager);
         syncMonitor.start();
 
@@ -49,6 +54,7 @@ public class ApacheClient extends BaseApacheClient implements Client {
                 .setDefaultRequestConfig(getRequestConfig(config))
                 .setDefaultCredentialsProvider(config.getProxyCreds())
                 .setConnectionManager(manager)
+                .disableContentCompression()
                 .useSystemProperties();
 
         if(config.useSystemProperties()){
@@ -60,6 +66,9 @@ public class ApacheClient extends BaseApacheClient implements Client {
         if (!config.getEnabledCookieManagement()) {
             cb.disableCookieManagement();
         }
+        if (config.getMetrics().isPresent()) {
+            cb.setRequestExecutor(new InstrumentedConnectionManager.TimedRequestExecutor());
+        }
         config.getInterceptors().stream().forEach(cb::addInterceptorFirst);
         client = cb.build();
     }
@@ -32,13 +32,35 @@ import org.apache.http.HttpResponse;
 import org.apache.http.util.EntityUtils;
 
 import java.io.*;
-import java.util.zip.GZIPInputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.function.BiFunction;
 
 class ApacheResponse implements RawResponse {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    // the most allocated up front on the word of a Content-Length header, anything longer grows as it is read
+    private static final int MAX_INITIAL_SIZE = 1024 * 1024;
+
     private final HttpResponse r;
+    private final long maxResponseSize;
+    private final BufferPool pool;
+    private final ContentDecoders decoders;
+    private boolean aborted;
 
     public ApacheResponse(HttpResponse r){
+        this(r, 0, BufferPool.NONE);
+    }
+
+    ApacheResponse(HttpResponse r, long maxResponseSize, BufferPool pool){
+        this(r, maxResponseSize, pool, ContentDecoders.DEFAULT);
+    }
+
+    ApacheResponse(HttpResponse r, long maxResponseSize, BufferPool pool, ContentDecoders decoders){
         this.r = r;
+        this.maxResponseSize = maxResponseSize;
+        this.pool = pool;
+        this.decoders = decoders;
     }
 
     @Override
@@ -61,7 +83,7 @@ class ApacheResponse implements RawResponse {
         try {
             HttpEntity entity = r.getEntity();
             if(entity != null) {
-                return entity.getContent();
+                return decodedContent(entity);
             }
             return Util.emptyStream();
         } catch (IOException e) {
@@ -74,17 +96,7 @@ class ApacheResponse implements RawResponse {
         if(!hasContent()){
             return new byte[0];
         }
-        try {
-            InputStream is = getContent();
-            if (isGzipped(getEncoding())) {
-                is = new GZIPInputStream(getContent());
-            }
-            return getBytes(is);
-        } catch (IOException e2) {
-            throw new UnirestException(e2);
-        } finally {
-            EntityUtils.consumeQuietly(r.getEntity());
-        }
+        return readEntity(this::getBytes);
     }
 
     @Override
@@ -92,14 +104,38 @@ class ApacheResponse implements RawResponse {
         if(!hasContent()){
             return "";
         }
+        Charset charset = ResponseUtils.getCharset(this);
+        return readEntity((is, length) -> readPooled(is, length, (buf, len) -> new String(buf, 0, len, charset)));
+    }
+
+    private <T> T readEntity(BodyReader<T> reader) {
         try {
-            String charSet = ResponseUtils.getCharSet(this);
-            return new String(getContentAsBytes(), charSet);
-        } catch (IOException e) {
-            throw new UnirestException(e);
+            HttpEntity entity = r.getEntity();
+            return reader.read(decodedContent(entity), decodedLength(entity));
+        } catch (IOException e2) {
+            throw new UnirestException(e2);
+        } finally {
+            if (!aborted) {
+                EntityUtils.consumeQuietly(r.getEntity());
+            }
         }
     }
 
+    /**
+     * The body, decoded as it is read if it has a content encoding.
+     * The size limit applies to the decoded body, so a small compressed body can't expand into more than the limit.
+     */
+    private InputStream decodedContent(HttpEntity entity) throws IOException {
+        return limit(decoders.decode(getEncoding(), entity.getContent()), decodedLength(entity));
+    }
+
+    /**
+     * @return the length of the decoded body if the headers say, otherwise -1
+     */
+    private long decodedLength(HttpEntity entity) {
+        return decoders.decodes(getEncoding()) ? -1 : entity.getContentLength();
+    }
+
     @Override
     public InputStreamReader getContentReader(){
         return new InputStreamReader(getContent());
@@ -132,27 +168,88 @@ class ApacheResponse implements RawResponse {
         return "";
     }
 
-    private static byte[] getBytes(InputStream is) throws IOException {
-        int len;
-        int size = 1024;
-        byte[] buf;
+    private InputStream limit(InputStream is, long contentLength) throws IOException {
+        if (maxResponseSize <= 0) {
+            return is;
+        }
+        if (contentLength > maxResponseSize) {
+            abort();
+            throw LimitedInputStream.tooLong(maxResponseSize);
+        }
+        return new LimitedInputStream(is, maxResponseSize, this::abort);
+    }
 
+    /**
+     * Close the connection rather than reading the rest of a body we are going to throw away
+     */
+    private void abort() {
+        aborted = true;
+        if (r instanceof Closeable) {
+            try {
+                ((Closeable) r).close();
+            } catch (IOException e) {
+                // the connection is being discarded anyway
+            }
+        }
+    }
+
+    private byte[] getBytes(InputStream is, long contentLength) throws IOException {
+        if (contentLength >= 0 && contentLength <= MAX_ARRAY_SIZE) {
+            return readExactly(is, (int) contentLength);
+        }
         if (is instanceof ByteArrayInputStream) {
-            size = is.available();
-            buf = new byte[size];
-            len = is.read(buf, 0, size);
-        } else {
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            buf = new byte[size];
-            while ((len = is.read(buf, 0, size)) != -1) {
-                bos.write(buf, 0, len);
+            return readExactly(is, is.available());
+        }
+        return readPooled(is, contentLength, Arrays::copyOf);
+    }
+
+    /**
+     * Read the whole stream into a buffer from the pool, growing it if needed, and build the result from it.
+     * The buffer goes back to the pool afterwards so the result must not keep a reference to it.
+     */
+    private <T> T readPooled(InputStream is, long contentLength, BiFunction<byte[], Integer, T> result) throws IOException {
+        int size = contentLength >= 0 ? (int) Math.min(contentLength, MAX_INITIAL_SIZE) : BUFFER_SIZE;
+        byte[] buf = pool.acquireBytes(size);
+        try {
+            int count = 0;
+            while (true) {
+                if (count == buf.length) {
+                    int next = is.read();
+                    if (next == -1) {
+                        break;
+                    }
+                    buf = Arrays.copyOf(buf, (int) Math.min(Math.max(buf.length * 2L, BUFFER_SIZE), MAX_ARRAY_SIZE));
+                    buf[count++] = (byte) next;
+                }
+                int len = is.read(buf, count, buf.length - count);
+                if (len == -1) {
+                    break;
+                }
+                count += len;
+            }
+            return result.apply(buf, count);
+        } finally {
+            pool.release(buf);
+        }
+    }
+
+    private static byte[] readExactly(InputStream is, int size) throws IOException {
+        byte[] buf = new byte[Math.min(size, MAX_INITIAL_SIZE)];
+        int offset = 0;
+        while (offset < size) {
+            if (offset == buf.length) {
+                buf = Arrays.copyOf(buf, (int) Math.min(buf.length * 2L, size));
+            }
+            int len = is.read(buf, offset, buf.length - offset);
+            if (len == -1) {
+                return Arrays.copyOf(buf, offset);
             }
-            buf = bos.toByteArray();
+            offset += len;
         }
         return buf;
     }
 
-    private static boolean isGzipped(String value) {
-        return "gzip".equalsIgnoreCase(value.toLowerCase().trim());
+    private interface BodyReader<T> {
+        T read(InputStream is, long contentLength) throws IOException;
     }
 }
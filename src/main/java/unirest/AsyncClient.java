@@ -26,8 +26,13 @@
 
 package unirest;
 
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
 
+import java.util.concurrent.Future;
 import java.util.stream.Stream;
 
 public interface AsyncClient {
@@ -38,4 +43,32 @@ public interface AsyncClient {
     default boolean isRunning(){
         return true;
     }
+
+    /**
+     * Send a request. By default it is sent with the Apache client from getClient().
+     *
+     * @param request the prepared request
+     * @param callback completed with the response
+     * @return a future for the response. Cancelling it aborts the exchange
+     */
+    default Future<org.apache.http.HttpResponse> execute(HttpUriRequest request,
+                                                         FutureCallback<org.apache.http.HttpResponse> callback) {
+        return getClient().execute(request, callback);
+    }
+
+    /**
+     * Send a request produced and consumed by the given Apache handlers. By default it is sent with the Apache client from getClient().
+     * Other transports can take over by feeding the request from the producer and the response into the consumer.
+     *
+     * @param producer produces the request
+     * @param consumer consumes the response
+     * @param callback completed with the consumer's result
+     * @param <T> the type of result
+     * @return a future for the result. Cancelling it aborts the exchange
+     */
+    default <T> Future<T> execute(HttpAsyncRequestProducer producer,
+                                  HttpAsyncResponseConsumer<T> consumer,
+                                  FutureCallback<T> callback) {
+        return getClient().execute(producer, consumer, callback);
+    }
 }
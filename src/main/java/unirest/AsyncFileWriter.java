@@ -0,0 +1,185 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes a published body into a file with an AsynchronousFileChannel.
+ * The next chunk is only asked for once the last one is on disk, so the body is never buffered
+ * and a slow disk slows down the connection rather than filling up memory.
+ * Unlike the blocking write in FileDownload the chunks don't come from the BufferPool. The publisher hands each one
+ * over to its subscriber, and the write completes on one of the file channel's threads, so a per-thread pool
+ * would never see them again on the IO thread that reads the next one.
+ */
+class AsyncFileWriter implements BodyFlow.Subscriber<ByteBuffer>, CompletionHandler<Integer, ByteBuffer> {
+    private final RawResponse head;
+    private final FileDownload download;
+    private final AsynchronousFileChannel channel;
+    private final CompletableFuture<HttpResponse<File>> result;
+    private BodyFlow.Subscription subscription;
+    private long position;
+    private boolean writing;
+    private boolean ended;
+
+    private AsyncFileWriter(RawResponse head, FileDownload download, AsynchronousFileChannel channel, long start,
+                            CompletableFuture<HttpResponse<File>> result) {
+        this.head = head;
+        this.download = download;
+        this.channel = channel;
+        this.position = start;
+        this.result = result;
+    }
+
+    /**
+     * Start writing the body of a response.
+     * Cancelling the future aborts the download.
+     * @return the response once the body has been written. Its file is null if the response was not the file
+     */
+    static CompletableFuture<HttpResponse<File>> write(RawResponse head, BodyFlow.Publisher<ByteBuffer> body, FileDownload download) {
+        CompletableFuture<HttpResponse<File>> result = new CompletableFuture<>();
+        try {
+            long start = download.start(head);
+            if (start == FileDownload.SKIP) {
+                body.subscribe(new Cancelling());
+                result.complete(new FileResponse(head, download.skipped()));
+                return result;
+            }
+            AsynchronousFileChannel channel = AsynchronousFileChannel.open(download.open(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(start);
+            body.subscribe(new AsyncFileWriter(head, download, channel, start, result));
+        } catch (IOException | RuntimeException e) {
+            download.failed();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void onSubscribe(BodyFlow.Subscription s) {
+        subscription = s;
+        result.whenComplete((file, error) -> {
+            if (result.isCancelled()) {
+                s.cancel();
+                close();
+                download.failed();
+            }
+        });
+        s.request(1);
+    }
+
+    @Override
+    public synchronized void onNext(ByteBuffer chunk) {
+        writing = true;
+        channel.write(chunk, position, chunk, this);
+    }
+
+    @Override
+    public synchronized void completed(Integer written, ByteBuffer chunk) {
+        position += written;
+        if (chunk.hasRemaining()) {
+            channel.write(chunk, position, chunk, this);
+            return;
+        }
+        writing = false;
+        if (ended) {
+            finish();
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void failed(Throwable error, ByteBuffer chunk) {
+        subscription.cancel();
+        fail(error);
+    }
+
+    @Override
+    public synchronized void onError(Throwable error) {
+        fail(error);
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        ended = true;
+        if (!writing) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        close();
+        try {
+            result.complete(new FileResponse(head, download.finish()));
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable error) {
+        close();
+        download.failed();
+        result.completeExceptionally(error);
+    }
+
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // nothing more we can do
+        }
+    }
+
+    /**
+     * Turns down a body that isn't wanted, which drops the connection rather than reading it.
+     */
+    static class Cancelling implements BodyFlow.Subscriber<ByteBuffer> {
+        @Override
+        public void onSubscribe(BodyFlow.Subscription s) {
+            s.cancel();
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+        }
+
+        @Override
+        public void onError(Throwable error) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -28,8 +28,15 @@ package unirest;
 
 import org.apache.http.HttpHost;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.PoolStats;
+
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 abstract class BaseApacheClient {
+    private static final int HTTP_PORT = 80;
+    private static final int HTTPS_PORT = 443;
 
     protected RequestConfig getRequestConfig(Config config) {
         Integer connectionTimeout = config.getConnectionTimeout();
@@ -38,8 +45,26 @@ abstract class BaseApacheClient {
         return RequestConfig.custom()
                 .setConnectTimeout(connectionTimeout)
                 .setSocketTimeout(socketTimeout)
-                .setConnectionRequestTimeout(socketTimeout)
+                .setConnectionRequestTimeout(config.getConnectionRequestTimeout())
                 .setProxy(proxy)
                 .build();
     }
+
+    protected void setRouteLimits(Config config, BiConsumer<HttpRoute, Integer> manager) {
+        config.getRouteLimits().forEach((host, limit) -> manager.accept(toRoute(host, config.getProxy()), limit));
+    }
+
+    protected void registerPool(Config config, String name, Supplier<PoolStats> stats) {
+        config.getMetrics().ifPresent(m -> m.onPool(name, () -> ConnectionPoolStats.of(stats.get())));
+    }
+
+    private HttpRoute toRoute(HttpHost host, HttpHost proxy) {
+        boolean secure = "https".equalsIgnoreCase(host.getSchemeName());
+        int port = host.getPort() > 0 ? host.getPort() : (secure ? HTTPS_PORT : HTTP_PORT);
+        HttpHost target = new HttpHost(host.getHostName(), port, host.getSchemeName());
+        if (proxy == null) {
+            return new HttpRoute(target, null, secure);
+        }
+        return new HttpRoute(target, null, proxy, secure);
+    }
 }
@@ -26,22 +26,40 @@
 
 package unirest;
 
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
 
     private Optional<ObjectMapper> objectMapper = Optional.empty();
+    private RequestOptions options = new RequestOptions();
     protected Headers headers = new Headers();
     protected final Config config;
     protected HttpMethod method;
@@ -51,6 +69,7 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
         this.config = httpRequest.config;
         this.method = httpRequest.method;
         this.url = httpRequest.url;
+        this.options = httpRequest.options;
         this.headers.addAll(httpRequest.headers);
     }
 
@@ -119,6 +138,13 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
         return (R)this;
     }
 
+    @Override
+    @SuppressWarnings("unchecked")
+    public R options(RequestOptions options) {
+        this.options = Objects.requireNonNull(options, "RequestOptions may not be null");
+        return (R)this;
+    }
+
     @Override
     public HttpResponse<String> asString() throws UnirestException {
         return request(StringResponse::new);
@@ -136,27 +162,27 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
 
     @Override
     public HttpResponse<JsonNode> asJson() throws UnirestException {
-        return request(JsonResponse::new);
+        return request(r -> new JsonResponse(r, config.getBufferPool()));
     }
 
     @Override
     public CompletableFuture<HttpResponse<JsonNode>> asJsonAsync() {
-        return requestAsync(JsonResponse::new, new CompletableFuture<>());
+        return requestAsync(r -> new JsonResponse(r, config.getBufferPool()), new CompletableFuture<>());
     }
 
     @Override
     public CompletableFuture<HttpResponse<JsonNode>> asJsonAsync(Callback<JsonNode> callback) {
-        return requestAsync(JsonResponse::new, CallbackFuture.wrap(callback));
+        return requestAsync(r -> new JsonResponse(r, config.getBufferPool()), CallbackFuture.wrap(callback));
     }
 
     @Override
     public <T> HttpResponse<T> asObject(Class<? extends T> responseClass) throws UnirestException {
-        return request(r -> new ObjectResponse<T>(getObjectMapper(), r, responseClass));
+        return request(r -> new ObjectResponse<T>(getObjectMapper(), r, responseClass, config.getBufferPool()));
     }
 
     @Override
     public <T> HttpResponse<T> asObject(GenericType<T> genericType) throws UnirestException {
-        return request(r -> new ObjectResponse<T>(getObjectMapper(), r, genericType));
+        return request(r -> new ObjectResponse<T>(getObjectMapper(), r, genericType, config.getBufferPool()));
     }
 
     @Override
@@ -171,22 +197,22 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
 
     @Override
     public <T> CompletableFuture<HttpResponse<T>> asObjectAsync(Class<? extends T> responseClass) {
-        return requestAsync(r -> new ObjectResponse<T>(getObjectMapper(), r, responseClass), new CompletableFuture<>());
+        return requestAsync(r -> new ObjectResponse<T>(getObjectMapper(), r, responseClass, config.getBufferPool()), new CompletableFuture<>());
     }
 
     @Override
     public <T> CompletableFuture<HttpResponse<T>> asObjectAsync(Class<? extends T> responseClass, Callback<T> callback) {
-        return requestAsync(r -> new ObjectResponse<>(getObjectMapper(), r, responseClass), CallbackFuture.wrap(callback));
+        return requestAsync(r -> new ObjectResponse<>(getObjectMapper(), r, responseClass, config.getBufferPool()), CallbackFuture.wrap(callback));
     }
 
     @Override
     public <T> CompletableFuture<HttpResponse<T>> asObjectAsync(GenericType<T> genericType) {
-        return requestAsync(r -> new ObjectResponse<>(getObjectMapper(), r, genericType), new CompletableFuture<>());
+        return requestAsync(r -> new ObjectResponse<>(getObjectMapper(), r, genericType, config.getBufferPool()), new CompletableFuture<>());
     }
 
     @Override
     public <T> CompletableFuture<HttpResponse<T>> asObjectAsync(GenericType<T> genericType, Callback<T> callback) {
-        return requestAsync(r -> new ObjectResponse<>(getObjectMapper(), r, genericType), CallbackFuture.wrap(callback));
+        return requestAsync(r -> new ObjectResponse<>(getObjectMapper(), r, genericType, config.getBufferPool()), CallbackFuture.wrap(callback));
     }
 
     private <T> Function<RawResponse, HttpResponse<T>> funcResponse(Function<RawResponse, T> function) {
@@ -208,6 +234,76 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
         return requestAsync(BinaryResponse::new, CallbackFuture.wrap(callback));
     }
 
+    @Override
+    public CompletableFuture<HttpResponse<BodyFlow.Publisher<ByteBuffer>>> asPublisherAsync() {
+        return publish(unencoded(), (raw, publisher) -> publisher, this::onCallbackThread);
+    }
+
+    @Override
+    public <T> HttpResponse<Stream<T>> asStream(Class<? extends T> responseClass) {
+        return withBody(request(streamed(new Headers())), jsonStream(responseClass));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<Stream<T>>> asStreamAsync(Class<? extends T> responseClass) {
+        return publish(new Headers(), jsonStream(responseClass), this::offReactorThread);
+    }
+
+    private <T> BiFunction<RawResponse, BodyFlow.Publisher<ByteBuffer>, Stream<T>> jsonStream(Class<? extends T> responseClass) {
+        ObjectMapper mapper = getObjectMapper();
+        ContentDecoders decoders = config.getContentDecoders();
+        return (raw, publisher) -> {
+            PublisherInputStream content = new PublisherInputStream(publisher);
+            return JsonStream.of(raw, decoders.decode(raw.getEncoding(), content), mapper, responseClass, content::close);
+        };
+    }
+
+    /**
+     * Send the request through the same policies as any other async request and, once one attempt's headers have been picked,
+     * turn its published body into the response's body on the callback thread.
+     * @param only headers sent with this exchange but not kept on the request
+     */
+    <T> CompletableFuture<HttpResponse<T>> publish(Headers only,
+                                                   BiFunction<RawResponse, BodyFlow.Publisher<ByteBuffer>, T> body,
+                                                   Consumer<Runnable> callbackThread) {
+        CompletableFuture<HttpResponse<T>> callback = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<BodyFlow.Publisher<ByteBuffer>>> head = requestAsync(streamed(only), new CompletableFuture<>());
+        head.whenComplete((response, error) -> callbackThread.accept(() -> {
+            if (error != null) {
+                callback.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            if (callback.isDone()) {
+                ((StreamedResponse) response).abort();
+                return;
+            }
+            try {
+                if (!callback.complete(withBody(response, body))) {
+                    ((StreamedResponse) response).abort();
+                }
+            } catch (RuntimeException e) {
+                callback.completeExceptionally(e);
+            }
+        }));
+        callback.whenComplete((response, error) -> {
+            if (callback.isCancelled()) {
+                head.cancel(true);
+            }
+        });
+        return callback;
+    }
+
+    private static <T> HttpResponse<T> withBody(HttpResponse<BodyFlow.Publisher<ByteBuffer>> head,
+                                                BiFunction<RawResponse, BodyFlow.Publisher<ByteBuffer>, T> body) {
+        StreamedResponse streamed = (StreamedResponse) head;
+        try {
+            return new BasicResponse<>(streamed.getRaw(), body.apply(streamed.getRaw(), streamed.getBody()));
+        } catch (RuntimeException e) {
+            streamed.abort();
+            throw e;
+        }
+    }
+
     @Override
     public void thenConsume(Consumer<RawResponse> consumer) {
         request(getConsumer(consumer));
@@ -220,17 +316,122 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
 
     @Override
     public HttpResponse<File> asFile(String path) {
-        return request(r -> new FileResponse(r, path));
+        if (options.getDownloadSegments() > 1) {
+            return join(fileAsync(path, new CompletableFuture<>()));
+        }
+        if (options.resumesDownloads()) {
+            FileDownload download = FileDownload.resumable(path);
+            return request(buffered(r -> new FileResponse(r, download, config.getBufferPool()), resume(download)));
+        }
+        return request(r -> new FileResponse(r, FileDownload.to(path), config.getBufferPool()));
     }
 
     @Override
     public CompletableFuture<HttpResponse<File>> asFileAsync(String path) {
-        return requestAsync(r -> new FileResponse(r, path), new CompletableFuture<>());
+        return fileAsync(path, new CompletableFuture<>());
     }
 
     @Override
     public CompletableFuture<HttpResponse<File>> asFileAsync(String path, Callback<File> callback) {
-        return requestAsync(r -> new FileResponse(r, path), CallbackFuture.wrap(callback));
+        return fileAsync(path, CallbackFuture.wrap(callback));
+    }
+
+    private CompletableFuture<HttpResponse<File>> fileAsync(String path, CompletableFuture<HttpResponse<File>> callback) {
+        if (options.getDownloadSegments() > 1) {
+            return ParallelDownload.start(this, path, options.getDownloadSegments(), getRetryPolicy().orElseGet(RetryPolicy::new), callback);
+        }
+        if (options.resumesDownloads()) {
+            FileDownload download = FileDownload.resumable(path);
+            return downloadAsync(download, resume(download), callback);
+        }
+        return downloadAsync(FileDownload.to(path), unencoded(), callback);
+    }
+
+    @Override
+    public HttpResponse<File> asFileParallel(String path, int segments) {
+        return join(ParallelDownload.start(this, path, segments, getRetryPolicy().orElseGet(RetryPolicy::new), new CompletableFuture<>()));
+    }
+
+    /**
+     * A single download of the whole body, whatever the download options.
+     */
+    CompletableFuture<HttpResponse<File>> downloadAsync(String path) {
+        return downloadAsync(FileDownload.to(path), unencoded(), new CompletableFuture<>());
+    }
+
+    private static <T> HttpResponse<T> join(CompletableFuture<HttpResponse<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof UnirestException) {
+                throw (UnirestException) cause;
+            }
+            throw new UnirestException(cause);
+        }
+    }
+
+    /**
+     * @return the headers that ask for the rest of a partly downloaded file, or with nothing downloaded yet the whole of it
+     */
+    private static Headers resume(FileDownload download) {
+        return ranged(download.getOffset() > 0 ? "bytes=" + download.getOffset() + "-" : null);
+    }
+
+    /**
+     * Ask for part of the body, or with null the whole of it, unencoded as ranges count bytes of the encoded body.
+     * This changes the request itself so it is only used on copies.
+     */
+    void range(String range) {
+        headers.remove(HttpHeaders.RANGE);
+        headers.putAll(ranged(range));
+    }
+
+    private static Headers ranged(String range) {
+        Headers only = new Headers();
+        if (range != null) {
+            only.add(HttpHeaders.RANGE, range);
+        }
+        only.add(HttpHeaders.ACCEPT_ENCODING, "identity");
+        return only;
+    }
+
+    /**
+     * Ask for the body unencoded when it is going to be handed over chunk by chunk as it arrives,
+     * where it can't be decoded on the way, unless the caller has asked for an encoding themselves.
+     */
+    private Headers unencoded() {
+        Headers only = new Headers();
+        if (!headers.containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            only.add(HttpHeaders.ACCEPT_ENCODING, "identity");
+        }
+        return only;
+    }
+
+    /**
+     * @return a bodiless copy of this request, with the same url and headers, for the method
+     */
+    BaseRequest<?> copy(HttpMethod method) {
+        return new HttpRequestNoBody(this, method);
+    }
+
+    private CompletableFuture<HttpResponse<File>> downloadAsync(FileDownload download, Headers only, CompletableFuture<HttpResponse<File>> callback) {
+        CompletableFuture<HttpResponse<CompletableFuture<HttpResponse<File>>>> head =
+                publish(only, (raw, publisher) -> AsyncFileWriter.write(raw, publisher, download), Runnable::run);
+        head.thenCompose(HttpResponse::getBody).whenComplete((response, e) -> onCallbackThread(() -> {
+            if (e != null) {
+                callback.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                callback.complete(response);
+            }
+        }));
+        callback.whenComplete((response, e) -> {
+            if (callback.isCancelled()) {
+                head.cancel(true);
+                head.thenAccept(r -> r.getBody().cancel(true));
+            }
+        });
+        return callback;
     }
 
     private Function<RawResponse, HttpResponse<Object>> getConsumer(Consumer<RawResponse> consumer) {
@@ -243,31 +444,443 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
     private <T> CompletableFuture<HttpResponse<T>> requestAsync(
             Function<RawResponse, HttpResponse<T>> transformer,
             CompletableFuture<HttpResponse<T>> callback) {
+        return requestAsync(buffered(transformer, new Headers()), callback);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> requestAsync(Exchange<T> exchange, CompletableFuture<HttpResponse<T>> callback) {
 
         Objects.requireNonNull(callback);
 
-        HttpUriRequest requestObj = new RequestPrep(this, true).prepare();
-
-        config.getAsyncHttpClient()
-                .execute(requestObj, new FutureCallback<org.apache.http.HttpResponse>() {
-                    @Override
-                    public void completed(org.apache.http.HttpResponse httpResponse) {
-                        callback.complete(transformer.apply(new ApacheResponse(httpResponse)));
-                    }
-
-                    @Override
-                    public void failed(Exception e) {
-                        callback.completeExceptionally(e);
-                    }
-
-                    @Override
-                    public void cancelled() {
-                        callback.completeExceptionally(new UnirestException("canceled"));
-                    }
-                });
+        Optional<RetryPolicy> policy = getRetryPolicy();
+        if (policy.isPresent()) {
+            retryAsync(exchange, callback, policy.get().start(method, this::isReplayable));
+            return callback;
+        }
+        return attemptAsync(exchange, callback);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attemptAsync(Exchange<T> exchange, CompletableFuture<HttpResponse<T>> callback) {
+
+        Optional<HedgePolicy> hedging = config.getHedgePolicy();
+        if (hedging.isPresent() && hedging.get().hedges(method)) {
+            return hedgedAsync(exchange, callback, hedging.get().start(method, url.template()));
+        }
+        return sendAsync(exchange, callback);
+    }
+
+    /**
+     * Send the request and, if it hasn't completed by the hedge delay, send it again.
+     * The first response completes the callback and cancels the other copy.
+     * The copy never joins a coalesced flight, as it would only end up waiting on the first one.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> hedgedAsync(
+            Exchange<T> exchange,
+            CompletableFuture<HttpResponse<T>> callback,
+            HedgePolicy.Hedge hedge) {
+
+        CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        CompletableFuture<HttpResponse<T>> first = hedgeAttempt(exchange, result, hedge, running);
+        ScheduledFuture<?> timer = DelayScheduler.schedule(() -> {
+            if (!result.isDone() && hedge.tryHedge()) {
+                running.incrementAndGet();
+                CompletableFuture<HttpResponse<T>> second = hedgeAttempt(exchange.alone(), result, hedge, running);
+                result.whenComplete((response, error) -> second.cancel(true));
+            }
+        }, hedge.delay(), TimeUnit.MILLISECONDS);
+        result.whenComplete((response, error) -> {
+            timer.cancel(false);
+            first.cancel(true);
+            if (error != null) {
+                callback.completeExceptionally(error);
+            } else if (!callback.complete(response)) {
+                exchange.discard(response);
+            }
+        });
+        callback.whenComplete((response, error) -> result.cancel(true));
+        return callback;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> hedgeAttempt(
+            Exchange<T> exchange,
+            CompletableFuture<HttpResponse<T>> result,
+            HedgePolicy.Hedge hedge,
+            AtomicInteger running) {
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<T>> attempt = sendAsync(exchange, new CompletableFuture<>());
+        attempt.whenComplete((response, error) -> {
+            if (error == null) {
+                hedge.record(System.nanoTime() - start);
+                if (!result.complete(response)) {
+                    exchange.discard(response);
+                }
+            } else if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * Send the request again after each retryable failure, waiting on the shared scheduler rather than blocking a thread.
+     */
+    private <T> void retryAsync(Exchange<T> exchange,
+                                CompletableFuture<HttpResponse<T>> callback,
+                                RetryPolicy.Attempts attempts) {
+        attemptAsync(exchange, new CompletableFuture<>()).whenComplete((response, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            long delay = callback.isDone() ? -1 : attempts.nextDelay(response, cause);
+            if (delay >= 0) {
+                if (response != null) {
+                    exchange.discard(response);
+                }
+                DelayScheduler.schedule(() -> retryAsync(exchange, callback, attempts), delay, TimeUnit.MILLISECONDS);
+            } else if (cause != null) {
+                callback.completeExceptionally(cause);
+            } else if (!callback.complete(response)) {
+                exchange.discard(response);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(Exchange<T> exchange, CompletableFuture<HttpResponse<T>> callback) {
+
+        long wait;
+        try {
+            wait = reservePermit();
+        } catch (RateLimitExceededException e) {
+            callback.completeExceptionally(e);
+            return callback;
+        }
+        if (wait > 0) {
+            DelayScheduler.schedule(() -> guardedAsync(exchange, callback), wait, TimeUnit.NANOSECONDS);
+            return callback;
+        }
+        return guardedAsync(exchange, callback);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> guardedAsync(Exchange<T> exchange, CompletableFuture<HttpResponse<T>> callback) {
+
+        if (callback.isDone()) {
+            return callback;
+        }
+        Optional<Executor> executor = config.getAsyncExecutor();
+        if (executor.isPresent()) {
+            return requestOnExecutor(executor.get(), exchange, callback);
+        }
+        CircuitBreaker.Call call;
+        try {
+            call = CircuitBreaker.start(config, method, url);
+        } catch (CircuitBreakerOpenException e) {
+            callback.completeExceptionally(e);
+            return callback;
+        }
+        callback.whenComplete((response, error) -> {
+            if (error == null) {
+                call.completed(response);
+            } else {
+                call.failed(error);
+            }
+        });
+        try {
+            return exchange.async(callback);
+        } catch (RuntimeException e) {
+            callback.completeExceptionally(e);
+            return callback;
+        }
+    }
+
+    /**
+     * One go at sending the request, which the retry, hedging, rate limit and circuit breaker policies wrap.
+     */
+    private static final class Exchange<T> {
+        private final Function<CompletableFuture<HttpResponse<T>>, CompletableFuture<HttpResponse<T>>> async;
+        private final Supplier<HttpResponse<T>> blocking;
+        private final Consumer<HttpResponse<T>> discard;
+        private final Supplier<Exchange<T>> alone;
+
+        private Exchange(Function<CompletableFuture<HttpResponse<T>>, CompletableFuture<HttpResponse<T>>> async,
+                         Supplier<HttpResponse<T>> blocking,
+                         Consumer<HttpResponse<T>> discard,
+                         Supplier<Exchange<T>> alone) {
+            this.async = async;
+            this.blocking = blocking;
+            this.discard = discard;
+            this.alone = alone;
+        }
+
+        /**
+         * Send the request with the async client
+         * @return the callback, completed with the response
+         */
+        CompletableFuture<HttpResponse<T>> async(CompletableFuture<HttpResponse<T>> callback) {
+            return async.apply(callback);
+        }
+
+        /**
+         * Send the request with the sync client, for sync requests and async ones run on an executor
+         */
+        HttpResponse<T> blocking() {
+            return blocking.get();
+        }
+
+        /**
+         * Let go of a response that a policy dropped in favour of another attempt
+         */
+        void discard(HttpResponse<T> response) {
+            discard.accept(response);
+        }
+
+        /**
+         * @return the same exchange, but always sent to the server rather than following a coalesced request
+         */
+        Exchange<T> alone() {
+            return alone.get();
+        }
+    }
+
+    /**
+     * An exchange whose body is read in full, going through the response cache and request coalescing.
+     * @param only headers sent with this exchange but not kept on the request
+     */
+    private <T> Exchange<T> buffered(Function<RawResponse, HttpResponse<T>> transformer, Headers only) {
+        return buffered(transformer, only, true);
+    }
+
+    private <T> Exchange<T> buffered(Function<RawResponse, HttpResponse<T>> transformer, Headers only, boolean coalesce) {
+        return new Exchange<>(
+                callback -> exchangeAsync(transformer, only, coalesce, callback),
+                () -> exchange(transformer, only, coalesce),
+                response -> { },
+                () -> buffered(transformer, only, false));
+    }
+
+    /**
+     * An exchange that completes with a StreamedResponse as soon as the headers arrive, leaving the body on the connection.
+     * These are never cached or coalesced, and the ones that are dropped are aborted.
+     * @param only headers sent with this exchange but not kept on the request
+     */
+    private Exchange<BodyFlow.Publisher<ByteBuffer>> streamed(Headers only) {
+        return new Exchange<>(
+                callback -> streamAsync(only, callback),
+                () -> stream(only),
+                response -> ((StreamedResponse) response).abort(),
+                () -> streamed(only));
+    }
+
+    private HttpRequestBase prepare(boolean async, Headers only) {
+        HttpRequestBase requestObj = new RequestPrep(this, config.getContentDecoders(), async).prepare();
+        only.forEach((name, values) -> {
+            requestObj.removeHeaders(name);
+            values.forEach(value -> requestObj.addHeader(name, value));
+        });
+        return requestObj;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> exchangeAsync(
+            Function<RawResponse, HttpResponse<T>> transformer,
+            Headers only,
+            boolean coalesce,
+            CompletableFuture<HttpResponse<T>> callback) {
+
+        HttpUriRequest requestObj = prepare(true, only);
+        CacheExchange cache = CacheExchange.start(config, requestObj);
+        Optional<RawResponse> cached = cache.lookup();
+        if (cached.isPresent()) {
+            onCallbackThread(() -> complete(callback, () -> transformer.apply(cached.get())));
+            return callback;
+        }
+        RequestCoalescer.Flight flight = coalesce ? RequestCoalescer.join(config, requestObj) : RequestCoalescer.Flight.NONE;
+        if (!flight.isLeader()) {
+            return follow(flight, transformer, callback);
+        }
+        Future<?> exchange;
+        try {
+            RequestTimer timer = RequestTimer.start(config, method, url.template());
+            exchange = executeAsync(requestObj, new ResponseCallback<>(transformer, callback, timer, cache, flight), timer);
+        } catch (RuntimeException e) {
+            flight.fail(e);
+            throw e;
+        }
+        flight.sending(exchange);
+        callback.whenComplete((response, error) -> {
+            if (callback.isCancelled() && flight.leave()) {
+                exchange.cancel(true);
+            }
+        });
+        return callback;
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> follow(RequestCoalescer.Flight flight,
+                                                         Function<RawResponse, HttpResponse<T>> transformer,
+                                                         CompletableFuture<HttpResponse<T>> callback) {
+        flight.result().whenComplete((raw, e) -> onCallbackThread(() -> {
+            if (e != null) {
+                callback.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            } else {
+                complete(callback, () -> transformer.apply(raw));
+            }
+        }));
+        callback.whenComplete((response, error) -> {
+            if (callback.isCancelled()) {
+                flight.leave();
+            }
+        });
+        return callback;
+    }
+
+    private CompletableFuture<HttpResponse<BodyFlow.Publisher<ByteBuffer>>> streamAsync(
+            Headers only,
+            CompletableFuture<HttpResponse<BodyFlow.Publisher<ByteBuffer>>> callback) {
+        try {
+            HttpUriRequest requestObj = prepare(true, only);
+            RequestTimer timer = RequestTimer.start(config, method, url.template());
+            PublishingResponseConsumer consumer = new PublishingResponseConsumer(callback, timer, getMaxResponseSize());
+            HttpAsyncRequestProducer producer = HttpAsyncMethods.create(requestObj);
+            HttpAsyncResponseConsumer<Void> timed = consumer;
+            if (timer.isEnabled()) {
+                TimedAsyncExchange<Void> timing = new TimedAsyncExchange<>(producer, consumer, timer);
+                producer = timing.getProducer();
+                timed = timing.getConsumer();
+            }
+            Future<?> exchange = config.getAsyncClient().execute(producer, timed, null);
+            consumer.streaming(exchange);
+            callback.whenComplete((response, error) -> {
+                if (callback.isCancelled()) {
+                    exchange.cancel(true);
+                }
+            });
+        } catch (RuntimeException e) {
+            callback.completeExceptionally(e);
+        }
         return callback;
     }
 
+    private Future<?> executeAsync(HttpUriRequest requestObj,
+                              FutureCallback<org.apache.http.HttpResponse> futureCallback,
+                              RequestTimer timer) {
+        long maxSize = getMaxResponseSize();
+        if (!timer.isEnabled() && maxSize <= 0) {
+            return config.getAsyncClient().execute(requestObj, futureCallback);
+        }
+        HttpAsyncRequestProducer producer = HttpAsyncMethods.create(requestObj);
+        HttpAsyncResponseConsumer<org.apache.http.HttpResponse> consumer = maxSize > 0
+                ? new LimitedResponseConsumer(maxSize)
+                : HttpAsyncMethods.createConsumer();
+        if (timer.isEnabled()) {
+            TimedAsyncExchange<org.apache.http.HttpResponse> exchange = new TimedAsyncExchange<>(producer, consumer, timer);
+            producer = exchange.getProducer();
+            consumer = exchange.getConsumer();
+        }
+        return config.getAsyncClient().execute(producer, consumer, futureCallback);
+    }
+
+    /**
+     * Hands the response of an exchange with the async client to the cache, the coalesced requests waiting on it and the callback.
+     */
+    private final class ResponseCallback<T> implements FutureCallback<org.apache.http.HttpResponse> {
+        private final Function<RawResponse, HttpResponse<T>> transformer;
+        private final CompletableFuture<HttpResponse<T>> callback;
+        private final RequestTimer timer;
+        private final CacheExchange cache;
+        private final RequestCoalescer.Flight flight;
+
+        private ResponseCallback(Function<RawResponse, HttpResponse<T>> transformer,
+                                 CompletableFuture<HttpResponse<T>> callback,
+                                 RequestTimer timer,
+                                 CacheExchange cache,
+                                 RequestCoalescer.Flight flight) {
+            this.transformer = transformer;
+            this.callback = callback;
+            this.timer = timer;
+            this.cache = cache;
+            this.flight = flight;
+        }
+
+        @Override
+        public void completed(org.apache.http.HttpResponse httpResponse) {
+            onCallbackThread(() -> complete(callback, () -> timer.transform(transformer, flight.complete(() ->
+                    cache.complete(new ApacheResponse(httpResponse, getMaxResponseSize(), config.getBufferPool(), config.getContentDecoders()))))));
+        }
+
+        @Override
+        public void failed(Exception e) {
+            timer.failed(e);
+            flight.fail(e);
+            onCallbackThread(() -> callback.completeExceptionally(e));
+        }
+
+        @Override
+        public void cancelled() {
+            UnirestException canceled = new UnirestException("canceled");
+            flight.fail(canceled);
+            onCallbackThread(() -> callback.completeExceptionally(canceled));
+        }
+    }
+
+    /**
+     * Run the blocking client on the configured executor instead of using the async client.
+     * Failures are unwrapped so the future fails the same way it would with the async client.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> requestOnExecutor(
+            Executor executor,
+            Exchange<T> exchange,
+            CompletableFuture<HttpResponse<T>> callback) {
+        try {
+            executor.execute(() -> {
+                try {
+                    HttpResponse<T> response = guarded(exchange);
+                    onCallbackThread(() -> {
+                        if (!callback.complete(response)) {
+                            exchange.discard(response);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    Throwable cause = e instanceof UnirestException && e.getCause() != null ? e.getCause() : e;
+                    onCallbackThread(() -> callback.completeExceptionally(cause));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            callback.completeExceptionally(e);
+        }
+        return callback;
+    }
+
+    private static <T> void complete(CompletableFuture<HttpResponse<T>> callback, Supplier<HttpResponse<T>> response) {
+        try {
+            callback.complete(response.get());
+        } catch (RuntimeException e) {
+            callback.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Anything that blocks on the body must not run on the reactor thread that is delivering it,
+     * so without a callback executor these completions go to the common pool instead.
+     */
+    private void offReactorThread(Runnable completion) {
+        Executor executor = config.getCallbackExecutor().orElseGet(ForkJoinPool::commonPool);
+        try {
+            executor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private void onCallbackThread(Runnable completion) {
+        Optional<Executor> executor = config.getCallbackExecutor();
+        if (!executor.isPresent()) {
+            completion.run();
+            return;
+        }
+        try {
+            executor.get().execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
 
     @Override
     public HttpMethod getHttpMethod() {
@@ -290,22 +903,181 @@ abstract class BaseRequest<R extends HttpRequest> implements HttpRequest<R> {
     }
 
     private <T> HttpResponse<T> request(Function<RawResponse, HttpResponse<T>> transformer) {
+        return request(buffered(transformer, new Headers()));
+    }
+
+    private <T> HttpResponse<T> request(Exchange<T> exchange) {
+        Optional<RetryPolicy> policy = getRetryPolicy();
+        if (!policy.isPresent()) {
+            return send(exchange);
+        }
+        RetryPolicy.Attempts attempts = policy.get().start(method, this::isReplayable);
+        while (true) {
+            long delay;
+            try {
+                HttpResponse<T> response = send(exchange);
+                delay = attempts.nextDelay(response, null);
+                if (delay < 0) {
+                    return response;
+                }
+                exchange.discard(response);
+            } catch (UnirestException e) {
+                delay = attempts.nextDelay(null, e);
+                if (delay < 0) {
+                    throw e;
+                }
+            }
+            sleep(delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void sleep(long delay, TimeUnit unit) {
+        try {
+            unit.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnirestException(e);
+        }
+    }
+
+    @SuppressWarnings("deprecation") // Body only exposes its entity until version 4
+    private boolean isReplayable() {
+        Body body = getBody();
+        return body == null || body.getEntity() == null || body.getEntity().isRepeatable();
+    }
+
+    private <T> HttpResponse<T> send(Exchange<T> exchange) {
+        long wait = reservePermit();
+        if (wait > 0) {
+            sleep(wait, TimeUnit.NANOSECONDS);
+        }
+        return guarded(exchange);
+    }
+
+    /**
+     * Take a permit from the rate limit for the request's host, if it has one.
+     * A connection request timeout of zero means the request waits as long as it takes, as it does for a connection.
+     * @return how long to wait before sending, in nanoseconds
+     */
+    private long reservePermit() {
+        int timeout = config.getConnectionRequestTimeout();
+        long maxWait = timeout > 0 ? TimeUnit.MILLISECONDS.toNanos(timeout) : Long.MAX_VALUE;
+        long wait = config.getRateLimiter().reserve(url, maxWait);
+        if (wait > 0) {
+            config.getMetrics().ifPresent(m -> m.onPhase(method, url.template(), MetricsListener.Phase.RATE_LIMIT, wait));
+        }
+        return wait;
+    }
+
+    private <T> HttpResponse<T> guarded(Exchange<T> exchange) {
+        CircuitBreaker.Call call = CircuitBreaker.start(config, method, url);
+        try {
+            HttpResponse<T> response = exchange.blocking();
+            call.completed(response);
+            return response;
+        } catch (RuntimeException e) {
+            call.failed(e);
+            throw e;
+        }
+    }
 
-        HttpRequestBase requestObj = new RequestPrep(this, false).prepare();
-        HttpClient client = config.getClient();
+    private <T> HttpResponse<T> exchange(Function<RawResponse, HttpResponse<T>> transformer, Headers only, boolean coalesce) {
+
+        HttpRequestBase requestObj = prepare(false, only);
+        CacheExchange cache = CacheExchange.start(config, requestObj);
+        Optional<RawResponse> cached = cache.lookup();
+        if (cached.isPresent()) {
+            return transformer.apply(cached.get());
+        }
+        RequestCoalescer.Flight flight = coalesce ? RequestCoalescer.join(config, requestObj) : RequestCoalescer.Flight.NONE;
+        if (!flight.isLeader()) {
+            return transformer.apply(flight.await());
+        }
+        Client client;
+        RequestTimer timer;
+        try {
+            client = config.getSyncClient();
+            timer = RequestTimer.start(config, method, url.template());
+        } catch (RuntimeException e) {
+            flight.fail(e);
+            throw e;
+        }
 
         try {
-            org.apache.http.HttpResponse execute = client.execute(requestObj);
-            HttpResponse<T> httpResponse = transformer.apply(new ApacheResponse(execute));
+            org.apache.http.HttpResponse execute = execute(client, requestObj, timer);
+            RawResponse raw = flight.complete(() -> cache.complete(new ApacheResponse(execute, getMaxResponseSize(), config.getBufferPool(), config.getContentDecoders())));
+            HttpResponse<T> httpResponse = timer.transform(transformer, raw);
             requestObj.releaseConnection();
             return httpResponse;
         } catch (Exception e) {
+            flight.fail(e);
+            timer.failed(e);
             throw new UnirestException(e);
         } finally {
             requestObj.releaseConnection();
         }
     }
 
+    /**
+     * Send the request with the sync client and publish the body straight off the connection.
+     */
+    private HttpResponse<BodyFlow.Publisher<ByteBuffer>> stream(Headers only) {
+        HttpRequestBase requestObj = prepare(false, only);
+        RequestTimer timer = RequestTimer.start(config, method, url.template());
+        try {
+            org.apache.http.HttpResponse execute = execute(config.getSyncClient(), requestObj, timer);
+            InputStreamPublisher publisher = new InputStreamPublisher(content(execute, requestObj), requestObj::abort);
+            return timer.transform(raw -> new StreamedResponse(raw, publisher, publisher::abort), new ApacheResponse(execute));
+        } catch (Exception e) {
+            requestObj.abort();
+            timer.failed(e);
+            throw new UnirestException(e);
+        }
+    }
+
+    /**
+     * @return the body as it came off the connection, still encoded, failing once it is over the max response size
+     */
+    private InputStream content(org.apache.http.HttpResponse response, HttpRequestBase requestObj) throws IOException {
+        HttpEntity entity = response.getEntity();
+        if (entity == null) {
+            return Util.emptyStream();
+        }
+        long maxSize = getMaxResponseSize();
+        if (maxSize <= 0) {
+            return entity.getContent();
+        }
+        if (entity.getContentLength() > maxSize) {
+            throw LimitedInputStream.tooLong(maxSize);
+        }
+        return new LimitedInputStream(entity.getContent(), maxSize, requestObj::abort);
+    }
+
+    private org.apache.http.HttpResponse execute(Client client, HttpRequestBase requestObj, RequestTimer timer) throws IOException {
+        if (!timer.isEnabled()) {
+            return client.execute(requestObj, null);
+        }
+        HttpClientContext context = HttpClientContext.create();
+        context.setAttribute(RequestTimer.CONTEXT_KEY, timer);
+        return client.execute(requestObj, context);
+    }
+
+    /**
+     * Leave retrying to the caller, as ParallelDownload does for its segments.
+     */
+    void withoutRetries() {
+        options = options.copy().retryPolicy(new RetryPolicy().maxAttempts(1));
+    }
+
+    private Optional<RetryPolicy> getRetryPolicy() {
+        Optional<RetryPolicy> policy = options.getRetryPolicy();
+        return policy.isPresent() ? policy : config.getRetryPolicy();
+    }
+
+    private long getMaxResponseSize() {
+        return options.getMaxResponseSize().orElseGet(config::getMaxResponseSize);
+    }
+
     private ObjectMapper getObjectMapper() {
         return objectMapper.orElseGet(config::getObjectMapper);
     }
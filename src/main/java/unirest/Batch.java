@@ -0,0 +1,180 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Sends a collection of requests with no more than a fixed number in flight at once.
+ * The next request is only sent when an earlier one completes, so a large batch never
+ * queues more requests on the connection pool than it can hand out.
+ *
+ * <pre>{@code
+ * List<BatchResult<JsonNode>> results = Unirest.batch(requests, HttpRequest::asJsonAsync)
+ *         .maxInFlight(20)
+ *         .inOrder()
+ *         .join();
+ * }</pre>
+ *
+ * Each call to {@link #inOrder()} or {@link #asCompleted()} sends the whole batch again.
+ * @param <R> the type of request
+ * @param <T> the type of the response body
+ */
+public class Batch<R extends HttpRequest<?>, T> {
+    private final List<R> requests;
+    private final Function<? super R, CompletableFuture<HttpResponse<T>>> sender;
+    private int maxInFlight;
+
+    Batch(Config config, Collection<R> requests, Function<? super R, CompletableFuture<HttpResponse<T>>> sender) {
+        this.requests = new ArrayList<>(Objects.requireNonNull(requests));
+        this.sender = Objects.requireNonNull(sender);
+        this.maxInFlight = Math.min(config.getMaxPerRoutes(), config.getMaxConnections());
+    }
+
+    /**
+     * Set how many requests may be in flight at once.
+     * Defaults to the perRoute limit from Config::concurrency
+     * @param maxInFlight the maximum number of outstanding requests
+     * @return this batch
+     */
+    public Batch<R, T> maxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new UnirestConfigException("maxInFlight must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Send the batch.
+     * @return a future of every result, in the same order as the requests. It completes once every request has.
+     */
+    public CompletableFuture<List<BatchResult<T>>> inOrder() {
+        CompletableFuture<List<BatchResult<T>>> future = new CompletableFuture<>();
+        AtomicReferenceArray<BatchResult<T>> results = new AtomicReferenceArray<>(requests.size());
+        AtomicInteger remaining = new AtomicInteger(results.length());
+        if (results.length() == 0) {
+            future.complete(new ArrayList<>());
+            return future;
+        }
+        send(r -> {
+            results.set(r.getIndex(), r);
+            if (remaining.decrementAndGet() == 0) {
+                future.complete(IntStream.range(0, results.length()).mapToObj(results::get).collect(Collectors.toList()));
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Send the batch.
+     * @return a stream of the results in the order they complete. Pulling the next result blocks until one is ready.
+     */
+    public Stream<BatchResult<T>> asCompleted() {
+        BlockingQueue<BatchResult<T>> queue = new LinkedBlockingQueue<>();
+        send(queue::add);
+        return IntStream.range(0, requests.size()).mapToObj(i -> take(queue));
+    }
+
+    private void send(Consumer<BatchResult<T>> sink) {
+        new Dispatcher(sink).drain();
+    }
+
+    private BatchResult<T> take(BlockingQueue<BatchResult<T>> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnirestException(e);
+        }
+    }
+
+    /**
+     * Hands out requests as permits free up. The work-in-progress counter keeps a single thread
+     * in the send loop at a time, so requests that complete immediately don't recurse.
+     */
+    private class Dispatcher {
+        private final Consumer<BatchResult<T>> sink;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+        private int next;
+
+        Dispatcher(Consumer<BatchResult<T>> sink) {
+            this.sink = sink;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (next < requests.size() && inFlight.get() < maxInFlight) {
+                    inFlight.incrementAndGet();
+                    send(next++);
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        private void send(int index) {
+            CompletableFuture<HttpResponse<T>> future;
+            try {
+                future = sender.apply(requests.get(index));
+            } catch (RuntimeException e) {
+                future = new CompletableFuture<>();
+                future.completeExceptionally(e);
+            }
+            future.whenComplete((response, error) -> done(new BatchResult<>(index, response, unwrap(error))));
+        }
+
+        private void done(BatchResult<T> result) {
+            inFlight.decrementAndGet();
+            sink.accept(result);
+            drain();
+        }
+
+        private Throwable unwrap(Throwable error) {
+            if (error instanceof CompletionException && error.getCause() != null) {
+                return error.getCause();
+            }
+            return error;
+        }
+    }
+}
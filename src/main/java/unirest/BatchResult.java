@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.Optional;
+
+/**
+ * The outcome of a single request in a {@link Batch}.
+ * A failed request does not fail the rest of the batch, it just ends up here with its error.
+ * @param <T> the type of the response body
+ */
+public class BatchResult<T> {
+    private final int index;
+    private final HttpResponse<T> response;
+    private final Throwable error;
+
+    BatchResult(int index, HttpResponse<T> response, Throwable error) {
+        this.index = index;
+        this.response = response;
+        this.error = error;
+    }
+
+    /**
+     * @return the position of the request in the collection given to the batch
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return true if a response was received. Note that this says nothing about the status code
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the response, if one was received
+     */
+    public Optional<HttpResponse<T>> getResponse() {
+        return Optional.ofNullable(response);
+    }
+
+    /**
+     * @return the reason the request failed, if it did
+     */
+    public Optional<Throwable> getError() {
+        return Optional.ofNullable(error);
+    }
+}
@@ -35,7 +35,11 @@ public class BinaryResponse extends BaseResponse<InputStream> {
 
     protected BinaryResponse(RawResponse response) {
         super(response);
-        body = new ByteArrayInputStream(response.getContentAsBytes());
+        if (response instanceof BufferedResponse) {
+            body = response.getContent();
+        } else {
+            body = new ByteArrayInputStream(response.getContentAsBytes());
+        }
     }
 
     @Override
@@ -0,0 +1,53 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes response bodies sent with a Content-Encoding.
+ * gzip and deflate are built in. Others, like br or zstd, can be added with Unirest.config().bodyDecoder(...)
+ * or by a module on the classpath which lists its decoder in META-INF/services/unirest.BodyDecoder.
+ * Every registered encoding is offered in the Accept-Encoding header of requests which don't set their own.
+ */
+public interface BodyDecoder {
+    /**
+     * @return the Content-Encoding this decodes, e.g. "br"
+     */
+    String getEncoding();
+
+    /**
+     * Wrap an encoded body in a stream which decodes it as it is read.
+     * This is only called once the body is first read, so it may read the start of the stream.
+     *
+     * @param encoded the body as it came off the connection
+     * @return the decoded body. Closing it must close the encoded stream.
+     * @throws IOException if the body can't be decoded
+     */
+    InputStream decode(InputStream encoded) throws IOException;
+}
@@ -0,0 +1,92 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+/**
+ * Publisher, Subscriber and Subscription interfaces with the same shape and rules as java.util.concurrent.Flow
+ * and Reactive Streams, which can't be used directly on Java 8.
+ * Adapting them to either is a matter of delegating each method.
+ */
+public final class BodyFlow {
+    private BodyFlow() {
+    }
+
+    /**
+     * A source of items which are sent to a subscriber as it asks for them.
+     * @param <T> the type of item
+     */
+    public interface Publisher<T> {
+        /**
+         * @param subscriber the subscriber, which is always given a subscription or an error
+         */
+        void subscribe(Subscriber<? super T> subscriber);
+    }
+
+    /**
+     * Receives items from a publisher. The methods are never called concurrently.
+     * @param <T> the type of item
+     */
+    public interface Subscriber<T> {
+        /**
+         * Called first. Nothing is sent until the subscriber asks for it with Subscription::request.
+         * @param subscription the subscription
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         * @param item the next item
+         */
+        void onNext(T item);
+
+        /**
+         * Called at most once, and nothing else is called afterwards.
+         * @param error the failure
+         */
+        void onError(Throwable error);
+
+        /**
+         * Called at most once after the last item, and nothing else is called afterwards.
+         */
+        void onComplete();
+    }
+
+    /**
+     * The link between a publisher and its subscriber.
+     */
+    public interface Subscription {
+        /**
+         * Ask for up to n more items.
+         * @param n the number of items, which must be positive
+         */
+        void request(long n);
+
+        /**
+         * Stop sending items. Anything that was still to be sent is discarded.
+         */
+        void cancel();
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.CharArrayReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.function.Function;
+
+/**
+ * Scratch buffers used while reading and decoding response bodies.
+ * Without a pool every read allocates its own buffers. A thread local pool keeps one byte buffer and one char
+ * buffer per thread and hands them out again on the next read, so steady state reads only allocate their result.
+ * Buffers larger than the limit are never kept.
+ *
+ * Configure one with Unirest.config().bufferPool(BufferPool.threadLocal(64 * 1024))
+ */
+public final class BufferPool {
+    static final BufferPool NONE = new BufferPool(0);
+    static final int DEFAULT_SIZE = 8192;
+
+    private final int maxRetained;
+    private final ThreadLocal<byte[]> bytes = new ThreadLocal<>();
+    private final ThreadLocal<char[]> chars = new ThreadLocal<>();
+
+    private BufferPool(int maxRetained) {
+        this.maxRetained = maxRetained;
+    }
+
+    /**
+     * A pool that keeps up to one byte buffer and one char buffer per thread.
+     *
+     * @param maxBufferSize the largest buffer, in bytes or chars, that will be kept for reuse.
+     * @return a new BufferPool
+     */
+    public static BufferPool threadLocal(int maxBufferSize) {
+        return new BufferPool(maxBufferSize);
+    }
+
+    byte[] acquireBytes(int minSize) {
+        byte[] buf = bytes.get();
+        if (buf != null && buf.length >= minSize) {
+            bytes.remove();
+            return buf;
+        }
+        return new byte[minSize];
+    }
+
+    void release(byte[] buf) {
+        if (buf != null && buf.length <= maxRetained) {
+            bytes.set(buf);
+        }
+    }
+
+    char[] acquireChars(int minSize) {
+        char[] buf = chars.get();
+        if (buf != null && buf.length >= minSize) {
+            chars.remove();
+            return buf;
+        }
+        return new char[minSize];
+    }
+
+    void release(char[] buf) {
+        if (buf != null && buf.length <= maxRetained) {
+            chars.set(buf);
+        }
+    }
+
+    /**
+     * Decode bytes into a pooled char buffer and hand a Reader over it to the parser.
+     * The Reader supports mark/reset so parsers like JSONTokener won't wrap it in another buffer.
+     * The Reader must not be used once parse returns.
+     */
+    <T> T decode(byte[] body, int length, Charset charset, Function<Reader, T> parse) {
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        char[] buf = acquireChars((int) Math.ceil(length * (double) decoder.maxCharsPerByte()));
+        try {
+            CharBuffer out = CharBuffer.wrap(buf);
+            ByteBuffer in = ByteBuffer.wrap(body, 0, length);
+            decoder.decode(in, out, true);
+            decoder.flush(out);
+            return parse.apply(new CharArrayReader(buf, 0, out.position()));
+        } finally {
+            release(buf);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * A RawResponse whose body has already been read, such as one served from a ResponseCache.
+ * The body may be in memory or in a file, and it has already been decoded so there is never a content encoding.
+ */
+class BufferedResponse implements RawResponse {
+    private final int status;
+    private final String statusText;
+    private final Headers headers;
+    private final CacheEntry.Body body;
+
+    BufferedResponse(int status, String statusText, Headers headers, CacheEntry.Body body) {
+        this.status = status;
+        this.statusText = statusText;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Read the whole of a response into memory
+     */
+    static RawResponse of(RawResponse response) {
+        if (response instanceof BufferedResponse) {
+            return response;
+        }
+        Headers headers = new Headers();
+        headers.addAll(response.getHeaders());
+        if (!response.getEncoding().isEmpty()) {
+            headers.remove("Content-Encoding");
+            headers.remove("Content-Length");
+        }
+        CacheEntry.Body body = CacheEntry.Body.of(response.getContentAsBytes());
+        return new BufferedResponse(response.getStatus(), response.getStatusText(), headers, body);
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public String getStatusText() {
+        return statusText;
+    }
+
+    @Override
+    public Headers getHeaders() {
+        Headers copy = new Headers();
+        copy.addAll(headers);
+        return copy;
+    }
+
+    @Override
+    public InputStream getContent() {
+        try {
+            return body.open();
+        } catch (IOException e) {
+            throw new UnirestException(e);
+        }
+    }
+
+    @Override
+    public byte[] getContentAsBytes() {
+        try {
+            return body.bytes();
+        } catch (IOException e) {
+            throw new UnirestException(e);
+        }
+    }
+
+    @Override
+    public String getContentAsString() {
+        return new String(getContentAsBytes(), ResponseUtils.getCharset(this));
+    }
+
+    @Override
+    public InputStreamReader getContentReader() {
+        return new InputStreamReader(getContent(), ResponseUtils.getCharset(this));
+    }
+
+    @Override
+    public boolean hasContent() {
+        return body.length() > 0;
+    }
+
+    @Override
+    public String getContentType() {
+        return Util.nullToEmpty(headers.getFirst("Content-Type"));
+    }
+
+    @Override
+    public String getEncoding() {
+        return "";
+    }
+}
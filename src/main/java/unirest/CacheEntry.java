@@ -0,0 +1,180 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A stored response along with what is needed to work out its age and which requests it can answer.
+ */
+class CacheEntry {
+    private static final Set<String> NOT_STORED = names("Content-Encoding", "Content-Length", "Transfer-Encoding", "Connection", "Keep-Alive");
+    private static final Set<String> NOT_UPDATED = names("Content-Type", "Content-Range");
+
+    private final int status;
+    private final String statusText;
+    private final Headers headers;
+    private final Body body;
+    private final Map<String, String> vary;
+    private final long requestTime;
+    private final long responseTime;
+
+    CacheEntry(int status, String statusText, Headers headers, Body body,
+               Map<String, String> vary, long requestTime, long responseTime) {
+        this.status = status;
+        this.statusText = statusText;
+        this.headers = headers;
+        this.body = body;
+        this.vary = vary;
+        this.requestTime = requestTime;
+        this.responseTime = responseTime;
+    }
+
+    private static Set<String> names(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(Arrays.asList(names));
+        return set;
+    }
+
+    static Headers storedHeaders(Headers responseHeaders) {
+        Headers stored = new Headers();
+        responseHeaders.forEach((k, v) -> {
+            if (!NOT_STORED.contains(k)) {
+                v.forEach(value -> stored.add(k, value));
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Freshen the entry with the headers from a 304 Not Modified
+     */
+    CacheEntry revalidated(Headers notModified, long requestTime, long responseTime) {
+        Headers merged = new Headers();
+        merged.addAll(headers);
+        storedHeaders(notModified).forEach((k, v) -> {
+            if (!NOT_UPDATED.contains(k)) {
+                merged.put(k, v);
+            }
+        });
+        return new CacheEntry(status, statusText, merged, body, vary, requestTime, responseTime);
+    }
+
+    CacheEntry withBody(Body stored) {
+        return new CacheEntry(status, statusText, headers, stored, vary, requestTime, responseTime);
+    }
+
+    /**
+     * @param requestHeaders the values of the request headers named by the stored response's Vary header
+     * @return true if this entry was stored for a request with the same values
+     */
+    boolean matches(Map<String, String> requestHeaders) {
+        return vary.equals(requestHeaders);
+    }
+
+    RawResponse toResponse() {
+        return new BufferedResponse(status, statusText, headers, body);
+    }
+
+    long size() {
+        long size = body.length();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                size += header.getKey().length() + value.length();
+            }
+        }
+        return size;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    String getStatusText() {
+        return statusText;
+    }
+
+    Headers getHeaders() {
+        return headers;
+    }
+
+    Body getBody() {
+        return body;
+    }
+
+    Map<String, String> getVary() {
+        return vary;
+    }
+
+    long getRequestTime() {
+        return requestTime;
+    }
+
+    long getResponseTime() {
+        return responseTime;
+    }
+
+    /**
+     * Where the stored body lives. It may be on the heap or in a file, so it can be streamed
+     * out without being loaded into memory first.
+     */
+    interface Body {
+        Body EMPTY = of(new byte[0]);
+
+        static Body of(byte[] bytes) {
+            return new Body() {
+                @Override
+                public InputStream open() {
+                    return new ByteArrayInputStream(bytes);
+                }
+
+                @Override
+                public byte[] bytes() {
+                    return bytes.clone();
+                }
+
+                @Override
+                public long length() {
+                    return bytes.length;
+                }
+            };
+        }
+
+        InputStream open() throws IOException;
+
+        byte[] bytes() throws IOException;
+
+        long length();
+    }
+}
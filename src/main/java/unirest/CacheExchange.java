@@ -0,0 +1,204 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Runs a single request past the ResponseCache. GET responses are looked up before the request is sent and
+ * stored once it returns, and successful unsafe requests invalidate whatever is stored for their url.
+ * Entries are keyed on the method and url along with the values of the request headers named by Vary, so each variant
+ * of a response is kept. Ranged requests skip the cache entirely and responses to requests carrying credentials
+ * are only stored when the server marks them as shareable.
+ */
+class CacheExchange {
+    static final CacheExchange NONE = new CacheExchange();
+    private static final Set<String> UNSAFE = new HashSet<>(Arrays.asList("POST", "PUT", "DELETE", "PATCH"));
+
+    private final ResponseCache cache;
+    private final HttpUriRequest request;
+    private final String url;
+    private final Map<String, String> directives;
+    private final long requestTime;
+    private CacheEntry entry;
+
+    private CacheExchange() {
+        this.cache = null;
+        this.request = null;
+        this.url = null;
+        this.directives = null;
+        this.requestTime = 0;
+    }
+
+    private CacheExchange(ResponseCache cache, HttpUriRequest request) {
+        this.cache = cache;
+        this.request = request;
+        this.url = "GET " + request.getURI();
+        this.directives = requestDirectives(request);
+        this.requestTime = System.currentTimeMillis();
+    }
+
+    static CacheExchange start(Config config, HttpUriRequest request) {
+        return config.getCache()
+                .map(c -> new CacheExchange(c, request))
+                .orElse(NONE);
+    }
+
+    /**
+     * Find a stored response for the request. A fresh one is returned as-is, while the validators of a stale one
+     * are added to the request so the server can answer with a 304.
+     * @return the stored response if it can be used without going to the server
+     */
+    Optional<RawResponse> lookup() {
+        if (!isGet() || isRanged() || directives.containsKey("no-store")) {
+            return Optional.empty();
+        }
+        CacheEntry stored = cache.get(url, e -> e.matches(varyValues(e.getHeaders())));
+        if (stored == null) {
+            return Optional.empty();
+        }
+        if (CachePolicy.isFresh(stored, directives, System.currentTimeMillis())) {
+            return Optional.of(stored.toResponse());
+        }
+        entry = stored;
+        addValidators(stored.getHeaders());
+        return Optional.empty();
+    }
+
+    private void addValidators(Headers stored) {
+        String etag = stored.getFirst("ETag");
+        if (etag != null && !request.containsHeader("If-None-Match")) {
+            request.setHeader("If-None-Match", etag);
+        }
+        String lastModified = stored.getFirst("Last-Modified");
+        if (lastModified != null && !request.containsHeader("If-Modified-Since")) {
+            request.setHeader("If-Modified-Since", lastModified);
+        }
+    }
+
+    /**
+     * Store or revalidate with the response from the server.
+     * @return the response to hand to the caller. A 304 is turned back into the stored response.
+     */
+    RawResponse complete(RawResponse response) {
+        if (cache == null) {
+            return response;
+        }
+        if (!isGet()) {
+            if (UNSAFE.contains(request.getMethod()) && response.getStatus() < 400) {
+                cache.remove(url);
+            }
+            return response;
+        }
+        long responseTime = System.currentTimeMillis();
+        if (response.getStatus() == 304 && entry != null) {
+            CacheEntry updated = entry.revalidated(response.getHeaders(), requestTime, responseTime);
+            cache.update(VariantIndex.key(url, updated.getVary()), updated);
+            return updated.toResponse();
+        }
+        if (isRanged()) {
+            return response;
+        }
+        return store(response, responseTime);
+    }
+
+    private RawResponse store(RawResponse response, long responseTime) {
+        Headers received = new Headers();
+        received.addAll(response.getHeaders());
+        Headers headers = CacheEntry.storedHeaders(received);
+        if (!CachePolicy.canStore(directives, hasCredentials(), response.getStatus(), headers) || !fits(received)) {
+            return response;
+        }
+        CacheEntry entry = new CacheEntry(response.getStatus(), response.getStatusText(), headers, CacheEntry.Body.EMPTY,
+                varyValues(headers), requestTime, responseTime);
+        return cache.store(VariantIndex.key(url, entry.getVary()), entry, response).toResponse();
+    }
+
+    private boolean fits(Headers received) {
+        String length = received.getFirst("Content-Length");
+        try {
+            return length == null || cache.fits(Long.parseLong(length.trim()));
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private Map<String, String> varyValues(Headers response) {
+        Map<String, String> values = new HashMap<>();
+        List<String> vary = response.get("Vary");
+        if (vary == null) {
+            return values;
+        }
+        for (String line : vary) {
+            for (String name : line.split(",")) {
+                String header = name.trim().toLowerCase();
+                if (!header.isEmpty()) {
+                    values.put(header, requestHeader(header));
+                }
+            }
+        }
+        return values;
+    }
+
+    private String requestHeader(String name) {
+        return Arrays.stream(request.getHeaders(name))
+                .map(Header::getValue)
+                .collect(Collectors.joining(","));
+    }
+
+    private boolean isRanged() {
+        return request.containsHeader("Range") || request.containsHeader("If-Range");
+    }
+
+    private boolean hasCredentials() {
+        return request.containsHeader("Authorization") || request.containsHeader("Cookie");
+    }
+
+    private boolean isGet() {
+        return cache != null && "GET".equals(request.getMethod());
+    }
+
+    private static Map<String, String> requestDirectives(HttpUriRequest request) {
+        List<String> values = Arrays.stream(request.getHeaders("Cache-Control"))
+                .map(Header::getValue)
+                .collect(Collectors.toList());
+        if (values.isEmpty() && request.containsHeader("Pragma")) {
+            values.add(request.getFirstHeader("Pragma").getValue());
+        }
+        return CachePolicy.cacheControl(values);
+    }
+}
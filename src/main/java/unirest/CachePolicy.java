@@ -0,0 +1,162 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.client.utils.DateUtils;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The RFC 7234 rules for what a private cache may store and how long it stays fresh.
+ */
+final class CachePolicy {
+    private static final Set<Integer> CACHEABLE_BY_DEFAULT = new HashSet<>(Arrays.asList(
+            200, 203, 204, 300, 301, 404, 405, 410, 414, 501));
+    private static final long HEURISTIC_MAX = 24 * 60 * 60 * 1000L;
+
+    private CachePolicy() {
+    }
+
+    /**
+     * @return the Cache-Control directives, lower case, with a value of "" for directives without one
+     */
+    static Map<String, String> cacheControl(List<String> values) {
+        Map<String, String> directives = new HashMap<>();
+        if (values == null) {
+            return directives;
+        }
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String[] pair = directive.split("=", 2);
+                String name = pair[0].trim().toLowerCase(Locale.ROOT);
+                if (!name.isEmpty()) {
+                    directives.put(name, pair.length > 1 ? unquote(pair[1].trim()) : "");
+                }
+            }
+        }
+        return directives;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    static boolean canStore(Map<String, String> request, boolean credentials, int status, Headers headers) {
+        if (status == 206 || status == 304) {
+            return false;
+        }
+        Map<String, String> response = cacheControl(headers.get("Cache-Control"));
+        if (request.containsKey("no-store") || response.containsKey("no-store")) {
+            return false;
+        }
+        if (credentials && !response.containsKey("public") && !response.containsKey("s-maxage")) {
+            return false;
+        }
+        if ("*".equals(headers.getFirst("Vary"))) {
+            return false;
+        }
+        if (response.containsKey("max-age") || headers.containsKey("Expires")) {
+            return true;
+        }
+        return CACHEABLE_BY_DEFAULT.contains(status)
+                && (headers.containsKey("ETag") || headers.containsKey("Last-Modified"));
+    }
+
+    static boolean isFresh(CacheEntry entry, Map<String, String> request, long now) {
+        Map<String, String> response = cacheControl(entry.getHeaders().get("Cache-Control"));
+        if (response.containsKey("no-cache") || request.containsKey("no-cache")) {
+            return false;
+        }
+        long age = currentAge(entry, now);
+        long requestMaxAge = seconds(request.get("max-age"));
+        if (requestMaxAge >= 0 && age > requestMaxAge) {
+            return false;
+        }
+        long minFresh = Math.max(0, seconds(request.get("min-fresh")));
+        return freshnessLifetime(entry.getHeaders(), response) > age + minFresh;
+    }
+
+    static long freshnessLifetime(Headers headers, Map<String, String> response) {
+        long maxAge = seconds(response.get("max-age"));
+        if (maxAge >= 0) {
+            return maxAge;
+        }
+        Date date = date(headers, "Date");
+        Date expires = date(headers, "Expires");
+        if (headers.containsKey("Expires")) {
+            if (expires == null || date == null) {
+                return 0;
+            }
+            return Math.max(0, expires.getTime() - date.getTime());
+        }
+        Date lastModified = date(headers, "Last-Modified");
+        if (date != null && lastModified != null) {
+            return Math.min(HEURISTIC_MAX, Math.max(0, date.getTime() - lastModified.getTime()) / 10);
+        }
+        return 0;
+    }
+
+    /**
+     * How old the response is, following RFC 7234 section 4.2.3
+     */
+    static long currentAge(CacheEntry entry, long now) {
+        Date date = date(entry.getHeaders(), "Date");
+        long apparentAge = date == null ? 0 : Math.max(0, entry.getResponseTime() - date.getTime());
+        long ageValue = Math.max(0, seconds(entry.getHeaders().getFirst("Age")));
+        long correctedAge = ageValue + (entry.getResponseTime() - entry.getRequestTime());
+        return Math.max(apparentAge, correctedAge) + (now - entry.getResponseTime());
+    }
+
+    /**
+     * @return a delta-seconds value in millis, or -1 if it is missing or invalid
+     */
+    private static long seconds(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Date date(Headers headers, String name) {
+        String value = headers.getFirst(name);
+        return value == null ? null : DateUtils.parseDate(value);
+    }
+}
@@ -0,0 +1,376 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops sending requests to a host or route that keeps failing, so that threads and pooled connections
+ * aren't tied up waiting on something that is down.
+ * <pre>{@code
+ * Unirest.config().circuitBreaker(new CircuitBreaker()
+ *         .failureRateThreshold(50)
+ *         .slowCalls(2000, 80)
+ *         .slidingWindow(20, 10)
+ *         .waitInOpen(30_000)
+ *         .onStateChange((key, from, to) -> log.warn("{} is now {}", key, to)));
+ * }</pre>
+ *
+ * Each host (or route template) has its own breaker, which starts CLOSED and records the outcome of the last
+ * N calls. A call fails if it throws or gets a 5xx status, and it is slow if it takes longer than the slow call duration.
+ * Once the window has the minimum number of calls and either the failure rate or the slow call rate reaches its
+ * threshold, the breaker OPENs and every request fails straight away with a CircuitBreakerOpenException
+ * without leasing a connection. After the wait it goes HALF_OPEN and lets a few trial calls through,
+ * closing again if they do well and opening again if they don't.
+ */
+public final class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public enum KeyBy {
+        /** One breaker for each scheme, host and port */
+        HOST,
+        /** One breaker for each method and route template, e.g. GET http://somewhere/users/{id} */
+        ROUTE
+    }
+
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChange(String key, State from, State to);
+    }
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    private double failureRate = 50;
+    private double slowRate = 100;
+    private long slowNanos = TimeUnit.SECONDS.toNanos(60);
+    private int windowSize = 100;
+    private int minimumCalls = 10;
+    private long waitNanos = TimeUnit.SECONDS.toNanos(60);
+    private int trialCalls = 5;
+    private KeyBy keyBy = KeyBy.HOST;
+    private Listener listener = (key, from, to) -> { };
+
+    /**
+     * @param percent open once at least this percentage of calls in the window failed. Defaults to 50
+     * @return this breaker
+     */
+    public CircuitBreaker failureRateThreshold(double percent) {
+        this.failureRate = percent(percent);
+        return this;
+    }
+
+    /**
+     * @param duration calls that take at least this many milliseconds are slow
+     * @param percent open once at least this percentage of calls in the window were slow. Defaults to 100
+     * @return this breaker
+     */
+    public CircuitBreaker slowCalls(long duration, double percent) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(duration);
+        this.slowRate = percent(percent);
+        return this;
+    }
+
+    /**
+     * @param size how many of the latest calls to record. Defaults to 100
+     * @param minimumCalls how many calls must be recorded before the rates are checked. Defaults to 10
+     * @return this breaker
+     */
+    public CircuitBreaker slidingWindow(int size, int minimumCalls) {
+        if (size < 1 || minimumCalls < 1 || minimumCalls > size) {
+            throw new UnirestConfigException("The window must hold at least the minimum number of calls");
+        }
+        this.windowSize = size;
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * @param millis how long to stay open before letting trial calls through. Defaults to 60 seconds
+     * @return this breaker
+     */
+    public CircuitBreaker waitInOpen(long millis) {
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        return this;
+    }
+
+    /**
+     * @param calls how many trial calls are let through when half open. Defaults to 5.
+     *              No more than the sliding window size are needed to close the breaker again
+     * @return this breaker
+     */
+    public CircuitBreaker halfOpenCalls(int calls) {
+        if (calls < 1) {
+            throw new UnirestConfigException("At least one trial call is needed");
+        }
+        this.trialCalls = calls;
+        return this;
+    }
+
+    /**
+     * @param keyBy whether to have a breaker per host (the default) or per route template
+     * @return this breaker
+     */
+    public CircuitBreaker keyBy(KeyBy keyBy) {
+        this.keyBy = keyBy;
+        return this;
+    }
+
+    /**
+     * @param listener called every time a breaker changes state
+     * @return this breaker
+     */
+    public CircuitBreaker onStateChange(Listener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * @param key a host such as http://somewhere:8080 or a route such as GET http://somewhere/users/{id}
+     * @return the state of the breaker for the key
+     */
+    public State getState(String key) {
+        Circuit circuit = circuits.get(key);
+        return circuit == null ? State.CLOSED : circuit.state(System.nanoTime());
+    }
+
+    private static double percent(double percent) {
+        if (percent <= 0 || percent > 100) {
+            throw new UnirestConfigException("Rate thresholds are a percentage greater than 0 and no more than 100");
+        }
+        return percent;
+    }
+
+    /**
+     * Ask the breaker for the request's host or route before sending it.
+     * @throws CircuitBreakerOpenException if the breaker is open
+     */
+    static Call start(Config config, HttpMethod method, Path url) {
+        return config.getCircuitBreaker()
+                .map(b -> b.call(b.key(method, url)))
+                .orElse(Call.NONE);
+    }
+
+    private Call call(String key) {
+        Circuit circuit = circuits.computeIfAbsent(key, Circuit::new);
+        Call call = circuit.tryAcquire(System.nanoTime());
+        if (call == null) {
+            throw new CircuitBreakerOpenException(key);
+        }
+        return call;
+    }
+
+    private String key(HttpMethod method, Path url) {
+        if (keyBy == KeyBy.ROUTE) {
+            return method + " " + url.template();
+        }
+        return host(url.toString());
+    }
+
+    static String host(String url) {
+        int scheme = url.indexOf("://");
+        int start = scheme < 0 ? 0 : scheme + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        int at = url.lastIndexOf('@', end);
+        return url.substring(0, scheme < 0 ? 0 : start) + url.substring(Math.max(start, at + 1), end).toLowerCase();
+    }
+
+    /**
+     * A request that was let through, which must report how it went.
+     */
+    static class Call {
+        static final Call NONE = new Call(null, 0, -1);
+
+        private final Circuit circuit;
+        private final long start;
+        private final int trialOf;
+
+        /**
+         * @param trialOf the half open spell the call is a trial for, or -1 if it isn't one
+         */
+        private Call(Circuit circuit, long start, int trialOf) {
+            this.circuit = circuit;
+            this.start = start;
+            this.trialOf = trialOf;
+        }
+
+        /**
+         * @param response the response, which is null when it was handed to a consumer instead
+         */
+        void completed(HttpResponse<?> response) {
+            record(response != null && response.getStatus() >= 500);
+        }
+
+        /**
+         * @param error the failure. Cancelled calls, such as the losing copy of a hedged request, are not recorded at all
+         *              and give back their trial if they had one
+         */
+        void failed(Throwable error) {
+            if (error instanceof CancellationException) {
+                if (circuit != null && trialOf >= 0) {
+                    circuit.release(trialOf);
+                }
+            } else if (!(error instanceof CircuitBreakerOpenException)) {
+                record(true);
+            }
+        }
+
+        private void record(boolean failure) {
+            if (circuit != null) {
+                long now = System.nanoTime();
+                circuit.record(failure, now - start >= circuit.owner().slowNanos, now);
+            }
+        }
+    }
+
+    /**
+     * The breaker for a single key. The window is a ring of the latest outcomes with running totals
+     * of the failed and slow ones in it.
+     */
+    private class Circuit {
+        private static final byte FAILED = 1;
+        private static final byte SLOW = 2;
+
+        private final String key;
+        private final byte[] window = new byte[windowSize];
+        private State state = State.CLOSED;
+        private int next;
+        private int recorded;
+        private int failures;
+        private int slow;
+        private long openedAt;
+        private int trialsStarted;
+        private int spell;
+
+        Circuit(String key) {
+            this.key = key;
+        }
+
+        CircuitBreaker owner() {
+            return CircuitBreaker.this;
+        }
+
+        State state(long now) {
+            State before;
+            State after;
+            synchronized (this) {
+                before = state;
+                if (state == State.OPEN && now - openedAt >= waitNanos) {
+                    moveTo(State.HALF_OPEN, now);
+                }
+                after = state;
+            }
+            notify(before, after);
+            return after;
+        }
+
+        /**
+         * @return the call, or null if the breaker won't let it through
+         */
+        Call tryAcquire(long now) {
+            state(now);
+            synchronized (this) {
+                if (state == State.CLOSED) {
+                    return new Call(this, now, -1);
+                }
+                if (state == State.HALF_OPEN && trialsStarted < trialCalls) {
+                    trialsStarted++;
+                    return new Call(this, now, spell);
+                }
+                return null;
+            }
+        }
+
+        /**
+         * Give back a trial that never got an outcome, unless the breaker has moved on since it was let through
+         */
+        synchronized void release(int trialOf) {
+            if (state == State.HALF_OPEN && spell == trialOf && trialsStarted > 0) {
+                trialsStarted--;
+            }
+        }
+
+        void record(boolean failed, boolean wasSlow, long now) {
+            State before;
+            State after;
+            synchronized (this) {
+                before = state;
+                if (state == State.OPEN) {
+                    return;
+                }
+                add((byte) ((failed ? FAILED : 0) | (wasSlow ? SLOW : 0)));
+                int needed = state == State.HALF_OPEN ? Math.min(trialCalls, window.length) : minimumCalls;
+                if (recorded >= needed) {
+                    if (failures * 100.0 >= failureRate * recorded || slow * 100.0 >= slowRate * recorded) {
+                        moveTo(State.OPEN, now);
+                    } else if (state == State.HALF_OPEN) {
+                        moveTo(State.CLOSED, now);
+                    }
+                }
+                after = state;
+            }
+            notify(before, after);
+        }
+
+        private void add(byte outcome) {
+            if (recorded == window.length) {
+                byte dropped = window[next];
+                failures -= dropped & FAILED;
+                slow -= (dropped & SLOW) >> 1;
+            } else {
+                recorded++;
+            }
+            window[next] = outcome;
+            failures += outcome & FAILED;
+            slow += (outcome & SLOW) >> 1;
+            next = (next + 1) % window.length;
+        }
+
+        private void moveTo(State to, long now) {
+            state = to;
+            openedAt = now;
+            trialsStarted = 0;
+            spell++;
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            slow = 0;
+        }
+
+        private void notify(State before, State after) {
+            if (before != after) {
+                listener.onStateChange(key, before, after);
+            }
+        }
+    }
+}
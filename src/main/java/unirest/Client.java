@@ -27,11 +27,28 @@
 package unirest;
 
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.protocol.HttpContext;
 
+import java.io.IOException;
 import java.util.stream.Stream;
 
 public interface Client {
     HttpClient getClient();
 
     Stream<Exception> close();
+
+    /**
+     * Send a request and wait for the response. By default it is sent with the Apache client from getClient().
+     * Other transports can take over by reading the Apache request and answering with an Apache response
+     * whose entity streams the body.
+     *
+     * @param request the prepared request
+     * @param context the context for the exchange, which may be null
+     * @return the response
+     * @throws IOException if the exchange fails
+     */
+    default org.apache.http.HttpResponse execute(HttpUriRequest request, HttpContext context) throws IOException {
+        return getClient().execute(request, context);
+    }
 }
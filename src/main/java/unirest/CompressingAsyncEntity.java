@@ -0,0 +1,168 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses a body for the async client as it is produced.
+ * The uncompressed body is produced into an encoder that compresses what it is given, and the compressed bytes
+ * go on to the connection. Input is only taken once the last of the compressed output has been sent,
+ * so a slow connection holds back the body the same way it would if it weren't compressed.
+ */
+class CompressingAsyncEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+    private final CompressingEntity entity;
+    private final HttpAsyncContentProducer producer;
+    private Encoder encoder;
+
+    CompressingAsyncEntity(CompressingEntity entity, HttpAsyncContentProducer producer) {
+        this.entity = entity;
+        this.producer = producer;
+        setContentType(entity.getContentType());
+        setContentEncoding(entity.getContentEncoding());
+        setChunked(true);
+    }
+
+    @Override
+    public void produceContent(ContentEncoder target, IOControl ioctrl) throws IOException {
+        if (encoder == null) {
+            encoder = new Encoder(entity.new Compressor());
+        }
+        encoder.target = target;
+        if (!encoder.drain()) {
+            return;
+        }
+        if (!encoder.isCompleted()) {
+            producer.produceContent(encoder, ioctrl);
+            if (!encoder.drain()) {
+                return;
+            }
+        }
+        if (encoder.isCompleted()) {
+            target.complete();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (encoder != null) {
+            encoder.compressor.end();
+            encoder = null;
+        }
+        producer.close();
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return producer.isRepeatable();
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return entity.getContent();
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        entity.writeTo(outstream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    private static class Encoder implements ContentEncoder {
+        private final CompressingEntity.Compressor compressor;
+        private ContentEncoder target;
+        private byte[] input = new byte[0];
+        private boolean completed;
+
+        Encoder(CompressingEntity.Compressor compressor) {
+            this.compressor = compressor;
+        }
+
+        /**
+         * Send as much of the compressed output as the connection will take.
+         * @return true if all of it went
+         */
+        boolean drain() throws IOException {
+            while (compressor.pending()) {
+                int written = target.write(ByteBuffer.wrap(compressor.buffer(), compressor.position(), compressor.remaining()));
+                if (written <= 0) {
+                    return false;
+                }
+                compressor.drained(written);
+            }
+            return true;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!drain()) {
+                return 0;
+            }
+            int len = src.remaining();
+            if (src.hasArray()) {
+                compressor.compress(src.array(), src.arrayOffset() + src.position(), len);
+            } else {
+                if (input.length < len) {
+                    input = new byte[len];
+                }
+                src.duplicate().get(input, 0, len);
+                compressor.compress(input, 0, len);
+            }
+            src.position(src.position() + len);
+            drain();
+            return len;
+        }
+
+        @Override
+        public void complete() throws IOException {
+            compressor.finish();
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+}
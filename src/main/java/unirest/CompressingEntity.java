@@ -0,0 +1,285 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.nio.entity.EntityAsyncContentProducer;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses a request body with gzip or deflate as it is written, so the compressed body is never held in memory.
+ * The length isn't known up front so the body is sent chunked. Reading it with getContent compresses it as it is read.
+ * Each Deflater is ended as soon as its body is finished or abandoned rather than leaving its native memory to the finalizer.
+ */
+class CompressingEntity extends HttpEntityWrapper {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final String encoding;
+
+    private CompressingEntity(HttpEntity entity, String encoding) {
+        super(entity);
+        this.encoding = encoding;
+    }
+
+    /**
+     * @param encoding the content encoding to compress with, or null to send the body as it is
+     * @param threshold bodies shorter than this are sent as they are. Bodies of unknown length are always compressed
+     * @return the entity, compressed if it should be
+     */
+    static HttpEntity of(HttpEntity entity, String encoding, long threshold) {
+        if (encoding == null || entity == null) {
+            return entity;
+        }
+        long length = entity.getContentLength();
+        if (length >= 0 && length < threshold) {
+            return entity;
+        }
+        return new CompressingEntity(entity, encoding);
+    }
+
+    /**
+     * @return the encoding, normalized
+     * @throws UnirestException if it isn't one that can be compressed with
+     */
+    static String supported(String encoding) {
+        if (encoding == null) {
+            return null;
+        }
+        String name = encoding.trim().toLowerCase();
+        if (!name.equals("gzip") && !name.equals("deflate")) {
+            throw new UnirestException("Request bodies can be compressed with gzip or deflate, not " + encoding);
+        }
+        return name;
+    }
+
+    private Deflater deflater() {
+        return new Deflater(Deflater.DEFAULT_COMPRESSION, encoding.equals("gzip"));
+    }
+
+    /**
+     * @param deflater the caller ends it once the stream is finished with
+     */
+    private DeflaterOutputStream compressing(OutputStream out, Deflater deflater) throws IOException {
+        if (encoding.equals("gzip")) {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    // GZIPOutputStream only ends its own Deflater when closed, which would close the connection's stream too
+                    def.end();
+                    def = deflater;
+                }
+            };
+        }
+        return new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+    }
+
+    @Override
+    public Header getContentEncoding() {
+        return new BasicHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+    }
+
+    @Override
+    public long getContentLength() {
+        return -1;
+    }
+
+    @Override
+    public boolean isChunked() {
+        return true;
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return new CompressedContent(wrappedEntity.getContent());
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        Deflater deflater = deflater();
+        try {
+            DeflaterOutputStream out = compressing(outstream, deflater);
+            wrappedEntity.writeTo(out);
+            out.finish();
+            out.flush();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * The body for the async client, which compresses whatever the uncompressed body produces.
+     * @param entity the uncompressed body as the async client would send it
+     */
+    HttpEntity toAsync(HttpEntity entity) {
+        HttpAsyncContentProducer producer = entity instanceof HttpAsyncContentProducer
+                ? (HttpAsyncContentProducer) entity
+                : new EntityAsyncContentProducer(entity);
+        return new CompressingAsyncEntity(this, producer);
+    }
+
+    HttpEntity getWrappedEntity() {
+        return wrappedEntity;
+    }
+
+    /**
+     * Compresses into a buffer that the caller drains into the connection.
+     * The caller should only give it more input once the buffer is drained, which keeps it small.
+     */
+    class Compressor extends OutputStream {
+        private final Deflater deflater = deflater();
+        private final DeflaterOutputStream out;
+        private byte[] buf = new byte[BUFFER_SIZE];
+        private int count;
+        private int position;
+
+        Compressor() throws IOException {
+            this.out = compressing(this, deflater);
+        }
+
+        void compress(byte[] input, int off, int len) throws IOException {
+            out.write(input, off, len);
+        }
+
+        /**
+         * Compress whatever is left and end the Deflater. The output stays in the buffer until it is drained.
+         */
+        void finish() throws IOException {
+            try {
+                out.finish();
+            } finally {
+                deflater.end();
+            }
+        }
+
+        /**
+         * Give up on the body, freeing the Deflater. It is fine to call this after finish.
+         */
+        void end() {
+            deflater.end();
+        }
+
+        boolean pending() {
+            return position < count;
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+
+        int position() {
+            return position;
+        }
+
+        int remaining() {
+            return count - position;
+        }
+
+        void drained(int n) {
+            position += n;
+            if (position == count) {
+                position = 0;
+                count = 0;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (count + len > buf.length) {
+                byte[] grown = new byte[Math.max(buf.length * 2, count + len)];
+                System.arraycopy(buf, 0, grown, 0, count);
+                buf = grown;
+            }
+            System.arraycopy(b, off, buf, count, len);
+            count += len;
+        }
+    }
+
+    /**
+     * Compresses the body as it is read, a buffer at a time.
+     */
+    private class CompressedContent extends InputStream {
+        private final InputStream source;
+        private final Compressor compressor;
+        private final byte[] input = new byte[BUFFER_SIZE];
+        private boolean finished;
+
+        CompressedContent(InputStream source) throws IOException {
+            this.source = source;
+            this.compressor = new Compressor();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (!compressor.pending()) {
+                if (finished) {
+                    return -1;
+                }
+                int read = source.read(input);
+                if (read < 0) {
+                    finished = true;
+                    compressor.finish();
+                } else {
+                    compressor.compress(input, 0, read);
+                }
+            }
+            int n = Math.min(len, compressor.remaining());
+            System.arraycopy(compressor.buffer(), compressor.position(), b, off, n);
+            compressor.drained(n);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            compressor.end();
+            source.close();
+        }
+    }
+}
@@ -36,8 +36,11 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.nio.client.HttpAsyncClient;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -52,6 +55,16 @@ public class Config {
     private Optional<Client> client = Optional.empty();
     private Optional<AsyncClient> asyncClient = Optional.empty();
     private Optional<ObjectMapper> objectMapper = Optional.empty();
+    private Optional<MetricsListener> metrics = Optional.empty();
+    private Optional<BufferPool> bufferPool = Optional.empty();
+    private Optional<Executor> asyncExecutor = Optional.empty();
+    private Optional<ResponseCache> cache = Optional.empty();
+    private Optional<RequestCoalescer> coalescer = Optional.empty();
+    private Optional<RetryPolicy> retryPolicy = Optional.empty();
+    private Optional<CircuitBreaker> circuitBreaker = Optional.empty();
+    private Optional<HedgePolicy> hedgePolicy = Optional.empty();
+    private Optional<Executor> callbackExecutor = Optional.empty();
+    private ContentDecoders contentDecoders = ContentDecoders.DEFAULT;
 
     private List<HttpRequestInterceptor> interceptors = new ArrayList<>();
     private Headers defaultHeaders;
@@ -59,8 +72,13 @@ public class Config {
     private CredentialsProvider proxyCreds;
     private int connectionTimeout;
     private int socketTimeout;
+    private Optional<Integer> connectionRequestTimeout = Optional.empty();
     private int maxTotal;
     private int maxPerRoute;
+    private Map<HttpHost, Integer> routeLimits = new LinkedHashMap<>();
+    private RateLimiter rateLimiter = new RateLimiter();
+    private long maxResponseSize;
+    private long compressionThreshold;
     private boolean followRedirects;
     private boolean cookieManagement;
     private boolean useSystemProperties;
@@ -77,8 +95,23 @@ public class Config {
         defaultHeaders = new Headers();
         connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
         socketTimeout = DEFAULT_SOCKET_TIMEOUT;
+        connectionRequestTimeout = Optional.empty();
         maxTotal = DEFAULT_MAX_CONNECTIONS;
         maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+        routeLimits.clear();
+        rateLimiter = new RateLimiter();
+        metrics = Optional.empty();
+        maxResponseSize = 0;
+        compressionThreshold = 0;
+        bufferPool = Optional.empty();
+        asyncExecutor = Optional.empty();
+        cache = Optional.empty();
+        coalescer = Optional.empty();
+        retryPolicy = Optional.empty();
+        circuitBreaker = Optional.empty();
+        hedgePolicy = Optional.empty();
+        callbackExecutor = Optional.empty();
+        contentDecoders = ContentDecoders.DEFAULT;
         followRedirects = true;
         cookieManagement = true;
     }
@@ -223,6 +256,19 @@ public class Config {
         return this;
     }
 
+    /**
+     * Set the timeout for leasing a connection from the connection pool.
+     * This is separate from the socket timeout so callers can fail fast when the pool is exhausted.
+     *
+     * @param inMillies The timeout to wait for a pooled connection (in milliseconds). Defaults to the socket timeout. Set to zero to disable the timeout.
+     * @return this config object
+     */
+    public Config connectionRequestTimeout(int inMillies) {
+        validateClientsNotRunning();
+        this.connectionRequestTimeout = Optional.of(inMillies);
+        return this;
+    }
+
     /**
      * Set the concurrency levels
      *
@@ -237,6 +283,190 @@ public class Config {
         return this;
     }
 
+    /**
+     * Override the connection limit for a single route. Routes without an override use the perRoute value from concurrency.
+     * This can be called multiple times to add as many routes as you like.
+     *
+     * @param host  the target host. This may include a scheme and port (e.g. https://api.example.com:8443). The scheme defaults to http.
+     * @param limit the maximum number of connections to the host.
+     * @return this config object
+     */
+    public Config maxPerRoute(String host, int limit) {
+        validateClientsNotRunning();
+        this.routeLimits.put(HttpHost.create(host), limit);
+        return this;
+    }
+
+    /**
+     * Limit the rate of requests sent to a host.
+     * Requests that are over the limit wait for a permit. Sync requests sleep while async ones are scheduled to be sent later
+     * without blocking the caller. If a permit would not be available within the connection request timeout
+     * the request fails with a RateLimitExceededException instead. With a timeout of zero requests wait as long as it takes.
+     * This can be called multiple times to limit as many hosts as you like.
+     *
+     * @param host the target host. This may include a scheme and port (e.g. https://api.example.com:8443). The scheme defaults to http.
+     * @param permitsPerSecond the sustained number of requests per second
+     * @param burst how many requests can be sent back to back once the host has been idle
+     * @return this config object
+     */
+    public Config rateLimit(String host, double permitsPerSecond, int burst) {
+        this.rateLimiter.limit(host, permitsPerSecond, burst);
+        return this;
+    }
+
+    /**
+     * The largest response body, in bytes, that will be read. Reading fails with a ContentTooLongException
+     * as soon as the Content-Length or the bytes read exceed the limit, and the connection is closed rather than drained.
+     * Defaults to 0 which means there is no limit. It can be overridden on each request.
+     *
+     * @param bytes the maximum number of bytes
+     * @return this config object
+     */
+    public Config maxResponseSize(long bytes) {
+        this.maxResponseSize = bytes;
+        return this;
+    }
+
+    /**
+     * The smallest request body, in bytes, that is compressed when a request asks for compression with compress(encoding).
+     * Smaller bodies are sent as they are since compressing them saves little. Bodies of unknown length are always compressed.
+     * Defaults to 0 which compresses every body that asks.
+     *
+     * @param bytes the minimum number of bytes
+     * @return this config object
+     */
+    public Config compressionThreshold(long bytes) {
+        this.compressionThreshold = bytes;
+        return this;
+    }
+
+    /**
+     * Cache GET responses following the Cache-Control, Expires, ETag and Last-Modified headers sent by the server.
+     * Fresh responses are served without a request, and stale ones are revalidated with a conditional request.
+     * A 304 Not Modified is turned back into the cached response.
+     *
+     * @param cache the cache to use, for example ResponseCache.inMemory(1000, 10 * 1024 * 1024)
+     * @return this config object
+     */
+    public Config cache(ResponseCache cache) {
+        this.cache = Optional.ofNullable(cache);
+        return this;
+    }
+
+    /**
+     * Let identical GET and HEAD requests that are in flight at the same time share a single exchange.
+     * The first request goes to the server and any others that arrive before it completes wait for it
+     * and get their own response over the same buffered body.
+     * Requests are identical when they have the same method, url and values for the key headers.
+     *
+     * @param enable turn coalescing on or off
+     * @param keyHeaders request headers which must also match, such as Authorization or Accept
+     * @return this config object
+     */
+    public Config coalesceRequests(boolean enable, String... keyHeaders) {
+        this.coalescer = enable ? Optional.of(new RequestCoalescer(keyHeaders)) : Optional.empty();
+        return this;
+    }
+
+    /**
+     * Retry failed requests. Requests can override this with HttpRequest::retryPolicy
+     *
+     * @param policy the retry policy, or null to not retry
+     * @return this config object
+     */
+    public Config retryPolicy(RetryPolicy policy) {
+        this.retryPolicy = Optional.ofNullable(policy);
+        return this;
+    }
+
+    /**
+     * Fail fast with a CircuitBreakerOpenException, rather than sending requests, to a host or route that keeps failing.
+     *
+     * @param breaker the circuit breaker, or null for none
+     * @return this config object
+     */
+    public Config circuitBreaker(CircuitBreaker breaker) {
+        this.circuitBreaker = Optional.ofNullable(breaker);
+        return this;
+    }
+
+    /**
+     * Send a second copy of async requests which are slow to respond, and use whichever response arrives first.
+     *
+     * @param policy the hedge policy, or null to not hedge
+     * @return this config object
+     */
+    public Config hedging(HedgePolicy policy) {
+        this.hedgePolicy = Optional.ofNullable(policy);
+        return this;
+    }
+
+    /**
+     * Run async requests on an executor with the synchronous client rather than with the NIO async client.
+     * The async client is never started in this mode, and the sync client's connection limits apply to async requests too.
+     * On Java 21+ a virtual thread per task executor (Executors.newVirtualThreadPerTaskExecutor()) is a good fit.
+     * Unirest does not shut the executor down.
+     *
+     * @param executor the executor to run requests on
+     * @return this config object
+     */
+    public Config asyncExecutor(Executor executor) {
+        this.asyncExecutor = Optional.ofNullable(executor);
+        return this;
+    }
+
+    /**
+     * Complete async futures and Callbacks on this executor.
+     * By default they are completed on the thread that ran the request, which for the NIO async client is an IO reactor thread.
+     * Any slow work in a Callback or thenApply would stall the reactor for every other request.
+     * Unirest does not shut the executor down.
+     *
+     * @param executor the executor to complete futures on
+     * @return this config object
+     */
+    public Config callbackExecutor(Executor executor) {
+        this.callbackExecutor = Optional.ofNullable(executor);
+        return this;
+    }
+
+    /**
+     * Reuse the scratch buffers that response bodies are read and decoded with.
+     * By default every response allocates its own.
+     *
+     * @param pool the pool to use, e.g. BufferPool.threadLocal(64 * 1024)
+     * @return this config object
+     */
+    public Config bufferPool(BufferPool pool) {
+        this.bufferPool = Optional.ofNullable(pool);
+        return this;
+    }
+
+    /**
+     * Decode response bodies with another Content-Encoding, or replace the decoder for one.
+     * gzip and deflate are built in, as is any decoder a module on the classpath provides.
+     * Every registered encoding is offered in the Accept-Encoding header of requests which don't set their own.
+     *
+     * @param decoder the decoder, e.g. one for br or zstd
+     * @return this config object
+     */
+    public Config bodyDecoder(BodyDecoder decoder) {
+        this.contentDecoders = contentDecoders.with(decoder);
+        return this;
+    }
+
+    /**
+     * Report request timings and connection pool stats to a listener.
+     * Only the clients unirest builds itself are instrumented, custom HttpClients will not report connection level timings.
+     *
+     * @param listener the listener to call
+     * @return this config object
+     */
+    public Config instrumentWith(MetricsListener listener) {
+        validateClientsNotRunning();
+        this.metrics = Optional.ofNullable(listener);
+        return this;
+    }
+
     /**
      * Clear default headers
      * @return this config object
@@ -365,10 +595,14 @@ public class Config {
      * @return  Apache HttpClient
      */
     public HttpClient getClient() {
+        return getSyncClient().getClient();
+    }
+
+    Client getSyncClient() {
         if (!client.isPresent()) {
             buildClient();
         }
-        return client.get().getClient();
+        return client.get();
     }
 
     private synchronized void buildClient() {
@@ -384,10 +618,14 @@ public class Config {
      * @return  Apache HttpAsyncClient
      */
     public HttpAsyncClient getAsyncHttpClient() {
+        return getAsyncClient().getClient();
+    }
+
+    AsyncClient getAsyncClient() {
         if (!asyncClientIsReady()) {
             buildAsyncClient();
         }
-        return asyncClient.get().getClient();
+        return asyncClient.get();
     }
 
     private boolean asyncClientIsReady() {
@@ -429,6 +667,10 @@ public class Config {
         return maxPerRoute;
     }
 
+    Map<HttpHost, Integer> getRouteLimits() {
+        return routeLimits;
+    }
+
     int getConnectionTimeout() {
         return connectionTimeout;
     }
@@ -437,10 +679,66 @@ public class Config {
         return socketTimeout;
     }
 
+    int getConnectionRequestTimeout() {
+        return connectionRequestTimeout.orElse(socketTimeout);
+    }
+
     ObjectMapper getObjectMapper() {
         return objectMapper.orElseThrow(() -> new UnirestException("No Object Mapper Configured. Please config one with Unirest.config().setObjectMapper"));
     }
 
+    long getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    long getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    Optional<HedgePolicy> getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    Optional<CircuitBreaker> getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    Optional<RetryPolicy> getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    Optional<RequestCoalescer> getCoalescer() {
+        return coalescer;
+    }
+
+    Optional<ResponseCache> getCache() {
+        return cache;
+    }
+
+    Optional<Executor> getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
+    Optional<Executor> getCallbackExecutor() {
+        return callbackExecutor;
+    }
+
+    BufferPool getBufferPool() {
+        return bufferPool.orElse(BufferPool.NONE);
+    }
+
+    ContentDecoders getContentDecoders() {
+        return contentDecoders;
+    }
+
+    Optional<MetricsListener> getMetrics() {
+        return metrics;
+    }
+
     private void validateClientsNotRunning() {
         if (client.isPresent() || asyncClient.isPresent()) {
             throw new UnirestConfigException(
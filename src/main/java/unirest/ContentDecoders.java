@@ -0,0 +1,255 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The body decoders a config knows about, keyed by the Content-Encoding they decode.
+ * Decoding is a lazy wrapper around the body so nothing is read until the caller reads,
+ * and bodies with an encoding nobody registered are handed back as they came.
+ * Instances are immutable, adding a decoder makes a new registry.
+ */
+final class ContentDecoders {
+    static final ContentDecoders DEFAULT = new ContentDecoders(new LinkedHashMap<>())
+            .with(new Gzip())
+            .with(new Deflate())
+            .withInstalled();
+
+    private final Map<String, BodyDecoder> decoders;
+    private final String acceptEncoding;
+
+    private ContentDecoders(Map<String, BodyDecoder> decoders) {
+        this.decoders = decoders;
+        this.acceptEncoding = String.join(", ", decoders.keySet());
+    }
+
+    ContentDecoders with(BodyDecoder decoder) {
+        Map<String, BodyDecoder> copy = new LinkedHashMap<>(decoders);
+        copy.put(normalize(decoder.getEncoding()), decoder);
+        return new ContentDecoders(copy);
+    }
+
+    /**
+     * Add the decoders that modules on the classpath provide. A provider which can't be loaded,
+     * for instance because its native library is missing, is left out rather than failing every request.
+     */
+    private ContentDecoders withInstalled() {
+        ContentDecoders registry = this;
+        Iterator<BodyDecoder> installed = ServiceLoader.load(BodyDecoder.class).iterator();
+        while (true) {
+            try {
+                if (!installed.hasNext()) {
+                    return registry;
+                }
+                registry = registry.with(installed.next());
+            } catch (ServiceConfigurationError e) {
+                // skip it
+            }
+        }
+    }
+
+    /**
+     * @return the value for the Accept-Encoding header, every registered encoding in the order they were added
+     */
+    String getAcceptEncoding() {
+        return acceptEncoding;
+    }
+
+    /**
+     * @param encoding the Content-Encoding of a body
+     * @return true if a body with the encoding would be decoded
+     */
+    boolean decodes(String encoding) {
+        List<BodyDecoder> chain = chain(encoding);
+        return chain != null && !chain.isEmpty();
+    }
+
+    /**
+     * Wrap a body so that it is decoded as it is read. Encodings are undone in the reverse of the order they are listed in.
+     *
+     * @param encoding the Content-Encoding of the body
+     * @param content the body as it came off the connection
+     * @return the decoded body, or the body itself if it isn't encoded or an encoding has no decoder
+     */
+    InputStream decode(String encoding, InputStream content) {
+        if (!decodes(encoding)) {
+            return content;
+        }
+        return new Decoding(content, chain(encoding));
+    }
+
+    private List<BodyDecoder> chain(String encoding) {
+        if (encoding == null) {
+            return Collections.emptyList();
+        }
+        List<BodyDecoder> chain = new ArrayList<>();
+        for (String token : encoding.split(",")) {
+            String name = normalize(token);
+            if (name.isEmpty() || name.equals("identity")) {
+                continue;
+            }
+            BodyDecoder decoder = decoders.get(name);
+            if (decoder == null) {
+                return null;
+            }
+            chain.add(0, decoder);
+        }
+        return chain;
+    }
+
+    private static String normalize(String encoding) {
+        String name = encoding.trim().toLowerCase();
+        return name.startsWith("x-") ? name.substring(2) : name;
+    }
+
+    /**
+     * Builds the decoders on the first read, so that decoders which read a header never block
+     * whoever hands the body over, and an empty body is just empty whatever its encoding claims.
+     */
+    private static class Decoding extends InputStream {
+        private final PushbackInputStream encoded;
+        private final List<BodyDecoder> chain;
+        private InputStream decoded;
+
+        Decoding(InputStream encoded, List<BodyDecoder> chain) {
+            this.encoded = new PushbackInputStream(encoded, 1);
+            this.chain = chain;
+        }
+
+        private InputStream decoded() throws IOException {
+            if (decoded == null) {
+                int first = encoded.read();
+                if (first == -1) {
+                    decoded = encoded;
+                    return decoded;
+                }
+                encoded.unread(first);
+                InputStream in = encoded;
+                for (BodyDecoder decoder : chain) {
+                    in = decoder.decode(in);
+                }
+                decoded = in;
+            }
+            return decoded;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return decoded().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return decoded().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return decoded().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return decoded == null ? 0 : decoded.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (decoded != null) {
+                decoded.close();
+            } else {
+                encoded.close();
+            }
+        }
+    }
+
+    private static class Gzip implements BodyDecoder {
+        @Override
+        public String getEncoding() {
+            return "gzip";
+        }
+
+        @Override
+        public InputStream decode(InputStream encoded) throws IOException {
+            return new GZIPInputStream(encoded, 8192);
+        }
+    }
+
+    /**
+     * Servers disagree on what deflate means, some send a zlib stream as the spec says and some send raw deflate data.
+     * A zlib stream starts with a two byte header which raw data can't, so that decides which one it is.
+     */
+    private static class Deflate implements BodyDecoder {
+        @Override
+        public String getEncoding() {
+            return "deflate";
+        }
+
+        @Override
+        public InputStream decode(InputStream encoded) throws IOException {
+            PushbackInputStream in = new PushbackInputStream(encoded, 2);
+            byte[] header = new byte[2];
+            int read = 0;
+            while (read < 2) {
+                int len = in.read(header, read, 2 - read);
+                if (len == -1) {
+                    break;
+                }
+                read += len;
+            }
+            in.unread(header, 0, read);
+            boolean zlib = read == 2
+                    && (header[0] & 0x0F) == 8
+                    && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+            Inflater inflater = new Inflater(!zlib);
+            return new InflaterInputStream(in, inflater, 8192) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single shared daemon thread for anything async that has to wait, such as the backoff between retries.
+ * Tasks should only kick off more async work and never block.
+ */
+final class DelayScheduler {
+    private static volatile ScheduledExecutorService executor;
+
+    private DelayScheduler() {
+    }
+
+    static ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return executor().schedule(task, delay, unit);
+    }
+
+    private static ScheduledExecutorService executor() {
+        ScheduledExecutorService current = executor;
+        if (current == null) {
+            synchronized (DelayScheduler.class) {
+                current = executor;
+                if (current == null) {
+                    ScheduledThreadPoolExecutor created = new ScheduledThreadPoolExecutor(1, r -> {
+                        Thread t = new Thread(r, "unirest-scheduler");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    created.setRemoveOnCancelPolicy(true);
+                    executor = created;
+                    current = created;
+                }
+            }
+        }
+        return current;
+    }
+}
@@ -0,0 +1,455 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Keeps cached responses in a directory so they survive a restart.
+ * Each response is a body file plus a small metadata file. Both are written to a temp file, forced to disk
+ * and then atomically renamed into place, so a crash leaves either the old entry or the new one but never half of one.
+ * The index is held in memory and rebuilt from the metadata files when the cache is opened. Anything
+ * that can't be read, and any body without metadata, is deleted at that point.
+ * A body that is evicted or replaced may still be read through a response that was handed out before, so it is
+ * renamed out of the way rather than deleted and only goes once nothing refers to it, the cache is cleared
+ * or the cache is next opened.
+ */
+class DiskResponseCache extends ResponseCache {
+    private static final int MAGIC = 0x554e4332;
+    private static final String META = ".meta";
+    private static final String BODY = ".body";
+    private static final String TEMP = ".tmp";
+    private static final String RETIRED = ".retired";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Indexed> index = new LinkedHashMap<>(16, 0.75f, true);
+    private final VariantIndex variants = new VariantIndex();
+    private final ReferenceQueue<FileBody> unreachable = new ReferenceQueue<>();
+    private final Set<Retired> retired = new HashSet<>();
+    private long bytes;
+
+    DiskResponseCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(dir);
+            rebuild();
+        } catch (IOException e) {
+            throw new UnirestConfigException(e);
+        }
+    }
+
+    @Override
+    synchronized CacheEntry get(String url, Predicate<CacheEntry> matches) {
+        for (String key : variants.of(url)) {
+            CacheEntry entry = index.get(key).entry;
+            if (matches.test(entry)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    CacheEntry store(String key, CacheEntry entry, RawResponse response) {
+        String name = name(key);
+        Path temp = dir.resolve(name + "." + UUID.randomUUID() + TEMP);
+        try {
+            long length = write(response, temp);
+            if (!fits(length)) {
+                return entry.withBody(CacheEntry.Body.of(readAndDelete(temp)));
+            }
+            Path body = dir.resolve(name + "." + UUID.randomUUID() + BODY);
+            Files.move(temp, body, StandardCopyOption.ATOMIC_MOVE);
+            CacheEntry stored = entry.withBody(new FileBody(body, length));
+            update(key, stored);
+            return stored;
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UnirestException(e);
+        }
+    }
+
+    @Override
+    synchronized void update(String key, CacheEntry entry) {
+        purge();
+        FileBody body = (FileBody) entry.getBody();
+        try {
+            writeMeta(key, entry, body);
+        } catch (IOException e) {
+            Indexed dropped = drop(key);
+            if (dropped == null || dropped.body() != body) {
+                retire(body);
+            }
+            return;
+        }
+        Indexed old = index.put(key, new Indexed(entry));
+        variants.add(key);
+        if (old != null) {
+            bytes -= old.size;
+            if (old.body() != body) {
+                retire(old.body());
+            }
+        }
+        bytes += index.get(key).size;
+        evict();
+    }
+
+    @Override
+    synchronized void remove(String url) {
+        purge();
+        variants.of(url).forEach(this::drop);
+    }
+
+    private Indexed drop(String key) {
+        Indexed old = index.remove(key);
+        if (old != null) {
+            bytes -= old.size;
+            variants.remove(key);
+            deleteQuietly(meta(key));
+            retire(old.body());
+        }
+        return old;
+    }
+
+    @Override
+    boolean fits(long size) {
+        return size <= maxBytes;
+    }
+
+    @Override
+    public synchronized void clear() {
+        index.forEach((key, indexed) -> {
+            deleteQuietly(meta(key));
+            deleteQuietly(indexed.body().path);
+        });
+        retired.forEach(r -> deleteQuietly(r.path));
+        retired.clear();
+        index.clear();
+        variants.clear();
+        bytes = 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return index.size();
+    }
+
+    @Override
+    public synchronized long byteSize() {
+        return bytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Indexed>> eldest = index.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Indexed> next = eldest.next();
+            bytes -= next.getValue().size;
+            variants.remove(next.getKey());
+            deleteQuietly(meta(next.getKey()));
+            retire(next.getValue().body());
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Move a body that is no longer in the index out of the way. Responses that were already handed out
+     * can still read it, and it is deleted once they are all gone.
+     */
+    private void retire(FileBody body) {
+        synchronized (body) {
+            Path to = dir.resolve(body.path.getFileName() + RETIRED);
+            try {
+                Files.move(body.path, to, StandardCopyOption.ATOMIC_MOVE);
+                body.path = to;
+            } catch (IOException e) {
+                // leave it where it is until it can be deleted
+            }
+            retired.add(new Retired(body, unreachable));
+        }
+    }
+
+    /**
+     * Delete the retired bodies that nothing refers to any more
+     */
+    private void purge() {
+        Reference<? extends FileBody> gone;
+        while ((gone = unreachable.poll()) != null) {
+            retired.remove(gone);
+            deleteQuietly(((Retired) gone).path);
+        }
+    }
+
+    private Path meta(String key) {
+        return dir.resolve(name(key) + META);
+    }
+
+    private long write(RawResponse response, Path temp) throws IOException {
+        try (InputStream in = response.getContent();
+             FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            byte[] buf = new byte[BUFFER_SIZE];
+            long length = 0;
+            int len;
+            while ((len = in.read(buf)) != -1) {
+                out.write(buf, 0, len);
+                length += len;
+            }
+            channel.force(true);
+            return length;
+        }
+    }
+
+    private static byte[] readAndDelete(Path file) throws IOException {
+        try {
+            return Files.readAllBytes(file);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    private void writeMeta(String key, CacheEntry entry, FileBody body) throws IOException {
+        Path temp = dir.resolve(name(key) + "." + UUID.randomUUID() + TEMP);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                writeEntry(out, key, entry, body);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, meta(key), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, String key, CacheEntry entry, FileBody body) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeUTF(key);
+        out.writeUTF(body.path.getFileName().toString());
+        out.writeLong(body.length);
+        out.writeInt(entry.getStatus());
+        out.writeUTF(Util.nullToEmpty(entry.getStatusText()));
+        out.writeLong(entry.getRequestTime());
+        out.writeLong(entry.getResponseTime());
+        List<String[]> headers = new ArrayList<>();
+        entry.getHeaders().forEach((k, v) -> v.forEach(value -> headers.add(new String[]{k, value})));
+        writePairs(out, headers);
+        List<String[]> vary = new ArrayList<>();
+        entry.getVary().forEach((k, v) -> vary.add(new String[]{k, v}));
+        writePairs(out, vary);
+    }
+
+    private static void writePairs(DataOutputStream out, List<String[]> pairs) throws IOException {
+        out.writeInt(pairs.size());
+        for (String[] pair : pairs) {
+            out.writeUTF(pair[0]);
+            out.writeUTF(pair[1]);
+        }
+    }
+
+    /**
+     * Load the metadata files oldest first so the least recently stored entries are the first to be evicted,
+     * then clear out temp files and any bodies left behind by a crash.
+     */
+    private void rebuild() throws IOException {
+        List<Path> metas = new ArrayList<>();
+        List<Path> others = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                (file.getFileName().toString().endsWith(META) ? metas : others).add(file);
+            }
+        }
+        metas.sort(Comparator.comparingLong(DiskResponseCache::lastModified));
+        Set<Path> bodies = new HashSet<>();
+        for (Path meta : metas) {
+            load(meta, bodies);
+        }
+        for (Path file : others) {
+            if (!bodies.contains(file)) {
+                deleteQuietly(file);
+            }
+        }
+        evict();
+    }
+
+    private void load(Path meta, Set<Path> bodies) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(meta)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a cache entry: " + meta);
+            }
+            String key = in.readUTF();
+            FileBody body = new FileBody(dir.resolve(in.readUTF()), in.readLong());
+            if (!Files.isRegularFile(body.path) || Files.size(body.path) != body.length) {
+                throw new IOException("Missing body for " + meta);
+            }
+            CacheEntry entry = readEntry(in, body);
+            index.put(key, new Indexed(entry));
+            variants.add(key);
+            bytes += index.get(key).size;
+            bodies.add(body.path);
+        } catch (IOException e) {
+            deleteQuietly(meta);
+        }
+    }
+
+    private static CacheEntry readEntry(DataInputStream in, FileBody body) throws IOException {
+        int status = in.readInt();
+        String statusText = in.readUTF();
+        long requestTime = in.readLong();
+        long responseTime = in.readLong();
+        Headers headers = new Headers();
+        for (int i = in.readInt(); i > 0; i--) {
+            headers.add(in.readUTF(), in.readUTF());
+        }
+        Map<String, String> vary = new HashMap<>();
+        for (int i = in.readInt(); i > 0; i--) {
+            vary.put(in.readUTF(), in.readUTF());
+        }
+        return new CacheEntry(status, statusText, headers, body, vary, requestTime, responseTime);
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // it will be cleaned up the next time the cache is opened
+        }
+    }
+
+    private static String name(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnirestException(e);
+        }
+    }
+
+    private static class Indexed {
+        private final CacheEntry entry;
+        private final long size;
+
+        Indexed(CacheEntry entry) {
+            this.entry = entry;
+            this.size = entry.size();
+        }
+
+        FileBody body() {
+            return (FileBody) entry.getBody();
+        }
+    }
+
+    /**
+     * Lets go of a retired body's file once the body can no longer be reached
+     */
+    private static class Retired extends PhantomReference<FileBody> {
+        private final Path path;
+
+        Retired(FileBody body, ReferenceQueue<FileBody> queue) {
+            super(body, queue);
+            this.path = body.path;
+        }
+    }
+
+    private static class FileBody implements CacheEntry.Body {
+        private Path path;
+        private final long length;
+
+        FileBody(Path path, long length) {
+            this.path = path;
+            this.length = length;
+        }
+
+        @Override
+        public synchronized InputStream open() throws IOException {
+            return new FilterInputStream(Files.newInputStream(path)) {
+                // the body must stay reachable while it is read, or a retired file could be deleted under the stream
+                private final FileBody reading = FileBody.this;
+            };
+        }
+
+        @Override
+        public byte[] bytes() throws IOException {
+            byte[] bytes = new byte[(int) length];
+            try (DataInputStream in = new DataInputStream(open())) {
+                in.readFully(bytes);
+            }
+            return bytes;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Where a download is written. The body goes into a file next to the target which is renamed over it once complete,
+ * so the target is never seen half written. A plain download uses a fresh temp file and deletes it on failure.
+ * A resumable one keeps its partial file, the target plus ".part", so that the next attempt can ask for the rest of it with a Range request.
+ */
+class FileDownload {
+    static final long SKIP = -1;
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes\\s+(?:(\\d+)-\\d+|\\*)/(\\d+|\\*)");
+
+    private final Path target;
+    private final boolean resumable;
+    private final long offset;
+    private Path file;
+    private boolean complete;
+
+    private FileDownload(Path target, boolean resumable, Path file, long offset) {
+        this.target = target;
+        this.resumable = resumable;
+        this.file = file;
+        this.offset = offset;
+    }
+
+    static FileDownload to(String path) {
+        return new FileDownload(Paths.get(path), false, null, 0);
+    }
+
+    static FileDownload resumable(String path) {
+        Path target = Paths.get(path);
+        Path partial = target.resolveSibling(target.getFileName() + PARTIAL_SUFFIX);
+        try {
+            return new FileDownload(target, true, partial, Files.exists(partial) ? Files.size(partial) : 0);
+        } catch (IOException e) {
+            throw new UnirestException(e);
+        }
+    }
+
+    /**
+     * @return how much of the file a resumable download already has
+     */
+    long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Decide what to do with a response.
+     * A plain download writes any response. A resumable one appends a 206 which starts where the partial file ends,
+     * starts over on any other 2xx and leaves the partial file alone for anything else.
+     * A 416 for a partial file which is exactly as long as the resource means it was already complete.
+     * @return the position in the file to write the body at, or SKIP if the body is not part of the file
+     */
+    long start(RawResponse response) throws IOException {
+        int status = response.getStatus();
+        if (!resumable) {
+            return 0;
+        }
+        if (status == 206) {
+            String range = response.getHeaders().getFirst("Content-Range");
+            Matcher m = range == null ? null : CONTENT_RANGE.matcher(range);
+            if (m == null || !m.matches() || m.group(1) == null || Long.parseLong(m.group(1)) != offset) {
+                throw new IOException("Asked for the content from byte " + offset + " but got the range " + range);
+            }
+            return offset;
+        }
+        if (status == 416 && offset > 0) {
+            String range = response.getHeaders().getFirst("Content-Range");
+            Matcher m = range == null ? null : CONTENT_RANGE.matcher(range);
+            if (m != null && m.matches() && String.valueOf(offset).equals(m.group(2))) {
+                complete = true;
+            } else {
+                Files.deleteIfExists(file);
+            }
+            return SKIP;
+        }
+        if (status >= 200 && status < 300) {
+            return 0;
+        }
+        return SKIP;
+    }
+
+    /**
+     * @return the file to write the body into, created if needed
+     */
+    Path open() throws IOException {
+        if (file == null) {
+            Path dir = target.toAbsolutePath().getParent();
+            file = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        }
+        return file;
+    }
+
+    /**
+     * Write the body of a response, blocking until it has all been read.
+     * With a buffer pool the body is copied through one of its buffers, which goes back to it once the file is written.
+     * Without one the file channel transfers it in large chunks.
+     * @return the file, or null if the response was not the file
+     */
+    File write(RawResponse response, BufferPool pool) {
+        try {
+            long start = start(response);
+            if (start == SKIP) {
+                return skipped();
+            }
+            write(response.getContent(), start, pool);
+            return finish();
+        } catch (IOException e) {
+            failed();
+            throw new UnirestException(e);
+        } catch (RuntimeException e) {
+            failed();
+            throw e;
+        }
+    }
+
+    private void write(InputStream content, long start, BufferPool pool) throws IOException {
+        if (pool == BufferPool.NONE) {
+            transfer(content, start);
+            return;
+        }
+        byte[] buf = pool.acquireBytes(BufferPool.DEFAULT_SIZE);
+        try (FileChannel out = FileChannel.open(open(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            out.truncate(start);
+            long position = start;
+            int read;
+            while ((read = content.read(buf)) != -1) {
+                ByteBuffer chunk = ByteBuffer.wrap(buf, 0, read);
+                while (chunk.hasRemaining()) {
+                    position += out.write(chunk, position);
+                }
+            }
+        } finally {
+            pool.release(buf);
+        }
+    }
+
+    private void transfer(InputStream content, long start) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel out = FileChannel.open(open(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            out.truncate(start);
+            long position = start;
+            long transferred;
+            while ((transferred = out.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * @return the target if the partial file turned out to be complete, otherwise null
+     */
+    File skipped() throws IOException {
+        return complete ? finish() : null;
+    }
+
+    /**
+     * Move the finished file over the target.
+     */
+    File finish() throws IOException {
+        Path written = open();
+        try {
+            Files.move(written, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(written, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target.toFile();
+    }
+
+    /**
+     * Throw away the written file unless it can be resumed.
+     */
+    void failed() {
+        if (resumable || file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // nothing more we can do
+        }
+    }
+}
@@ -28,24 +28,22 @@ package unirest;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 
 public class FileResponse extends BaseResponse<File> {
-    private File body;
+    private final File body;
 
     public FileResponse(RawResponse r, String path) {
+        this(r, FileDownload.to(path), BufferPool.NONE);
+    }
+
+    FileResponse(RawResponse r, FileDownload download, BufferPool pool) {
+        this(r, download.write(r, pool));
+    }
+
+    FileResponse(RawResponse r, File body) {
         super(r);
-        try {
-            Path target = Paths.get(path);
-            Files.copy(r.getContent(), target);
-            body = target.toFile();
-        } catch (IOException e) {
-            throw new UnirestException(e);
-        }
+        this.body = body;
     }
 
     @Override
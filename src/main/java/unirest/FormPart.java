@@ -60,7 +60,7 @@ class FormPart implements Comparable {
     ContentBody toApachePart() {
         if (value instanceof File) {
             File file = (File) value;
-            return new FileBody(file, getContentType(), file.getName());
+            return new DeferredFileBody(file, getContentType(), file.getName());
         } else if (value instanceof InputStreamBody) {
             return (ContentBody) value;
         } else if (value instanceof ByteArrayBody) {
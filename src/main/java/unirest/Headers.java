@@ -44,6 +44,7 @@ public class Headers extends TreeMap<String, List<String>> {
 
     @Deprecated // In version 4 Apache classes will be abstracted out
     public Headers(Header[] pairs) {
+        this();
         for (Header header : pairs) {
             add(header.getName(), header.getValue());
         }
@@ -0,0 +1,186 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuts tail latency by sending a second copy of a slow async request and taking whichever response comes back first.
+ * The other one is cancelled, which aborts its exchange and releases its connection.
+ * <pre>{@code
+ * Unirest.config().hedging(new HedgePolicy()
+ *         .afterPercentile(95, 200)
+ *         .budget(0.05, 10));
+ * }</pre>
+ *
+ * By default only GET and HEAD requests are hedged, 100 milliseconds after they were sent,
+ * and no more than 10% of requests get a hedge. Sync requests are never hedged.
+ * If one copy fails while the other is still running, the request waits for the other one.
+ */
+public final class HedgePolicy {
+    private static final int MIN_SAMPLES = 20;
+
+    private long delay = 100;
+    private double percentile;
+    private int window;
+    private Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD);
+    private TokenBudget budget = new TokenBudget(0.1, 10);
+    private final Map<String, Latencies> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param delay how long to wait for a response before sending the hedge, in milliseconds
+     * @return this policy
+     */
+    public HedgePolicy after(long delay) {
+        if (delay < 0) {
+            throw new UnirestConfigException("The hedge delay must not be negative");
+        }
+        this.delay = delay;
+        this.percentile = 0;
+        return this;
+    }
+
+    /**
+     * Send the hedge once a request has taken longer than the given percentile of the latest responses for its route.
+     * Until a route has enough responses the fixed delay is used instead.
+     * @param percentile the percentile, e.g. 95
+     * @param window how many of the latest responses per route the percentile is taken over
+     * @return this policy
+     */
+    public HedgePolicy afterPercentile(double percentile, int window) {
+        if (percentile <= 0 || percentile > 100 || window < 1) {
+            throw new UnirestConfigException("The percentile must be greater than 0 and no more than 100, over a window of at least 1");
+        }
+        this.percentile = percentile;
+        this.window = window;
+        routes.clear();
+        return this;
+    }
+
+    /**
+     * @param methods the methods which are safe to send twice. This replaces the GET and HEAD defaults
+     * @return this policy
+     */
+    public HedgePolicy hedgeMethods(HttpMethod... methods) {
+        this.methods = methods.length == 0 ? EnumSet.noneOf(HttpMethod.class) : EnumSet.copyOf(Arrays.asList(methods));
+        return this;
+    }
+
+    /**
+     * Limit hedges to a share of the requests made with this policy. Each request adds the ratio to a token bucket
+     * and each hedge takes a whole token. The bucket starts full, and it is shared by every request using this policy.
+     * @param ratio the fraction of requests which may be hedged, e.g. 0.05 for 5%
+     * @param maxTokens the most hedges that can be saved up
+     * @return this policy
+     */
+    public HedgePolicy budget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 1) {
+            throw new UnirestConfigException("The budget ratio must not be negative and it must allow at least one token");
+        }
+        this.budget = new TokenBudget(ratio, maxTokens);
+        return this;
+    }
+
+    boolean hedges(HttpMethod method) {
+        return methods.contains(method);
+    }
+
+    Hedge start(HttpMethod method, String route) {
+        budget.deposit();
+        Latencies latencies = percentile > 0 ? routes.computeIfAbsent(method + " " + route, k -> new Latencies(window)) : null;
+        return new Hedge(latencies);
+    }
+
+    /**
+     * The hedging state of a single request
+     */
+    class Hedge {
+        private final Latencies latencies;
+
+        Hedge(Latencies latencies) {
+            this.latencies = latencies;
+        }
+
+        /**
+         * @return how many milliseconds to wait for a response before hedging
+         */
+        long delay() {
+            long observed = latencies == null ? -1 : latencies.percentile(percentile);
+            return observed < 0 ? delay : TimeUnit.NANOSECONDS.toMillis(observed);
+        }
+
+        /**
+         * @return true if the budget allows sending the hedge
+         */
+        boolean tryHedge() {
+            return budget.withdraw();
+        }
+
+        void record(long nanos) {
+            if (latencies != null) {
+                latencies.add(nanos);
+            }
+        }
+    }
+
+    /**
+     * A ring of the latest response times for a route
+     */
+    static class Latencies {
+        private final long[] samples;
+        private int next;
+        private int count;
+
+        Latencies(int size) {
+            this.samples = new long[size];
+        }
+
+        synchronized void add(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+        }
+
+        /**
+         * @return the percentile in nanoseconds, or -1 if there are not enough samples yet
+         */
+        synchronized long percentile(double percentile) {
+            if (count < Math.min(MIN_SAMPLES, samples.length)) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, rank)];
+        }
+    }
+}
@@ -28,11 +28,13 @@ package unirest;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface HttpRequest<R extends HttpRequest> {
     /**
@@ -111,6 +113,14 @@ public interface HttpRequest<R extends HttpRequest> {
      */
     R withObjectMapper(ObjectMapper mapper);
 
+    /**
+     * Settings for this request, such as its retry policy, max response size and how it downloads files. They replace any options given before.
+     * Anything left unset in them falls back to the config.
+     * @param options the options
+     * @return this request builder
+     */
+    R options(RequestOptions options);
+
     /**
      * Executes the request and returns the response with the body mapped into a String
      * @return response
@@ -228,27 +238,44 @@ public interface HttpRequest<R extends HttpRequest> {
     HttpResponse<InputStream> asBinary();
 
     /**
-     * Executes the request and writes the contents into a file
+     * Executes the request and writes the contents into a file.
+     * The body is written to a temporary file next to it which then replaces the file, so the file is never seen half written.
+     * See RequestOptions::resumeDownloads to pick up where an earlier attempt left off and RequestOptions::downloadSegments
+     * to fetch several ranges at once.
      * @param path The path to the file.
      * @return a file containing the results
      */
     HttpResponse<File> asFile(String path);
 
     /**
-     * asynchronously executes the request and writes the contents into a file
+     * asynchronously executes the request and writes the contents into a file as they arrive, without buffering them in memory.
+     * The response is not cached or coalesced. Retries, hedging, rate limits and the circuit breaker apply until the headers arrive.
      * @param path The path to the file.
      * @return a file containing the results
      */
     CompletableFuture<HttpResponse<File>> asFileAsync(String path);
 
     /**
-     * asynchronously executes the request and writes the contents into a file
+     * asynchronously executes the request and writes the contents into a file as they arrive, without buffering them in memory.
+     * The response is not cached or coalesced. Retries, hedging, rate limits and the circuit breaker apply until the headers arrive.
      * @param path The path to the file.
      * @param callback a callback for handling the body post mapping
      * @return a file containing the results
      */
     CompletableFuture<HttpResponse<File>> asFileAsync(String path, Callback<File> callback);
 
+    /**
+     * Executes the request and downloads the file as several byte ranges at once.
+     * This is asFile with new RequestOptions().downloadSegments(segments), which also works with asFileAsync.
+     * A HEAD request finds the size of the file. If the server sends Accept-Ranges: bytes the file is split into up to
+     * the given number of segments, of at least a megabyte each, which are fetched concurrently and written straight into place.
+     * A failed segment is retried on its own according to the retry policy. Otherwise this is the same as asFile.
+     * @param path The path to the file.
+     * @param segments the most ranges to fetch at once
+     * @return a file containing the results, with the status and headers of the HEAD request
+     */
+    HttpResponse<File> asFileParallel(String path, int segments);
+
     /**
      * Executes the request asynchronously and returns a copy of the original InputStream
      * @deprecated This method returns a copy of the original stream and is not suitable for streaming. Use asObjectAsync(Function&lt;RawResponse, T&gt; function)
@@ -266,6 +293,36 @@ public interface HttpRequest<R extends HttpRequest> {
     @Deprecated
     CompletableFuture<HttpResponse<InputStream>> asBinaryAsync(Callback<InputStream> callback);
 
+    /**
+     * Executes the request asynchronously and streams the body as it arrives.
+     * The future completes as soon as the response headers have been received, and the body is a publisher of chunks
+     * which are read from the connection only as the subscriber asks for them. Cancelling the subscription aborts the request.
+     * The response is not cached or coalesced. Retries, hedging, rate limits and the circuit breaker apply until the headers arrive.
+     * @return a CompletableFuture of a HttpResponse with a publisher of the body
+     */
+    CompletableFuture<HttpResponse<BodyFlow.Publisher<ByteBuffer>>> asPublisherAsync();
+
+    /**
+     * Executes the request and lazily maps a JSON array or newline delimited JSON body into a stream of objects.
+     * Each element is read off the connection and mapped only as the stream pulls it, so memory use does not grow with the size of the response.
+     * Reading the stream to the end returns the connection to the pool, and closing it early aborts the connection, so use try-with-resources.
+     * The response is not cached or coalesced. Retries, hedging, rate limits and the circuit breaker apply until the headers arrive.
+     * @param <T> The type of the elements
+     * @param responseClass the class of each element
+     * @return a response with a stream of the elements
+     */
+    <T> HttpResponse<Stream<T>> asStream(Class<? extends T> responseClass);
+
+    /**
+     * Executes the request asynchronously and lazily maps a JSON array or newline delimited JSON body into a stream of objects.
+     * The future completes once the headers have arrived, on the callback executor or else the common pool, as reading the stream blocks until the body arrives.
+     * Closing the stream before the end aborts the request. See asStream.
+     * @param <T> The type of the elements
+     * @param responseClass the class of each element
+     * @return a CompletableFuture of a response with a stream of the elements
+     */
+    <T> CompletableFuture<HttpResponse<Stream<T>>> asStreamAsync(Class<? extends T> responseClass);
+
     /**
      * Execute the request asynchronously and pass the raw response to a consumer.
      * This raw response contains the original InputStream and is suitable for
@@ -47,6 +47,7 @@ class HttpRequestMultiPart extends BaseRequest<MultipartBody> implements Multipa
 
     private HttpMultipartMode mode = HttpMultipartMode.BROWSER_COMPATIBLE;
     private Charset charSet;
+    private String compression;
 
     HttpRequestMultiPart(HttpRequestBody httpRequest) {
         super(httpRequest);
@@ -75,7 +76,7 @@ class HttpRequestMultiPart extends BaseRequest<MultipartBody> implements Multipa
 
     @Override
     public MultipartBody field(String name, InputStream value, ContentType contentType) {
-        addPart(name, new InputStreamBody(value, contentType), contentType);
+        addPart(name, new DeferredStreamBody(value, contentType), contentType);
         return this;
     }
 
@@ -94,14 +95,14 @@ class HttpRequestMultiPart extends BaseRequest<MultipartBody> implements Multipa
 
     @Override
     public MultipartBody field(String name, InputStream stream, ContentType contentType, String fileName) {
-        addPart(name, new InputStreamBody(stream, contentType, fileName), contentType);
+        addPart(name, new DeferredStreamBody(stream, contentType, fileName), contentType);
 
         return this;
     }
 
     @Override
     public MultipartBody field(String name, InputStream stream, String fileName) {
-        addPart(name, new InputStreamBody(stream, ContentType.APPLICATION_OCTET_STREAM, fileName), ContentType.APPLICATION_OCTET_STREAM);
+        addPart(name, new DeferredStreamBody(stream, ContentType.APPLICATION_OCTET_STREAM, fileName), ContentType.APPLICATION_OCTET_STREAM);
 
         return this;
     }
@@ -144,6 +145,12 @@ class HttpRequestMultiPart extends BaseRequest<MultipartBody> implements Multipa
         return this;
     }
 
+    @Override
+    public MultipartBody compress(String encoding) {
+        this.compression = CompressingEntity.supported(encoding);
+        return this;
+    }
+
     public MultipartBody fields(Map<String, Object> fields) {
         if (fields != null) {
             for (Map.Entry<String, Object> param : fields.entrySet()) {
@@ -159,6 +166,10 @@ class HttpRequestMultiPart extends BaseRequest<MultipartBody> implements Multipa
 
     @Override
     public HttpEntity getEntity() {
+        return CompressingEntity.of(getUncompressedEntity(), compression, config.getCompressionThreshold());
+    }
+
+    private HttpEntity getUncompressedEntity() {
         if (parameters.stream().anyMatch(FormPart::isFile)) {
             MultipartEntityBuilder builder = MultipartEntityBuilder.create();
             builder.setCharset(charSet);
@@ -30,4 +30,9 @@ class HttpRequestNoBody extends BaseRequest<GetRequest> implements GetRequest {
 	HttpRequestNoBody(Config config, HttpMethod method, String url) {
 		super(config, method, url);
 	}
+
+	HttpRequestNoBody(BaseRequest<?> request, HttpMethod method) {
+		super(request);
+		this.method = method;
+	}
 }
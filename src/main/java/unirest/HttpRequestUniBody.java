@@ -38,6 +38,7 @@ class HttpRequestUniBody extends BaseRequest<RequestBodyEntity> implements Reque
 
 	private Supplier<HttpEntity> body = () -> new StringEntity("", StandardCharsets.UTF_8);
 	private Charset charSet;
+	private String compression;
 
 	HttpRequestUniBody(HttpRequestBody httpRequest) {
 		super(httpRequest);
@@ -67,9 +68,15 @@ class HttpRequestUniBody extends BaseRequest<RequestBodyEntity> implements Reque
 		return this;
 	}
 
+	@Override
+	public RequestBodyEntity compress(String encoding) {
+		this.compression = CompressingEntity.supported(encoding);
+		return this;
+	}
+
 	@Override
 	public HttpEntity getEntity() {
-		return body.get();
+		return CompressingEntity.of(body.get(), compression, config.getCompressionThreshold());
 	}
 
 	@Override
@@ -0,0 +1,129 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the body of a response from the sync client, reading each chunk on the thread that asks for it.
+ * This is what streamed responses use when async requests run on an executor, where there is no reactor to push the body.
+ * Reading to the end closes the stream and cancelling the subscription aborts the connection.
+ */
+class InputStreamPublisher implements BodyFlow.Publisher<ByteBuffer> {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final InputStream content;
+    private final Runnable abort;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private volatile BodyFlow.Subscriber<? super ByteBuffer> subscriber;
+
+    InputStreamPublisher(InputStream content, Runnable abort) {
+        this.content = content;
+        this.abort = abort;
+    }
+
+    @Override
+    public void subscribe(BodyFlow.Subscriber<? super ByteBuffer> s) {
+        if (!subscribed.compareAndSet(false, true)) {
+            s.onSubscribe(PublishingResponseConsumer.REJECTED);
+            s.onError(new IllegalStateException("A response body can only be subscribed to once"));
+            return;
+        }
+        subscriber = s;
+        s.onSubscribe(new Subscription());
+    }
+
+    void abort() {
+        if (terminated.compareAndSet(false, true)) {
+            abort.run();
+        }
+    }
+
+    /**
+     * Only one thread reads at a time. Asking for more while another thread is reading, or from inside onNext,
+     * just adds to the demand that thread is working through.
+     */
+    private void drain() {
+        if (reads.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            read();
+        } while (reads.decrementAndGet() != 0);
+    }
+
+    private void read() {
+        try {
+            while (demand.get() > 0 && !terminated.get()) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int read = content.read(chunk);
+                if (read < 0) {
+                    if (terminated.compareAndSet(false, true)) {
+                        content.close();
+                        subscriber.onComplete();
+                    }
+                    return;
+                }
+                demand.decrementAndGet();
+                subscriber.onNext(ByteBuffer.wrap(chunk, 0, read));
+            }
+        } catch (IOException | RuntimeException e) {
+            if (terminated.compareAndSet(false, true)) {
+                abort.run();
+                subscriber.onError(e);
+            }
+        }
+    }
+
+    private class Subscription implements BodyFlow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                if (terminated.compareAndSet(false, true)) {
+                    abort.run();
+                    subscriber.onError(new IllegalArgumentException("Demand must be positive but was " + n));
+                }
+                return;
+            }
+            demand.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            abort();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Splits a body into its top level JSON values without parsing them.
+ * The body is either a single array, whose elements are returned one at a time, or a run of values
+ * separated by whitespace (newline delimited JSON). Only the current element is ever held in memory.
+ */
+class JsonElementReader {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder element = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean started;
+    private boolean array;
+    private boolean finished;
+
+    JsonElementReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return the next top level element as a JSON string, or null once the body has been read to its end
+     * @throws IOException if the body can't be read or isn't a JSON array or a sequence of JSON values
+     */
+    String next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        int c = skipWhitespace();
+        if (!started) {
+            started = true;
+            if (c == '[') {
+                array = true;
+                c = skipWhitespace();
+                if (c == ']') {
+                    return end();
+                }
+                return readElement(c);
+            }
+        } else if (array) {
+            if (c == ']') {
+                return end();
+            }
+            if (c != ',') {
+                throw malformed(c);
+            }
+            c = skipWhitespace();
+        }
+        if (c < 0) {
+            if (array) {
+                throw malformed(c);
+            }
+            finished = true;
+            return null;
+        }
+        return readElement(c);
+    }
+
+    private String end() throws IOException {
+        finished = true;
+        int c = skipWhitespace();
+        if (c >= 0) {
+            throw malformed(c);
+        }
+        return null;
+    }
+
+    private String readElement(int first) throws IOException {
+        element.setLength(0);
+        if (first != '{' && first != '[' && first != '"') {
+            return readScalar(first);
+        }
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+        int c = first;
+        while (true) {
+            if (c < 0) {
+                throw malformed(c);
+            }
+            element.append((char) c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+            if (depth == 0 && !inString) {
+                return element.toString();
+            }
+            c = read();
+        }
+    }
+
+    private String readScalar(int first) throws IOException {
+        int c = first;
+        while (c >= 0 && !isWhitespace(c) && c != ',' && c != ']') {
+            element.append((char) c);
+            c = read();
+        }
+        if (c >= 0) {
+            position--;
+        }
+        return element.toString();
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c = read();
+        while (isWhitespace(c)) {
+            c = read();
+        }
+        return c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            int read = reader.read(buffer, 0, buffer.length);
+            while (read == 0) {
+                read = reader.read(buffer, 0, buffer.length);
+            }
+            if (read < 0) {
+                return -1;
+            }
+            position = 0;
+            limit = read;
+        }
+        return buffer[position++];
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static IOException malformed(int c) {
+        if (c < 0) {
+            return new IOException("Unexpected end of JSON body");
+        }
+        return new IOException("Unexpected character '" + (char) c + "' between JSON elements");
+    }
+}
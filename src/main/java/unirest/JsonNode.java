@@ -29,6 +29,9 @@ package unirest;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Reader;
 
 public class JsonNode {
 
@@ -51,6 +54,28 @@ public class JsonNode {
         }
     }
 
+    private JsonNode(JSONObject jsonObject, JSONArray jsonArray) {
+        this.jsonObject = jsonObject;
+        this.jsonArray = jsonArray;
+        this.array = jsonArray != null;
+    }
+
+    /**
+     * Parse directly from a reader without building an intermediate String
+     */
+    static JsonNode read(Reader reader) {
+        JSONTokener tokener = new JSONTokener(reader);
+        char first = tokener.nextClean();
+        if (first == 0) {
+            return new JsonNode(new JSONObject(), null);
+        }
+        tokener.back();
+        if (first == '{') {
+            return new JsonNode(new JSONObject(tokener), null);
+        }
+        return new JsonNode(null, new JSONArray(tokener));
+    }
+
     public JSONObject getObject() {
         return this.jsonObject;
     }
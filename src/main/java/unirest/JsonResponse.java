@@ -28,46 +28,62 @@ package unirest;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Objects;
+import java.util.Optional;
 
 public class JsonResponse extends BaseResponse<JsonNode> {
-    private JsonNode node;
+    private final BufferPool pool;
+    private final LazyBody<JsonNode> node;
     private InputStream errorStream;
 
     protected JsonResponse(RawResponse response) {
+        this(response, BufferPool.NONE);
+    }
+
+    JsonResponse(RawResponse response, BufferPool pool) {
         super(response);
+        this.pool = pool;
         node = getNode(response);
     }
 
-    private JsonNode getNode(RawResponse response) {
+    private LazyBody<JsonNode> getNode(RawResponse response) {
         if (Objects.isNull(response) || !response.hasContent()) {
-            return new JsonNode(null);
+            return new LazyBody<>(() -> new JsonNode(null));
         } else {
-            String json = response.getContentAsString();
-            return toJsonNode(json);
+            byte[] json = response.getContentAsBytes();
+            Charset charset = ResponseUtils.getCharset(response);
+            return new LazyBody<>(RequestTimer.from(response).deserializing(() -> toJsonNode(json, charset)));
         }
     }
 
-    private JsonNode toJsonNode(String json) {
+    private JsonNode toJsonNode(byte[] json, Charset charset) {
         try {
-            return new JsonNode(json);
+            return pool.decode(json, json.length, charset, JsonNode::read);
         } catch (RuntimeException e) {
-            super.setParsingException(json, e);
-            errorStream = new ByteArrayInputStream(json.getBytes());
+            super.setParsingException(new String(json, charset), e);
+            errorStream = new ByteArrayInputStream(json);
             return null;
         }
     }
 
     @Override
     public InputStream getRawBody() {
+        JsonNode body = getBody();
         if (errorStream != null) {
             return errorStream;
         }
-        return new ByteArrayInputStream(node.toString().getBytes());
+        return new ByteArrayInputStream(body.toString().getBytes());
     }
 
     @Override
     public JsonNode getBody() {
-        return node;
+        return node.get();
+    }
+
+    @Override
+    public Optional<UnirestParsingException> getParsingError() {
+        node.get();
+        return super.getParsingError();
     }
 }
@@ -0,0 +1,141 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A lazily decoded stream of the elements of a JSON array or newline delimited JSON body.
+ * Each element is read off the connection and mapped only when the stream pulls it.
+ * Reading to the end hands the connection back to the pool; closing the stream before that aborts it
+ * rather than reading and throwing away the rest of the body.
+ */
+class JsonStream<T> implements Iterator<T> {
+    private final RawResponse head;
+    private final InputStream content;
+    private final ObjectMapper mapper;
+    private final Class<? extends T> type;
+    private final Runnable abort;
+    private Reader reader;
+    private JsonElementReader elements;
+    private String pending;
+    private boolean exhausted;
+    private boolean closed;
+
+    private JsonStream(RawResponse head, InputStream content, ObjectMapper mapper, Class<? extends T> type, Runnable abort) {
+        this.head = head;
+        this.content = content;
+        this.mapper = mapper;
+        this.type = type;
+        this.abort = abort;
+    }
+
+    /**
+     * @param head the response the body belongs to, for its charset
+     * @param content the decoded body, which is not read until the stream is
+     * @param abort drops the connection when the stream is closed early
+     */
+    static <T> Stream<T> of(RawResponse head, InputStream content, ObjectMapper mapper, Class<? extends T> type, Runnable abort) {
+        JsonStream<T> iterator = new JsonStream<>(head, content, mapper, type, abort);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending != null) {
+            return true;
+        }
+        if (exhausted || closed) {
+            return false;
+        }
+        try {
+            pending = elements().next();
+        } catch (IOException e) {
+            close();
+            throw new UnirestException(e);
+        }
+        if (pending == null) {
+            exhausted = true;
+            closeQuietly();
+        }
+        return pending != null;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String element = pending;
+        pending = null;
+        return mapper.readValue(element, type);
+    }
+
+    private JsonElementReader elements() throws IOException {
+        if (elements == null) {
+            Charset charset = ResponseUtils.getCharset(head);
+            reader = new InputStreamReader(content, charset);
+            elements = new JsonElementReader(reader);
+        }
+        return elements;
+    }
+
+    private void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending = null;
+        if (!exhausted) {
+            abort.run();
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (reader != null) {
+                reader.close();
+            } else {
+                content.close();
+            }
+        } catch (IOException e) {
+            // the connection has already been released or dropped
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.function.Supplier;
+
+/**
+ * A response body that is parsed the first time it is asked for rather than when the response arrives,
+ * so callers who only look at the status and headers never pay for it. It is parsed once however many threads ask,
+ * and anything the parser sets before returning is visible to every thread that gets the body afterwards.
+ */
+class LazyBody<T> {
+    private Supplier<T> parser;
+    private volatile boolean parsed;
+    private T value;
+
+    LazyBody(Supplier<T> parser) {
+        this.parser = parser;
+    }
+
+    T get() {
+        if (!parsed) {
+            synchronized (this) {
+                if (!parsed) {
+                    value = parser.get();
+                    parser = null;
+                    parsed = true;
+                }
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SimpleInputBuffer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * The same as Apache's BasicAsyncResponseConsumer except that it fails the exchange as soon as the body
+ * (or its declared Content-Length) is bigger than the limit instead of buffering all of it.
+ */
+class LimitedResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+    private static final int MAX_INITIAL_BUFFER_SIZE = 256 * 1024;
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private final long limit;
+    private volatile HttpResponse response;
+    private volatile SimpleInputBuffer buffer;
+    private long received;
+
+    LimitedResponseConsumer(long limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    protected void onResponseReceived(HttpResponse httpResponse) {
+        this.response = httpResponse;
+    }
+
+    @Override
+    protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+        long length = entity.getContentLength();
+        if (length > limit) {
+            throw LimitedInputStream.tooLong(limit);
+        }
+        int initial = length < 0 ? DEFAULT_BUFFER_SIZE : (int) Math.min(length, MAX_INITIAL_BUFFER_SIZE);
+        buffer = new SimpleInputBuffer(initial, new HeapByteBufferAllocator());
+        response.setEntity(new ContentBufferEntity(entity, buffer));
+    }
+
+    @Override
+    protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+        int read = buffer.consumeContent(decoder);
+        if (read > 0) {
+            received += read;
+        }
+        if (received > limit) {
+            throw LimitedInputStream.tooLong(limit);
+        }
+    }
+
+    @Override
+    protected void releaseResources() {
+        response = null;
+        buffer = null;
+    }
+
+    @Override
+    protected HttpResponse buildResult(HttpContext context) {
+        return response;
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+class MemoryResponseCache extends ResponseCache {
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final VariantIndex variants = new VariantIndex();
+    private long bytes;
+
+    MemoryResponseCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    synchronized CacheEntry get(String url, Predicate<CacheEntry> matches) {
+        for (String key : variants.of(url)) {
+            CacheEntry entry = entries.get(key);
+            if (matches.test(entry)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    CacheEntry store(String key, CacheEntry entry, RawResponse response) {
+        CacheEntry stored = entry.withBody(CacheEntry.Body.of(response.getContentAsBytes()));
+        update(key, stored);
+        return stored;
+    }
+
+    @Override
+    synchronized void update(String key, CacheEntry entry) {
+        if (!fits(entry.size())) {
+            drop(key);
+            return;
+        }
+        CacheEntry old = entries.put(key, entry);
+        if (old != null) {
+            bytes -= old.size();
+        }
+        variants.add(key);
+        bytes += entry.size();
+        evict();
+    }
+
+    @Override
+    synchronized void remove(String url) {
+        variants.of(url).forEach(this::drop);
+    }
+
+    private void drop(String key) {
+        CacheEntry old = entries.remove(key);
+        if (old != null) {
+            bytes -= old.size();
+            variants.remove(key);
+        }
+    }
+
+    @Override
+    boolean fits(long size) {
+        return size <= maxBytes;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, CacheEntry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            Map.Entry<String, CacheEntry> next = eldest.next();
+            bytes -= next.getValue().size();
+            variants.remove(next.getKey());
+            eldest.remove();
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        variants.clear();
+        bytes = 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long byteSize() {
+        return bytes;
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.function.Supplier;
+
+/**
+ * Receives timings for every request made through a config.
+ * Register one with Unirest.config().instrumentWith(listener) and forward the values to whatever metrics library you use.
+ *
+ * Requests are tagged with their method and the route template they were built from (e.g. /users/{id}),
+ * not the expanded url, so the number of distinct routes stays small.
+ *
+ * Callbacks are made on the thread that executed the request (the IO reactor for async requests)
+ * so implementations should be quick and must not block.
+ */
+public interface MetricsListener {
+
+    enum Phase {
+        /**
+         * Waiting for a permit from the host's rate limit. Only reported when a request had to wait.
+         */
+        RATE_LIMIT,
+        /**
+         * Waiting for a connection from the pool. For async requests this includes connect and TLS.
+         */
+        LEASE,
+        /**
+         * Opening a new TCP connection. Only reported for the synchronous client.
+         */
+        CONNECT,
+        /**
+         * The TLS handshake for a new connection. Only reported for the synchronous client.
+         */
+        TLS,
+        /**
+         * Sending the request until the response headers arrive.
+         */
+        FIRST_BYTE,
+        /**
+         * Reading the response body.
+         */
+        BODY_READ,
+        /**
+         * Turning the body into the requested type (json, objects, etc).
+         * Json and object bodies are only parsed the first time they are asked for, so for those this is reported then,
+         * on the thread that asked and after onComplete, or not at all if the body is never asked for.
+         */
+        DESERIALIZE
+    }
+
+    /**
+     * Called once per phase per request. Phases that did not happen (like CONNECT on a pooled connection) are not reported.
+     *
+     * @param method the http method
+     * @param route the route template
+     * @param phase the phase
+     * @param nanos how long it took in nanoseconds
+     */
+    default void onPhase(HttpMethod method, String route, Phase phase, long nanos) {}
+
+    /**
+     * Called when a request has been completed and its response transformed.
+     *
+     * @param method the http method
+     * @param route the route template
+     * @param status the response status
+     * @param nanos the total time in nanoseconds
+     */
+    default void onComplete(HttpMethod method, String route, int status, long nanos) {}
+
+    /**
+     * Called when a request fails without a response.
+     *
+     * @param method the http method
+     * @param route the route template
+     * @param e the failure
+     * @param nanos the total time in nanoseconds
+     */
+    default void onError(HttpMethod method, String route, Exception e, long nanos) {}
+
+    /**
+     * Called when a client builds its connection pool so its stats can be registered as gauges.
+     *
+     * @param name "sync" or "async"
+     * @param stats reads the current pool stats
+     */
+    default void onPool(String name, Supplier<ConnectionPoolStats> stats) {}
+}
@@ -65,4 +65,13 @@ public interface MultipartBody extends HttpRequest<MultipartBody>, Body {
     MultipartBody mode(String value);
 
     MultipartBody mode(HttpMultipartMode value);
+
+    /**
+     * Compress the body as it is sent, if it is at least as long as Unirest.config().compressionThreshold(...)
+     * Bodies with files or streams have no known length and are always compressed.
+     *
+     * @param encoding "gzip" or "deflate"
+     * @return this request
+     */
+    MultipartBody compress(String encoding);
 }
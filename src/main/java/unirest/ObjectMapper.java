@@ -26,10 +26,65 @@
 
 package unirest;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Maps response bodies to objects and objects to request bodies.
+ * Only the String methods are required. asObject hands UTF-8 bodies to the byte[] methods, which default to
+ * passing a stream over the decoded body to the InputStream methods, and bodies in any other charset to the Reader methods.
+ * The InputStream and Reader methods default to building a String and passing it to the String methods,
+ * so mappers that can parse bytes, a stream or a Reader directly (like Jackson or Gson) should override one of them
+ * to skip that copy.
+ */
 public interface ObjectMapper {
 	<T> T readValue(String value, Class<T> valueType);
 	default <T> T readValue(String value, GenericType<T> genericType){
 		throw new UnirestException("Please implement me");
 	}
+
+	/**
+	 * @param value a UTF-8 encoded body
+	 * @param valueType the type to map to
+	 * @param <T> the return type
+	 * @return the mapped object
+	 */
+	default <T> T readValue(byte[] value, Class<T> valueType){
+		return readValue(new ByteArrayInputStream(value), valueType);
+	}
+
+	default <T> T readValue(byte[] value, GenericType<T> genericType){
+		return readValue(new ByteArrayInputStream(value), genericType);
+	}
+
+	/**
+	 * @param value a UTF-8 encoded body. The stream is not closed.
+	 * @param valueType the type to map to
+	 * @param <T> the return type
+	 * @return the mapped object
+	 */
+	default <T> T readValue(InputStream value, Class<T> valueType){
+		return readValue(Util.toString(value), valueType);
+	}
+
+	default <T> T readValue(InputStream value, GenericType<T> genericType){
+		return readValue(Util.toString(value), genericType);
+	}
+
+	/**
+	 * @param value the decoded body. It is only valid until this method returns.
+	 * @param valueType the type to map to
+	 * @param <T> the return type
+	 * @return the mapped object
+	 */
+	default <T> T readValue(Reader value, Class<T> valueType){
+		return readValue(Util.toString(value), valueType);
+	}
+
+	default <T> T readValue(Reader value, GenericType<T> genericType){
+		return readValue(Util.toString(value), genericType);
+	}
+
 	String writeValue(Object value);
 }
@@ -28,56 +28,81 @@ package unirest;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 import java.util.function.Function;
 
 
 class ObjectResponse<T> extends BaseResponse<T> {
-    private final T body;
+    private final LazyBody<T> body;
     private final ObjectMapper om;
+    private final BufferPool pool;
 
     ObjectResponse(ObjectMapper om, RawResponse response, Class<? extends T> to) {
+        this(om, response, to, BufferPool.NONE);
+    }
+
+    ObjectResponse(ObjectMapper om, RawResponse response, Class<? extends T> to, BufferPool pool) {
         super(response);
         this.om = om;
-        this.body = readBody(response)
-                .map(s -> getBody(s, e -> om.readValue(e, to)))
-                .orElse(null);
+        this.pool = pool;
+        this.body = readBody(response, e -> om.readValue(e, to), e -> om.readValue(e, to));
     }
 
     ObjectResponse(ObjectMapper om, RawResponse response, GenericType<? extends T> to){
+        this(om, response, to, BufferPool.NONE);
+    }
+
+    ObjectResponse(ObjectMapper om, RawResponse response, GenericType<? extends T> to, BufferPool pool){
         super(response);
         this.om = om;
-        this.body = readBody(response)
-                .map(s -> getBody(s, e -> om.readValue(e, to)))
-                .orElse(null);
+        this.pool = pool;
+        this.body = readBody(response, e -> om.readValue(e, to), e -> om.readValue(e, to));
     }
 
-    private Optional<String> readBody(RawResponse response) {
+    /**
+     * Read the body off the connection now, but only map it when it is first asked for.
+     */
+    private LazyBody<T> readBody(RawResponse response, Function<byte[], T> fromBytes, Function<Reader, T> fromReader) {
         if(!response.hasContent()){
-            return Optional.empty();
+            return new LazyBody<>(() -> null);
         }
-        return Optional.of(response.getContentAsString());
+        byte[] b = response.getContentAsBytes();
+        Charset charset = ResponseUtils.getCharset(response);
+        return new LazyBody<>(RequestTimer.from(response).deserializing(() -> getBody(b, charset, fromBytes, fromReader)));
     }
 
-    private T getBody(String b, Function<String, T> func){
+    private T getBody(byte[] b, Charset charset, Function<byte[], T> fromBytes, Function<Reader, T> fromReader){
         try {
-            return func.apply(b);
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                return fromBytes.apply(b);
+            }
+            return pool.decode(b, b.length, charset, fromReader);
         } catch (RuntimeException e) {
-            setParsingException(b, e);
+            setParsingException(new String(b, charset), e);
             return null;
         }
     }
 
     @Override
     public InputStream getRawBody() {
-        if(body == null){
+        T parsed = getBody();
+        if(parsed == null){
             return new ByteArrayInputStream(new byte[0]);
         }
-        return new ByteArrayInputStream(om.writeValue(body).getBytes());
+        return new ByteArrayInputStream(om.writeValue(parsed).getBytes());
     }
 
     @Override
     public T getBody() {
-        return body;
+        return body.get();
+    }
+
+    @Override
+    public Optional<UnirestParsingException> getParsingError() {
+        body.get();
+        return super.getParsingError();
     }
 }
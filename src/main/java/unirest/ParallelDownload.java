@@ -0,0 +1,310 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.HttpHeaders;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downloads a file as several byte ranges at once over the async connection pool.
+ * A HEAD request finds out how big the file is and whether the server takes ranges. If it doesn't, or the file is too
+ * small to be worth splitting, this is a plain download. Each segment writes its chunks straight to its own offset
+ * in the file, so nothing is put back together afterwards, and a segment that fails is retried on its own
+ * from the last byte it wrote, following the request's retry policy.
+ */
+class ParallelDownload {
+    static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+
+    private final BaseRequest<?> request;
+    private final RawResponse head;
+    private final FileDownload download;
+    private final RetryPolicy retryPolicy;
+    private final CompletableFuture<HttpResponse<File>> result = new CompletableFuture<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private FileChannel channel;
+
+    private ParallelDownload(BaseRequest<?> request, RawResponse head, FileDownload download, RetryPolicy retryPolicy) {
+        this.request = request;
+        this.head = head;
+        this.download = download;
+        this.retryPolicy = retryPolicy;
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                abort();
+            }
+        });
+    }
+
+    static CompletableFuture<HttpResponse<File>> start(BaseRequest<?> request, String path, int segments, RetryPolicy retryPolicy,
+                                                       CompletableFuture<HttpResponse<File>> file) {
+        BaseRequest<?> probe = request.copy(HttpMethod.HEAD);
+        probe.range(null);
+        probe.asObjectAsync(raw -> raw).whenComplete((response, error) -> {
+            if (error != null) {
+                file.completeExceptionally(error);
+                return;
+            }
+            long length = length(response.getBody());
+            int count = (int) Math.min(segments, length / MIN_SEGMENT_SIZE);
+            CompletableFuture<HttpResponse<File>> download = count < 2
+                    ? request.downloadAsync(path)
+                    : new ParallelDownload(request, response.getBody(), FileDownload.to(path), retryPolicy).fetch(length, count);
+            file.whenComplete((r, e) -> {
+                if (file.isCancelled()) {
+                    download.cancel(true);
+                }
+            });
+            download.whenComplete((r, e) -> {
+                if (e != null) {
+                    file.completeExceptionally(e);
+                } else {
+                    file.complete(r);
+                }
+            });
+        });
+        return file;
+    }
+
+    /**
+     * @return the length of the resource if the server will send parts of it, otherwise -1
+     */
+    private static long length(RawResponse head) {
+        Headers headers = head.getHeaders();
+        String length = headers.getFirst(HttpHeaders.CONTENT_LENGTH);
+        if (head.getStatus() != 200 || length == null || !"bytes".equalsIgnoreCase(headers.getFirst(HttpHeaders.ACCEPT_RANGES))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(length.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private CompletableFuture<HttpResponse<File>> fetch(long length, int count) {
+        try {
+            channel = FileChannel.open(download.open(), StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            download.failed();
+            result.completeExceptionally(e);
+            return result;
+        }
+        long size = (length + count - 1) / count;
+        for (long from = 0; from < length; from += size) {
+            segments.add(new Segment(from, Math.min(length, from + size) - 1));
+        }
+        remaining.set(segments.size());
+        segments.forEach(this::send);
+        return result;
+    }
+
+    private void send(Segment segment) {
+        if (finished.get()) {
+            return;
+        }
+        BaseRequest<?> get = request.copy(HttpMethod.GET);
+        get.range("bytes=" + segment.position + "-" + segment.end);
+        // the segment is retried here, from as far as it got, rather than from the start by the request
+        get.withoutRetries();
+        long from = segment.position;
+        CompletableFuture<HttpResponse<CompletableFuture<Void>>> exchange = get.publish(new Headers(), (raw, body) -> {
+            if (raw.getStatus() != 206 || !("bytes " + from + "-" + segment.end).equals(contentRange(raw))) {
+                body.subscribe(new AsyncFileWriter.Cancelling());
+                return null;
+            }
+            Writer writer = new Writer(segment);
+            body.subscribe(writer);
+            return writer.done;
+        }, Runnable::run);
+        segment.exchange = exchange;
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                retry(segment, null, error);
+            } else if (response.getBody() == null) {
+                retry(segment, response, new UnirestException("Asked for bytes " + from + "-" + segment.end
+                        + " but got a " + response.getStatus() + " with " + response.getHeaders().getFirst("Content-Range")));
+            } else {
+                response.getBody().whenComplete((done, e) -> {
+                    if (e != null) {
+                        retry(segment, null, e);
+                    } else if (remaining.decrementAndGet() == 0) {
+                        complete();
+                    }
+                });
+            }
+        });
+        if (finished.get()) {
+            exchange.cancel(true);
+        }
+    }
+
+    private static String contentRange(RawResponse raw) {
+        String range = raw.getHeaders().getFirst("Content-Range");
+        if (range == null || range.indexOf('/') < 0) {
+            return null;
+        }
+        return range.substring(0, range.indexOf('/')).trim();
+    }
+
+    private void retry(Segment segment, HttpResponse<?> response, Throwable error) {
+        long delay = finished.get() ? -1 : segment.attempts.nextDelay(response, error);
+        if (delay < 0) {
+            fail(error);
+            return;
+        }
+        DelayScheduler.schedule(() -> send(segment), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void complete() {
+        if (!finished.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            channel.close();
+            result.complete(new FileResponse(head, download.finish()));
+        } catch (IOException | RuntimeException e) {
+            download.failed();
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void fail(Throwable error) {
+        if (abort()) {
+            result.completeExceptionally(error);
+        }
+    }
+
+    private boolean abort() {
+        if (!finished.compareAndSet(false, true)) {
+            return false;
+        }
+        for (Segment segment : segments) {
+            segment.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // the file is being thrown away anyway
+        }
+        download.failed();
+        return true;
+    }
+
+    private class Segment {
+        private final long end;
+        private final RetryPolicy.Attempts attempts = retryPolicy.start(HttpMethod.GET, () -> true);
+        private volatile long position;
+        private volatile CompletableFuture<?> exchange;
+        private volatile BodyFlow.Subscription subscription;
+
+        Segment(long from, long end) {
+            this.position = from;
+            this.end = end;
+        }
+
+        void cancel() {
+            CompletableFuture<?> e = exchange;
+            if (e != null) {
+                e.cancel(true);
+            }
+            BodyFlow.Subscription s = subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    /**
+     * Writes the chunks of one attempt at a segment at their offsets in the file.
+     * Writes happen on the reactor thread, which is what holds back reading from the connection.
+     */
+    private class Writer implements BodyFlow.Subscriber<ByteBuffer> {
+        private final Segment segment;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private BodyFlow.Subscription subscription;
+
+        Writer(Segment segment) {
+            this.segment = segment;
+        }
+
+        @Override
+        public void onSubscribe(BodyFlow.Subscription s) {
+            subscription = s;
+            segment.subscription = s;
+            if (finished.get()) {
+                s.cancel();
+                return;
+            }
+            s.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer chunk) {
+            try {
+                if (chunk.remaining() > segment.end + 1 - segment.position) {
+                    throw new IOException("The server sent more than bytes up to " + segment.end);
+                }
+                long position = segment.position;
+                while (chunk.hasRemaining()) {
+                    position += channel.write(chunk, position);
+                }
+                segment.position = position;
+            } catch (IOException e) {
+                subscription.cancel();
+                done.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            done.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            if (segment.position == segment.end + 1) {
+                done.complete(null);
+            } else {
+                done.completeExceptionally(new ConnectionClosedException("The segment ended at byte " + segment.position + " of " + segment.end));
+            }
+        }
+    }
+}
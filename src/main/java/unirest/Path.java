@@ -29,27 +29,25 @@ package unirest;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 class Path {
+    private final UriTemplate template;
+    private final Map<String, String> params = new HashMap<>();
+    private final StringBuilder query = new StringBuilder();
     private String url;
 
     Path(String url) {
-        this.url = url;
+        this.template = UriTemplate.of(url);
     }
 
     public void param(String name, String value) {
-        Matcher matcher = Pattern.compile("\\{" + name + "\\}").matcher(url);
-        int count = 0;
-        while (matcher.find()) {
-            count++;
-        }
-        if (count == 0) {
+        if (!template.hasPlaceholder(name) || params.containsKey(name)) {
             throw new UnirestException("Can't find route parameter name \"" + name + "\"");
         }
-        this.url = url.replaceAll("\\{" + name + "\\}", Util.encode(value));
+        params.put(name, Util.encode(value));
+        url = null;
     }
 
     public void queryString(String name, Collection<?> value){
@@ -59,21 +57,20 @@ class Path {
     }
 
     public void queryString(String name, Object value) {
-        StringBuilder queryString = new StringBuilder();
-        if (url.contains("?")) {
-            queryString.append("&");
+        if (template.hasQuery() || query.length() > 0) {
+            query.append('&');
         } else {
-            queryString.append("?");
+            query.append('?');
         }
         try {
-            queryString.append(URLEncoder.encode(name));
+            query.append(URLEncoder.encode(name));
             if(value != null) {
-                queryString.append("=").append(URLEncoder.encode(value.toString(), "UTF-8"));
+                query.append('=').append(URLEncoder.encode(value.toString(), "UTF-8"));
             }
         } catch (UnsupportedEncodingException e) {
             throw new UnirestException(e);
         }
-        url += queryString.toString();
+        url = null;
     }
 
     public void queryString(Map<String, Object> parameters) {
@@ -90,8 +87,17 @@ class Path {
         }
     }
 
+    String template() {
+        return template.toString();
+    }
+
     @Override
     public String toString() {
+        if (url == null) {
+            StringBuilder sb = new StringBuilder(template.toString().length() + query.length() + 32);
+            template.expand(params, sb);
+            url = sb.append(query).toString();
+        }
         return url;
     }
 }
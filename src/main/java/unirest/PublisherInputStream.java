@@ -0,0 +1,146 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * A blocking InputStream over a body publisher.
+ * One chunk is asked for ahead of the one being read, so at most two chunks are ever held
+ * and a reader that stops reading stops the publisher too. Closing the stream cancels the subscription.
+ */
+class PublisherInputStream extends InputStream implements BodyFlow.Subscriber<ByteBuffer> {
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+    private volatile BodyFlow.Subscription subscription;
+    private ByteBuffer current;
+    private boolean finished;
+    private boolean closed;
+
+    PublisherInputStream(BodyFlow.Publisher<ByteBuffer> publisher) {
+        publisher.subscribe(this);
+    }
+
+    @Override
+    public void onSubscribe(BodyFlow.Subscription s) {
+        subscription = s;
+        s.request(1);
+    }
+
+    @Override
+    public void onNext(ByteBuffer item) {
+        signals.add(item);
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        signals.add(error);
+    }
+
+    @Override
+    public void onComplete() {
+        signals.add(END);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, current.remaining());
+        current.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        return current == null ? 0 : current.remaining();
+    }
+
+    private boolean fill() throws IOException {
+        while (current == null || !current.hasRemaining()) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            if (finished) {
+                return false;
+            }
+            Object signal = take();
+            if (signal == END) {
+                finished = true;
+                return false;
+            }
+            if (signal instanceof Throwable) {
+                finished = true;
+                Throwable error = (Throwable) signal;
+                throw error instanceof IOException ? (IOException) error : new IOException(error);
+            }
+            current = (ByteBuffer) signal;
+            subscription.request(1);
+        }
+        return true;
+    }
+
+    private Object take() throws InterruptedIOException {
+        try {
+            return signals.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        current = null;
+        BodyFlow.Subscription s = subscription;
+        if (!finished && s != null) {
+            s.cancel();
+        }
+    }
+}
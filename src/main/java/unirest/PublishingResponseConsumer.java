@@ -0,0 +1,231 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands the response to the caller as soon as its headers arrive and then publishes the body in chunks as the reactor reads them.
+ * Nothing is buffered: while the subscriber has no outstanding demand, input from the connection is suspended,
+ * so a slow subscriber pushes back all the way to the socket. Cancelling the subscription, or aborting the response, aborts the exchange.
+ */
+class PublishingResponseConsumer implements HttpAsyncResponseConsumer<Void>, BodyFlow.Publisher<ByteBuffer> {
+    private static final int CHUNK_SIZE = 8192;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+    static final BodyFlow.Subscription REJECTED = new BodyFlow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final CompletableFuture<unirest.HttpResponse<BodyFlow.Publisher<ByteBuffer>>> callback;
+    private final RequestTimer timer;
+    private final long maxResponseSize;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final AtomicBoolean terminated = new AtomicBoolean();
+    private volatile BodyFlow.Subscriber<? super ByteBuffer> subscriber;
+    private volatile IOControl ioctrl;
+    private volatile Future<?> exchange;
+    private volatile Exception exception;
+    private volatile boolean done;
+    private volatile boolean cancelled;
+    private long received;
+
+    /**
+     * @param callback completed with a StreamedResponse as soon as the headers arrive
+     */
+    PublishingResponseConsumer(CompletableFuture<unirest.HttpResponse<BodyFlow.Publisher<ByteBuffer>>> callback,
+                               RequestTimer timer,
+                               long maxResponseSize) {
+        this.callback = callback;
+        this.timer = timer;
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    void streaming(Future<?> exchange) {
+        this.exchange = exchange;
+        if (cancelled) {
+            exchange.cancel(true);
+        }
+    }
+
+    @Override
+    public void subscribe(BodyFlow.Subscriber<? super ByteBuffer> s) {
+        if (!subscribed.compareAndSet(false, true)) {
+            s.onSubscribe(REJECTED);
+            s.onError(new IllegalStateException("A response body can only be subscribed to once"));
+            return;
+        }
+        subscriber = s;
+        s.onSubscribe(new Subscription());
+        if (done) {
+            terminate();
+        }
+    }
+
+    @Override
+    public void responseReceived(HttpResponse response) throws IOException {
+        if (maxResponseSize > 0 && response.getEntity() != null && response.getEntity().getContentLength() > maxResponseSize) {
+            throw LimitedInputStream.tooLong(maxResponseSize);
+        }
+        unirest.HttpResponse<BodyFlow.Publisher<ByteBuffer>> head =
+                timer.transform(raw -> new StreamedResponse(raw, this, this::abort), new ApacheResponse(response));
+        if (!callback.complete(head)) {
+            abort();
+        }
+    }
+
+    @Override
+    public void consumeContent(ContentDecoder decoder, IOControl control) throws IOException {
+        this.ioctrl = control;
+        while (demand.get() > 0 && !cancelled) {
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            int read = decoder.read(chunk);
+            if (read <= 0) {
+                return;
+            }
+            received += read;
+            if (maxResponseSize > 0 && received > maxResponseSize) {
+                throw LimitedInputStream.tooLong(maxResponseSize);
+            }
+            chunk.flip();
+            demand.decrementAndGet();
+            subscriber.onNext(chunk);
+        }
+        if (decoder.read(EMPTY) < 0 || decoder.isCompleted()) {
+            // an empty read lets the end of the body be seen without taking any of it, so completion needs no demand
+            return;
+        }
+        control.suspendInput();
+        if (demand.get() > 0) {
+            control.requestInput();
+        }
+    }
+
+    @Override
+    public void responseCompleted(HttpContext context) {
+        done = true;
+        terminate();
+    }
+
+    @Override
+    public void failed(Exception ex) {
+        exception = ex;
+        done = true;
+        callback.completeExceptionally(ex);
+        terminate();
+    }
+
+    /**
+     * Stop reading the body and abort the exchange without telling the subscriber.
+     */
+    void abort() {
+        cancelled = true;
+        Future<?> f = exchange;
+        if (f != null) {
+            f.cancel(true);
+        }
+    }
+
+    private void terminate() {
+        BodyFlow.Subscriber<? super ByteBuffer> s = subscriber;
+        if (s == null || cancelled || !terminated.compareAndSet(false, true)) {
+            return;
+        }
+        if (exception != null) {
+            s.onError(exception);
+        } else {
+            s.onComplete();
+        }
+    }
+
+    @Override
+    public Exception getException() {
+        return exception;
+    }
+
+    @Override
+    public Void getResult() {
+        return null;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    @Override
+    public void close() {
+        done = true;
+    }
+
+    @Override
+    public boolean cancel() {
+        done = true;
+        return true;
+    }
+
+    private class Subscription implements BodyFlow.Subscription {
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                BodyFlow.Subscriber<? super ByteBuffer> s = subscriber;
+                if (s != null && terminated.compareAndSet(false, true)) {
+                    s.onError(new IllegalArgumentException("Demand must be positive but was " + n));
+                }
+                return;
+            }
+            demand.accumulateAndGet(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            IOControl control = ioctrl;
+            if (control != null) {
+                control.requestInput();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            abort();
+        }
+    }
+}
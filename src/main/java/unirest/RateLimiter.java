@@ -0,0 +1,119 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpHost;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per host rate limits. Each host gets a bucket implemented as a GCRA (generic cell rate algorithm),
+ * which is a token bucket that only needs to remember a single timestamp, so a permit is taken with one compare and set.
+ *
+ * Permits are reserved rather than polled. Reserving one tells the caller how long to wait before sending,
+ * which lets sync requests sleep and async requests be scheduled for later without holding a thread.
+ */
+final class RateLimiter {
+    private final Map<HttpHost, Bucket> buckets = new ConcurrentHashMap<>();
+
+    void limit(String host, double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new UnirestConfigException("A rate limit needs a positive rate and a burst of at least 1");
+        }
+        buckets.put(normalize(HttpHost.create(host)), new Bucket(permitsPerSecond, burst));
+    }
+
+    void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * Reserve a permit for the host of the url.
+     *
+     * @param url the request url
+     * @param maxWait the longest the caller is willing to wait, in nanoseconds
+     * @return how long to wait before sending in nanoseconds, or -1 if the host has no limit
+     * @throws RateLimitExceededException if the permit would not be available within maxWait
+     */
+    long reserve(Path url, long maxWait) {
+        if (buckets.isEmpty()) {
+            return -1;
+        }
+        String host = CircuitBreaker.host(url.toString());
+        Bucket bucket = buckets.get(normalize(HttpHost.create(host)));
+        if (bucket == null) {
+            return -1;
+        }
+        long wait = bucket.reserve(System.nanoTime(), maxWait);
+        if (wait < 0) {
+            throw new RateLimitExceededException(host, TimeUnit.NANOSECONDS.toMillis(maxWait));
+        }
+        return wait;
+    }
+
+    private static HttpHost normalize(HttpHost host) {
+        if (host.getPort() >= 0) {
+            return host;
+        }
+        int port = "https".equalsIgnoreCase(host.getSchemeName()) ? 443 : 80;
+        return new HttpHost(host.getHostName(), port, host.getSchemeName());
+    }
+
+    static final class Bucket {
+        private final long interval;
+        private final long tolerance;
+        private final AtomicLong theoreticalArrival;
+
+        Bucket(double permitsPerSecond, int burst) {
+            this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.tolerance = interval * (burst - 1);
+            this.theoreticalArrival = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * @param now the current System.nanoTime()
+         * @param maxWait the longest wait that should be accepted
+         * @return the wait in nanoseconds, or -1 if it would be longer than maxWait, in which case no permit is taken
+         */
+        long reserve(long now, long maxWait) {
+            while (true) {
+                long tat = theoreticalArrival.get();
+                long wait = Math.max(0, tat - tolerance - now);
+                if (wait > maxWait) {
+                    return -1;
+                }
+                long next = (tat - now > 0 ? tat : now) + interval;
+                if (theoreticalArrival.compareAndSet(tat, next)) {
+                    return wait;
+                }
+            }
+        }
+    }
+}
@@ -37,4 +37,12 @@ public interface RequestBodyEntity extends HttpRequest<RequestBodyEntity>, Body
 
     RequestBodyEntity charset(Charset charset);
 
+    /**
+     * Compress the body as it is sent, if it is at least as long as Unirest.config().compressionThreshold(...)
+     *
+     * @param encoding "gzip" or "deflate"
+     * @return this request
+     */
+    RequestBodyEntity compress(String encoding);
+
 }
@@ -0,0 +1,200 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpUriRequest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Lets identical GET and HEAD requests that are in flight at the same time share one exchange.
+ * The first request for a key is the leader and goes to the server. Anything that arrives with the same key
+ * before it finishes follows it and gets its own view of the leader's buffered response. Range requests are never shared,
+ * as a follower could end up with a different part of the body than it asked for.
+ * A request that is cancelled only leaves its flight; the exchange is aborted once nobody is waiting on it any more.
+ */
+class RequestCoalescer {
+    private final String[] keyHeaders;
+    private final Map<String, Shared> inFlight = new ConcurrentHashMap<>();
+
+    RequestCoalescer(String... keyHeaders) {
+        this.keyHeaders = keyHeaders.clone();
+    }
+
+    static Flight join(Config config, HttpUriRequest request) {
+        return config.getCoalescer()
+                .map(c -> c.flightFor(request))
+                .orElse(Flight.NONE);
+    }
+
+    private Flight flightFor(HttpUriRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method) || request.containsHeader(HttpHeaders.RANGE)) {
+            return Flight.NONE;
+        }
+        String key = key(request);
+        Shared flight = new Shared();
+        while (true) {
+            Shared existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return new Flight(this, key, flight);
+            }
+            if (existing.waiting.getAndUpdate(n -> n > 0 ? n + 1 : n) > 0) {
+                return new Flight(null, key, existing);
+            }
+            // everyone waiting on it has left, so its exchange is being aborted
+            inFlight.remove(key, existing);
+        }
+    }
+
+    private String key(HttpUriRequest request) {
+        StringBuilder key = new StringBuilder(request.getMethod()).append(' ').append(request.getURI());
+        for (String name : keyHeaders) {
+            String values = Arrays.stream(request.getHeaders(name))
+                    .map(Header::getValue)
+                    .collect(Collectors.joining(","));
+            key.append('\n').append(name.toLowerCase()).append(':').append(values);
+        }
+        return key.toString();
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static class Shared {
+        private final CompletableFuture<RawResponse> result = new CompletableFuture<>();
+        private final AtomicInteger waiting = new AtomicInteger(1);
+        private volatile Future<?> exchange;
+    }
+
+    static class Flight {
+        static final Flight NONE = new Flight(null, null, null);
+
+        private final RequestCoalescer owner;
+        private final String key;
+        private final Shared shared;
+
+        private Flight(RequestCoalescer owner, String key, Shared shared) {
+            this.owner = owner;
+            this.key = key;
+            this.shared = shared;
+        }
+
+        /**
+         * @return true if this request should go to the server
+         */
+        boolean isLeader() {
+            return shared == null || owner != null;
+        }
+
+        /**
+         * Keep hold of the leader's exchange, so the last request to leave the flight can abort it
+         */
+        void sending(Future<?> exchange) {
+            if (shared != null) {
+                shared.exchange = exchange;
+            }
+        }
+
+        /**
+         * Stop waiting on the flight, as the request was cancelled.
+         * The exchange keeps going for the requests that are still waiting and is aborted once the last one leaves.
+         * @return true if nobody else was waiting, so the exchange should be aborted
+         */
+        boolean leave() {
+            if (shared == null) {
+                return true;
+            }
+            if (shared.waiting.decrementAndGet() > 0) {
+                return false;
+            }
+            Future<?> exchange = shared.exchange;
+            if (exchange != null) {
+                exchange.cancel(true);
+            }
+            return true;
+        }
+
+        /**
+         * Hand the leader's response to every follower. If it can't be read the followers fail with the same exception.
+         * @return a buffered copy of the response which the leader should use in place of the original
+         */
+        RawResponse complete(Supplier<RawResponse> response) {
+            if (owner == null) {
+                return response.get();
+            }
+            RawResponse buffered;
+            try {
+                buffered = BufferedResponse.of(response.get());
+            } catch (RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+            owner.inFlight.remove(key, shared);
+            shared.result.complete(buffered);
+            return buffered;
+        }
+
+        void fail(Throwable e) {
+            if (owner != null) {
+                owner.inFlight.remove(key, shared);
+                shared.result.completeExceptionally(e);
+            }
+        }
+
+        /**
+         * @return the leader's response once it arrives
+         */
+        CompletableFuture<RawResponse> result() {
+            return shared.result;
+        }
+
+        /**
+         * Block until the leader's response arrives
+         */
+        RawResponse await() {
+            try {
+                return shared.result.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof UnirestException
+                        ? (UnirestException) e.getCause()
+                        : new UnirestException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.Optional;
+
+/**
+ * Settings for a single request, given to it with HttpRequest::options.
+ * Anything left unset here falls back to the config.
+ * <pre>{@code
+ * Unirest.get("http://some.place/big")
+ *         .options(new RequestOptions()
+ *                 .retryPolicy(new RetryPolicy().maxAttempts(3))
+ *                 .maxResponseSize(10 * 1024 * 1024))
+ *         .asString();
+ * }</pre>
+ */
+public final class RequestOptions {
+    private Optional<RetryPolicy> retryPolicy = Optional.empty();
+    private Optional<Long> maxResponseSize = Optional.empty();
+    private boolean resumeDownloads;
+    private int downloadSegments = 1;
+
+    /**
+     * Retry the request according to this policy rather than the one in the config.
+     *
+     * @param policy the retry policy. Use new RetryPolicy().maxAttempts(1) to never retry
+     * @return these options
+     */
+    public RequestOptions retryPolicy(RetryPolicy policy) {
+        this.retryPolicy = Optional.of(policy);
+        return this;
+    }
+
+    /**
+     * The largest response body, in bytes, that will be read for the request.
+     * Reading fails with a ContentTooLongException as soon as the Content-Length or the bytes read exceed it.
+     * This overrides the limit in the config. Zero means no limit.
+     *
+     * @param bytes the maximum number of bytes
+     * @return these options
+     */
+    public RequestOptions maxResponseSize(long bytes) {
+        this.maxResponseSize = Optional.of(bytes);
+        return this;
+    }
+
+    /**
+     * Have asFile and asFileAsync pick up where an earlier attempt left off.
+     * The download is kept in path + ".part" until it is complete. If that file exists the request asks for the rest
+     * with a Range header and a 206 is appended to it, while a 200 starts it over. Any other response leaves it alone
+     * and has a null body.
+     *
+     * @param resume true to resume downloads
+     * @return these options
+     */
+    public RequestOptions resumeDownloads(boolean resume) {
+        this.resumeDownloads = resume;
+        return this;
+    }
+
+    /**
+     * Have asFile and asFileAsync download the file as several byte ranges at once over the async connection pool.
+     * A HEAD request finds the size of the file. If the server sends Accept-Ranges: bytes the file is split into up to
+     * this many segments, of at least a megabyte each, which are fetched concurrently and written straight into place.
+     * A failed segment is retried on its own according to the retry policy. Otherwise this is a single download.
+     * The response has the status and headers of the HEAD request. A parallel download is never resumed.
+     *
+     * @param segments the most ranges to fetch at once. Defaults to 1, a single download
+     * @return these options
+     */
+    public RequestOptions downloadSegments(int segments) {
+        if (segments < 1) {
+            throw new UnirestConfigException("A download needs at least one segment");
+        }
+        this.downloadSegments = segments;
+        return this;
+    }
+
+    Optional<RetryPolicy> getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    Optional<Long> getMaxResponseSize() {
+        return maxResponseSize;
+    }
+
+    boolean resumesDownloads() {
+        return resumeDownloads;
+    }
+
+    int getDownloadSegments() {
+        return downloadSegments;
+    }
+
+    RequestOptions copy() {
+        RequestOptions copy = new RequestOptions();
+        copy.retryPolicy = retryPolicy;
+        copy.maxResponseSize = maxResponseSize;
+        copy.resumeDownloads = resumeDownloads;
+        copy.downloadSegments = downloadSegments;
+        return copy;
+    }
+}
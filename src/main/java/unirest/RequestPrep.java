@@ -26,11 +26,11 @@
 
 package unirest;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.*;
-import org.apache.http.nio.entity.NByteArrayEntity;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -45,6 +45,7 @@ class RequestPrep {
     private static final String USER_AGENT = "unirest-java/3.0.00";
     private static final Map<HttpMethod, Function<String, HttpRequestBase>> FACTORIES;
     private final HttpRequest request;
+    private final ContentDecoders decoders;
     private final boolean async;
 
     static {
@@ -58,8 +59,9 @@ class RequestPrep {
         FACTORIES.put(HEAD, HttpHead::new);
     }
 
-    RequestPrep(HttpRequest request, boolean async){
+    RequestPrep(HttpRequest request, ContentDecoders decoders, boolean async){
         this.request = request;
+        this.decoders = decoders;
         this.async = async;
     }
 
@@ -76,7 +78,7 @@ class RequestPrep {
             request.header(USER_AGENT_HEADER, USER_AGENT);
         }
         if (!request.getHeaders().containsKey(ACCEPT_ENCODING_HEADER)) {
-            request.header(ACCEPT_ENCODING_HEADER, "gzip");
+            request.header(ACCEPT_ENCODING_HEADER, decoders.getAcceptEncoding());
         }
 
         try {
@@ -96,18 +98,37 @@ class RequestPrep {
                     if (reqObj.getHeaders(CONTENT_TYPE) == null || reqObj.getHeaders(CONTENT_TYPE).length == 0) {
                         reqObj.setHeader(entity.getContentType());
                     }
-                    try {
-                        ByteArrayOutputStream output = new ByteArrayOutputStream();
-                        entity.writeTo(output);
-                        NByteArrayEntity en = new NByteArrayEntity(output.toByteArray());
-                        ((HttpEntityEnclosingRequestBase) reqObj).setEntity(en);
-                    } catch (IOException e) {
-                        throw new UnirestException(e);
-                    }
+                    ((HttpEntityEnclosingRequestBase) reqObj).setEntity(toAsyncEntity(entity));
                 } else {
                     ((HttpEntityEnclosingRequestBase) reqObj).setEntity(entity);
                 }
             }
         }
     }
+
+    /**
+     * The async client streams any entity that can give it an InputStream (strings, bytes, forms) on its own.
+     * Multipart entities can't do that so they are streamed part by part instead of being copied into memory.
+     * Compressed entities can't either, so whichever of those the uncompressed body would be is compressed as it is produced.
+     */
+    private HttpEntity toAsyncEntity(HttpEntity entity) {
+        if (entity instanceof CompressingEntity) {
+            CompressingEntity compressing = (CompressingEntity) entity;
+            return compressing.toAsync(toAsyncEntity(compressing.getWrappedEntity()));
+        }
+        if (entity instanceof HttpAsyncContentProducer || !isMultipart(entity.getContentType())) {
+            return entity;
+        }
+        try {
+            return new StreamingAsyncEntity(entity);
+        } catch (IOException e) {
+            throw new UnirestException(e);
+        }
+    }
+
+    private boolean isMultipart(Header contentType) {
+        return contentType != null
+                && contentType.getValue() != null
+                && contentType.getValue().toLowerCase().startsWith("multipart/");
+    }
 }
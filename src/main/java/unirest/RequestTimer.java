@@ -0,0 +1,194 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.protocol.HttpContext;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static unirest.MetricsListener.Phase.*;
+
+/**
+ * Collects the timings for a single request and reports them to the config's MetricsListener.
+ * The clients find the timer through the HttpContext. When no listener is configured a shared
+ * no-op instance is used so un-instrumented requests do not allocate anything extra.
+ */
+class RequestTimer {
+    static final String CONTEXT_KEY = "unirest.request.timer";
+    private static final RequestTimer NOOP = new RequestTimer(null, null, null);
+
+    private final MetricsListener listener;
+    private final HttpMethod method;
+    private final String route;
+    private final long start;
+    private long connectNanos;
+    private long tlsNanos;
+    private long readyAt;
+    private long firstByteAt;
+    private long bodyNanos;
+    private boolean deferred;
+
+    private RequestTimer(MetricsListener listener, HttpMethod method, String route) {
+        this.listener = listener;
+        this.method = method;
+        this.route = route;
+        this.start = listener == null ? 0 : System.nanoTime();
+    }
+
+    static RequestTimer start(Config config, HttpMethod method, String route) {
+        return config.getMetrics()
+                .map(m -> new RequestTimer(m, method, route))
+                .orElse(NOOP);
+    }
+
+    static RequestTimer from(HttpContext context) {
+        Object timer = context == null ? null : context.getAttribute(CONTEXT_KEY);
+        if (timer instanceof RequestTimer) {
+            return (RequestTimer) timer;
+        }
+        return NOOP;
+    }
+
+    /**
+     * @return the timer of a response handed to a transformer, or the no-op one if it isn't being timed
+     */
+    static RequestTimer from(RawResponse response) {
+        if (response instanceof TimedRawResponse) {
+            return ((TimedRawResponse) response).getTimer();
+        }
+        return NOOP;
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    /**
+     * Time spent opening a connection, including any TLS handshake
+     */
+    void connected(long nanos) {
+        if (isEnabled()) {
+            connectNanos += nanos;
+        }
+    }
+
+    void handshake(long nanos) {
+        if (isEnabled()) {
+            tlsNanos += nanos;
+        }
+    }
+
+    /**
+     * The connection is ready and the request is being sent
+     */
+    void ready() {
+        if (isEnabled()) {
+            readyAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * The response headers have arrived
+     */
+    void firstByte() {
+        if (isEnabled()) {
+            firstByteAt = System.nanoTime();
+        }
+    }
+
+    void bodyRead(long nanos) {
+        if (isEnabled()) {
+            bodyNanos += nanos;
+        }
+    }
+
+    /**
+     * Time a body that is parsed the first time it is asked for. DESERIALIZE is reported when the parse runs,
+     * rather than for the transform, and not at all if nothing ever asks for the body.
+     */
+    <T> Supplier<T> deserializing(Supplier<T> parser) {
+        if (!isEnabled()) {
+            return parser;
+        }
+        deferred = true;
+        return () -> {
+            long begin = System.nanoTime();
+            try {
+                return parser.get();
+            } finally {
+                report(DESERIALIZE, System.nanoTime() - begin);
+            }
+        };
+    }
+
+    RawResponse wrap(RawResponse response) {
+        if (!isEnabled()) {
+            return response;
+        }
+        return new TimedRawResponse(response, this);
+    }
+
+    <T> HttpResponse<T> transform(Function<RawResponse, HttpResponse<T>> transformer, RawResponse response) {
+        if (!isEnabled()) {
+            return transformer.apply(response);
+        }
+        long readBefore = bodyNanos;
+        long begin = System.nanoTime();
+        HttpResponse<T> result = transformer.apply(wrap(response));
+        long transform = System.nanoTime() - begin;
+        reportExchange();
+        report(BODY_READ, bodyNanos);
+        if (!deferred) {
+            report(DESERIALIZE, transform - (bodyNanos - readBefore));
+        }
+        listener.onComplete(method, route, response.getStatus(), System.nanoTime() - start);
+        return result;
+    }
+
+    void failed(Exception e) {
+        if (isEnabled()) {
+            listener.onError(method, route, e, System.nanoTime() - start);
+        }
+    }
+
+    private void reportExchange() {
+        if (readyAt == 0 || firstByteAt == 0) {
+            return;
+        }
+        report(LEASE, readyAt - start - connectNanos);
+        report(CONNECT, connectNanos - tlsNanos);
+        report(TLS, tlsNanos);
+        report(FIRST_BYTE, firstByteAt - readyAt);
+    }
+
+    private void report(MetricsListener.Phase phase, long nanos) {
+        if (nanos > 0) {
+            listener.onPhase(method, route, phase, nanos);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+/**
+ * A store for cacheable GET responses. Fresh responses are served without going to the network
+ * and stale ones are revalidated with If-None-Match / If-Modified-Since, following RFC 7234 for a private cache.
+ *
+ * <pre>{@code
+ * Unirest.config().cache(ResponseCache.inMemory(1000, 50 * 1024 * 1024));
+ * }</pre>
+ */
+public abstract class ResponseCache {
+
+    ResponseCache() {
+    }
+
+    /**
+     * A least recently used cache held in memory.
+     * @param maxEntries the maximum number of responses to keep
+     * @param maxBytes the maximum total size of the responses kept, bodies and headers included
+     * @return a new in memory cache
+     */
+    public static ResponseCache inMemory(int maxEntries, long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new UnirestConfigException("The cache must allow at least one entry and one byte");
+        }
+        return new MemoryResponseCache(maxEntries, maxBytes);
+    }
+
+    /**
+     * A least recently used cache kept in a directory, so it survives restarts.
+     * Anything already in the directory is loaded when the cache is created.
+     * Cached bodies are streamed from disk, so asFile and asBinary never load them onto the heap.
+     * @param dir the directory to keep responses in. It is created if it doesn't exist and should not be shared with anything else
+     * @param maxBytes the maximum total size of the responses kept, bodies and headers included
+     * @return a new disk backed cache
+     */
+    public static ResponseCache onDisk(Path dir, long maxBytes) {
+        if (maxBytes < 1) {
+            throw new UnirestConfigException("The cache must allow at least one byte");
+        }
+        return new DiskResponseCache(dir, maxBytes);
+    }
+
+    /**
+     * Remove every entry from the cache
+     */
+    public abstract void clear();
+
+    /**
+     * @return the number of responses currently held
+     */
+    public abstract int size();
+
+    /**
+     * @return the total size of the responses currently held
+     */
+    public abstract long byteSize();
+
+    /**
+     * @param url the method and url of the request
+     * @param matches whether a stored response can answer the request, going by its Vary header
+     * @return a stored response for the url that matches, or null if there isn't one
+     */
+    abstract CacheEntry get(String url, Predicate<CacheEntry> matches);
+
+    /**
+     * Read the body of a response into the cache
+     * @param key the method and url of the request along with the values of the headers named by Vary
+     * @param entry the entry to store, without its body
+     * @return the stored entry, which may be returned even if it was too big to keep
+     */
+    abstract CacheEntry store(String key, CacheEntry entry, RawResponse response);
+
+    /**
+     * Replace the headers of an entry after it has been revalidated. The body is unchanged.
+     */
+    abstract void update(String key, CacheEntry entry);
+
+    /**
+     * Remove every response stored for the url, whatever it varied on
+     * @param url the method and url
+     */
+    abstract void remove(String url);
+
+    /**
+     * @param size the size of a response
+     * @return true if a response this big could be stored at all
+     */
+    abstract boolean fits(long size);
+}
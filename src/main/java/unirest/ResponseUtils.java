@@ -26,6 +26,10 @@
 
 package unirest;
 
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,6 +46,18 @@ class ResponseUtils {
         return "UTF-8";
     }
 
+    static Charset getCharset(RawResponse response) {
+        String name = getCharSet(response);
+        if ("UTF-8".equals(name)) {
+            return StandardCharsets.UTF_8;
+        }
+        try {
+            return Charset.forName(name);
+        } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+            throw new UnirestException(e);
+        }
+    }
+
     /**
      * Parse out a charset from a content type header.
      *
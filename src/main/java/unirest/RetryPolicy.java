@@ -0,0 +1,234 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Decides which failed requests are sent again and how long to wait first.
+ * Set one for every request with Config::retryPolicy or for a single request with HttpRequest::retryPolicy.
+ * <pre>{@code
+ * Unirest.config().retryPolicy(new RetryPolicy()
+ *         .maxAttempts(4)
+ *         .backoff(100, 5000)
+ *         .retryOnStatus(429, 502, 503, 504)
+ *         .budget(0.1, 20));
+ * }</pre>
+ *
+ * By default a request is tried up to 3 times when it fails to connect, times out or gets a 502, 503 or 504,
+ * but only for idempotent methods (GET, HEAD, OPTIONS, PUT and DELETE).
+ * The wait before each retry is picked at random between zero and an exponentially growing cap ("full jitter")
+ * so that clients which failed together don't all come back together.
+ * A Retry-After header on a 429 or 503 is honored as long as it is no longer than the maximum delay.
+ * Requests with a body that can't be sent twice, such as an InputStream, are never retried.
+ */
+public final class RetryPolicy {
+    private int maxAttempts = 3;
+    private long baseDelay = 100;
+    private long maxDelay = 10_000;
+    private Set<Integer> statuses = new HashSet<>(Arrays.asList(502, 503, 504));
+    private Set<HttpMethod> methods = EnumSet.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE);
+    private List<Class<? extends Throwable>> exceptions = Arrays.asList(
+            ConnectException.class, ConnectTimeoutException.class, SocketTimeoutException.class,
+            NoHttpResponseException.class, ConnectionClosedException.class, SocketException.class);
+    private TokenBudget budget;
+
+    /**
+     * @param attempts the most times a request is sent, including the first. 1 means never retry
+     * @return this policy
+     */
+    public RetryPolicy maxAttempts(int attempts) {
+        if (attempts < 1) {
+            throw new UnirestConfigException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = attempts;
+        return this;
+    }
+
+    /**
+     * The cap on the delay doubles with every retry, starting at the base delay, until it reaches the max delay.
+     * @param baseDelay the cap on the wait before the first retry, in milliseconds
+     * @param maxDelay the longest wait before any retry, in milliseconds
+     * @return this policy
+     */
+    public RetryPolicy backoff(long baseDelay, long maxDelay) {
+        if (baseDelay < 0 || maxDelay < baseDelay) {
+            throw new UnirestConfigException("backoff delays must be positive and the max must not be less than the base");
+        }
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        return this;
+    }
+
+    /**
+     * @param statuses the response statuses to retry. This replaces the defaults
+     * @return this policy
+     */
+    public RetryPolicy retryOnStatus(int... statuses) {
+        this.statuses = new HashSet<>();
+        for (int status : statuses) {
+            this.statuses.add(status);
+        }
+        return this;
+    }
+
+    /**
+     * @param exceptions the exceptions to retry. A failure is retried if it or any of its causes is one of these. This replaces the defaults
+     * @return this policy
+     */
+    @SafeVarargs
+    public final RetryPolicy retryOn(Class<? extends Throwable>... exceptions) {
+        List<Class<? extends Throwable>> retried = new ArrayList<>(exceptions.length);
+        for (Class<? extends Throwable> e : exceptions) {
+            retried.add(e);
+        }
+        this.exceptions = retried;
+        return this;
+    }
+
+    /**
+     * @param methods the methods which are safe to retry. This replaces the idempotent defaults
+     * @return this policy
+     */
+    public RetryPolicy retryMethods(HttpMethod... methods) {
+        this.methods = methods.length == 0 ? EnumSet.noneOf(HttpMethod.class) : EnumSet.copyOf(Arrays.asList(methods));
+        return this;
+    }
+
+    /**
+     * Limit retries to a share of the requests made with this policy, so that during an outage retries can't add
+     * more than that much load. Each request adds the ratio to a token bucket and each retry takes a whole token.
+     * The bucket starts full, and it is shared by every request using this policy.
+     * @param ratio the fraction of requests which may be retried, e.g. 0.1 for 10%
+     * @param maxTokens the most retries that can be saved up, which allows short bursts of retries
+     * @return this policy
+     */
+    public RetryPolicy budget(double ratio, int maxTokens) {
+        if (ratio < 0 || maxTokens < 1) {
+            throw new UnirestConfigException("The budget ratio must not be negative and it must allow at least one token");
+        }
+        this.budget = new TokenBudget(ratio, maxTokens);
+        return this;
+    }
+
+    Attempts start(HttpMethod method, BooleanSupplier replayable) {
+        if (budget != null) {
+            budget.deposit();
+        }
+        return new Attempts(method, replayable);
+    }
+
+    private long backoff(int retry) {
+        long cap = Math.min(maxDelay, baseDelay << Math.min(retry, 30));
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private boolean isRetryable(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            for (Class<? extends Throwable> type : exceptions) {
+                if (type.isInstance(t)) {
+                    return true;
+                }
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the delay asked for in a Retry-After header, 0 if there isn't one or -1 if it is too long
+     */
+    private long retryAfter(HttpResponse<?> response) {
+        if (response.getStatus() != 429 && response.getStatus() != 503) {
+            return 0;
+        }
+        String value = response.getHeaders().getFirst("Retry-After");
+        if (value == null) {
+            return 0;
+        }
+        long delay;
+        try {
+            delay = Long.parseLong(value.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value);
+            delay = date == null ? 0 : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+        return delay > maxDelay ? -1 : delay;
+    }
+
+    /**
+     * The retry state of a single request
+     */
+    class Attempts {
+        private final HttpMethod method;
+        private final BooleanSupplier replayable;
+        private int attempt = 1;
+
+        Attempts(HttpMethod method, BooleanSupplier replayable) {
+            this.method = method;
+            this.replayable = replayable;
+        }
+
+        /**
+         * Call after each attempt with either its response or its failure.
+         * @return how many milliseconds to wait before trying again, or -1 if the request should not be retried
+         */
+        long nextDelay(HttpResponse<?> response, Throwable error) {
+            if (attempt >= maxAttempts || !methods.contains(method)) {
+                return -1;
+            }
+            long minimum = 0;
+            if (response != null) {
+                minimum = statuses.contains(response.getStatus()) ? retryAfter(response) : -1;
+            } else if (!isRetryable(error)) {
+                minimum = -1;
+            }
+            if (minimum < 0 || !replayable.getAsBoolean() || (budget != null && !budget.withdraw())) {
+                return -1;
+            }
+            return Math.max(minimum, backoff(attempt++ - 1));
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.HttpAsyncContentProducer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feeds a blocking HttpEntity to the async client without buffering the whole thing.
+ * The entity is written once into a SegmentCollector which keeps the small parts (boundaries, headers, fields)
+ * as bytes while file and stream parts are deferred and only read when the reactor asks for more content.
+ */
+class StreamingAsyncEntity extends AbstractHttpEntity implements HttpAsyncContentProducer {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final HttpEntity entity;
+    private final List<Segment> segments;
+    private int current;
+
+    StreamingAsyncEntity(HttpEntity entity) throws IOException {
+        this.entity = entity;
+        SegmentCollector collector = new SegmentCollector();
+        entity.writeTo(collector);
+        this.segments = collector.finish();
+        setContentType(entity.getContentType());
+        setContentEncoding(entity.getContentEncoding());
+        setChunked(entity.getContentLength() < 0);
+    }
+
+    @Override
+    public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+        while (current < segments.size()) {
+            if (!segments.get(current).produce(encoder)) {
+                return;
+            }
+            current++;
+        }
+        encoder.complete();
+    }
+
+    @Override
+    public void close() throws IOException {
+        current = 0;
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return entity.isRepeatable();
+    }
+
+    @Override
+    public long getContentLength() {
+        return entity.getContentLength();
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+        return entity.getContent();
+    }
+
+    @Override
+    public void writeTo(OutputStream outstream) throws IOException {
+        entity.writeTo(outstream);
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    interface Segment {
+        /**
+         * Write as much as the encoder will take.
+         * @return true once the segment has been completely written
+         */
+        boolean produce(ContentEncoder encoder) throws IOException;
+
+        void close() throws IOException;
+    }
+
+    static class SegmentCollector extends OutputStream {
+        private final List<Segment> segments = new ArrayList<>();
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.write(b, off, len);
+        }
+
+        void defer(File file) {
+            add(new FileSegment(file));
+        }
+
+        void defer(InputStream stream) {
+            add(new StreamSegment(stream));
+        }
+
+        private void add(Segment segment) {
+            flushBuffer();
+            segments.add(segment);
+        }
+
+        private void flushBuffer() {
+            if (buffer.size() > 0) {
+                segments.add(new BytesSegment(buffer.toByteArray()));
+                buffer = new ByteArrayOutputStream();
+            }
+        }
+
+        List<Segment> finish() {
+            flushBuffer();
+            return segments;
+        }
+    }
+
+    private static class BytesSegment implements Segment {
+        private final ByteBuffer bytes;
+
+        BytesSegment(byte[] bytes) {
+            this.bytes = ByteBuffer.wrap(bytes);
+        }
+
+        @Override
+        public boolean produce(ContentEncoder encoder) throws IOException {
+            encoder.write(bytes);
+            return !bytes.hasRemaining();
+        }
+
+        @Override
+        public void close() {
+            bytes.clear();
+        }
+    }
+
+    private static class FileSegment implements Segment {
+        private final File file;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+        private long position;
+
+        FileSegment(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public boolean produce(ContentEncoder encoder) throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            }
+            if (encoder instanceof FileContentEncoder) {
+                return transfer((FileContentEncoder) encoder);
+            }
+            return copy(encoder);
+        }
+
+        private boolean transfer(FileContentEncoder encoder) throws IOException {
+            long size = channel.size();
+            while (position < size) {
+                long written = encoder.transfer(channel, position, size - position);
+                if (written <= 0) {
+                    return false;
+                }
+                position += written;
+            }
+            return true;
+        }
+
+        private boolean copy(ContentEncoder encoder) throws IOException {
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(CHUNK_SIZE);
+                buffer.flip();
+            }
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    int read = channel.read(buffer, position);
+                    buffer.flip();
+                    if (read < 0) {
+                        return true;
+                    }
+                    position += read;
+                }
+                if (encoder.write(buffer) == 0 && buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            position = 0;
+            buffer = null;
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+    }
+
+    private static class StreamSegment implements Segment {
+        private final InputStream stream;
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+
+        StreamSegment(InputStream stream) {
+            this.stream = stream;
+            this.channel = Channels.newChannel(stream);
+            buffer.flip();
+        }
+
+        @Override
+        public boolean produce(ContentEncoder encoder) throws IOException {
+            while (true) {
+                if (!buffer.hasRemaining()) {
+                    buffer.clear();
+                    int read = channel.read(buffer);
+                    buffer.flip();
+                    if (read < 0) {
+                        return true;
+                    }
+                }
+                if (encoder.write(buffer) == 0 && buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            stream.close();
+        }
+    }
+}
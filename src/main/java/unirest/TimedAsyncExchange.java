@@ -0,0 +1,182 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+
+/**
+ * The async client doesn't expose its connection manager per request so instead the request producer and
+ * response consumer are wrapped. The request is considered ready once the client starts writing it to a connection
+ * which means the LEASE phase includes connect and TLS for new connections.
+ * A buffering consumer reads the body as it arrives so that time is counted as BODY_READ.
+ */
+class TimedAsyncExchange<T> {
+    private final RequestTimer timer;
+    private final HttpAsyncRequestProducer producer;
+    private final HttpAsyncResponseConsumer<T> consumer;
+    private boolean sending;
+
+    TimedAsyncExchange(HttpAsyncRequestProducer producer, HttpAsyncResponseConsumer<T> consumer, RequestTimer timer) {
+        this.timer = timer;
+        this.producer = new Producer(producer);
+        this.consumer = new Consumer(consumer);
+    }
+
+    HttpAsyncRequestProducer getProducer() {
+        return producer;
+    }
+
+    HttpAsyncResponseConsumer<T> getConsumer() {
+        return consumer;
+    }
+
+    private void markReady() {
+        if (!sending) {
+            sending = true;
+            timer.ready();
+        }
+    }
+
+    private class Producer implements HttpAsyncRequestProducer {
+        private final HttpAsyncRequestProducer delegate;
+
+        Producer(HttpAsyncRequestProducer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpHost getTarget() {
+            return delegate.getTarget();
+        }
+
+        @Override
+        public HttpRequest generateRequest() throws IOException, HttpException {
+            return delegate.generateRequest();
+        }
+
+        @Override
+        public void produceContent(ContentEncoder encoder, IOControl ioctrl) throws IOException {
+            markReady();
+            delegate.produceContent(encoder, ioctrl);
+        }
+
+        @Override
+        public void requestCompleted(HttpContext context) {
+            markReady();
+            delegate.requestCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            delegate.failed(ex);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public void resetRequest() throws IOException {
+            sending = false;
+            delegate.resetRequest();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private class Consumer implements HttpAsyncResponseConsumer<T> {
+        private final HttpAsyncResponseConsumer<T> delegate;
+        private long receivedAt;
+
+        Consumer(HttpAsyncResponseConsumer<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void responseReceived(HttpResponse response) throws IOException, HttpException {
+            timer.firstByte();
+            receivedAt = System.nanoTime();
+            delegate.responseReceived(response);
+        }
+
+        @Override
+        public void consumeContent(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+            delegate.consumeContent(decoder, ioctrl);
+        }
+
+        @Override
+        public void responseCompleted(HttpContext context) {
+            timer.bodyRead(System.nanoTime() - receivedAt);
+            delegate.responseCompleted(context);
+        }
+
+        @Override
+        public void failed(Exception ex) {
+            delegate.failed(ex);
+        }
+
+        @Override
+        public Exception getException() {
+            return delegate.getException();
+        }
+
+        @Override
+        public T getResult() {
+            return delegate.getResult();
+        }
+
+        @Override
+        public boolean isDone() {
+            return delegate.isDone();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean cancel() {
+            return delegate.cancel();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+/**
+ * Records how long it takes to read the body of a response.
+ * Streams (getContent and getContentReader) are handed to the caller to consume
+ * so only the time to open them is recorded.
+ */
+class TimedRawResponse implements RawResponse {
+    private final RawResponse response;
+    private final RequestTimer timer;
+
+    TimedRawResponse(RawResponse response, RequestTimer timer) {
+        this.response = response;
+        this.timer = timer;
+    }
+
+    RequestTimer getTimer() {
+        return timer;
+    }
+
+    @Override
+    public int getStatus() {
+        return response.getStatus();
+    }
+
+    @Override
+    public String getStatusText() {
+        return response.getStatusText();
+    }
+
+    @Override
+    public Headers getHeaders() {
+        return response.getHeaders();
+    }
+
+    @Override
+    public InputStream getContent() {
+        long start = System.nanoTime();
+        try {
+            return response.getContent();
+        } finally {
+            timer.bodyRead(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public byte[] getContentAsBytes() {
+        long start = System.nanoTime();
+        try {
+            return response.getContentAsBytes();
+        } finally {
+            timer.bodyRead(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public String getContentAsString() {
+        long start = System.nanoTime();
+        try {
+            return response.getContentAsString();
+        } finally {
+            timer.bodyRead(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public InputStreamReader getContentReader() {
+        long start = System.nanoTime();
+        try {
+            return response.getContentReader();
+        } finally {
+            timer.bodyRead(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean hasContent() {
+        return response.hasContent();
+    }
+
+    @Override
+    public String getContentType() {
+        return response.getContentType();
+    }
+
+    @Override
+    public String getEncoding() {
+        return response.getEncoding();
+    }
+}
@@ -26,6 +26,10 @@
 
 package unirest;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 public class UnirestInstance {
 
     private final Config config;
@@ -131,6 +135,20 @@ public class UnirestInstance {
         return new HttpRequestJsonPatch(config, url);
     }
 
+    /**
+     * Send a collection of requests with bounded concurrency.
+     * By default no more than the perRoute limit from Config::concurrency are in flight at once.
+     * @param requests the requests to send
+     * @param sender how to send each request, for example HttpRequest::asJsonAsync
+     * @param <R> the type of request
+     * @param <T> the type of the response body
+     * @return a Batch which can be sent for results in order or in completion order
+     */
+    public <R extends HttpRequest<?>, T> Batch<R, T> batch(Collection<R> requests,
+                                                           Function<? super R, CompletableFuture<HttpResponse<T>>> sender) {
+        return new Batch<>(config, requests, sender);
+    }
+
     /**
      * Does the config have currently running clients? Find out here.
      *
@@ -0,0 +1,165 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A url with {placeholders} split into its literal and placeholder parts.
+ * Templates are parsed once and cached so that expanding the same route over and over
+ * is a single pass over a StringBuilder rather than a regex per parameter.
+ * The cache keeps the most recently used templates, so urls built with values in them rather than placeholders
+ * push each other out instead of filling it up. Lookups don't lock: a hit only marks the template as used,
+ * and once the cache is full the oldest templates are dropped unless they were used since they last came up.
+ */
+final class UriTemplate {
+    static final int MAX_CACHED = 1024;
+    private static final Map<String, UriTemplate> CACHE = new ConcurrentHashMap<>();
+    private static final Queue<UriTemplate> EVICTION_ORDER = new ConcurrentLinkedQueue<>();
+
+    private final String template;
+    private final String[] literals;
+    private final String[] names;
+    private final boolean hasQuery;
+    private volatile boolean used;
+
+    private UriTemplate(String template, List<String> literals, List<String> names) {
+        this.template = template;
+        this.literals = literals.toArray(new String[0]);
+        this.names = names.toArray(new String[0]);
+        this.hasQuery = template.indexOf('?') >= 0;
+    }
+
+    static UriTemplate of(String template) {
+        UriTemplate cached = CACHE.get(template);
+        if (cached != null) {
+            if (!cached.used) {
+                cached.used = true;
+            }
+            return cached;
+        }
+        UriTemplate parsed = parse(template);
+        if (parsed.names.length > 0 && CACHE.putIfAbsent(template, parsed) == null) {
+            EVICTION_ORDER.offer(parsed);
+            evict();
+        }
+        return parsed;
+    }
+
+    /**
+     * Drop the oldest templates until the cache fits, giving any that were used since they last came up another go
+     */
+    private static void evict() {
+        while (CACHE.size() > MAX_CACHED) {
+            UriTemplate eldest = EVICTION_ORDER.poll();
+            if (eldest == null) {
+                return;
+            }
+            if (eldest.used) {
+                eldest.used = false;
+                EVICTION_ORDER.offer(eldest);
+            } else {
+                CACHE.remove(eldest.template, eldest);
+            }
+        }
+    }
+
+    static UriTemplate parse(String template) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int literalStart = 0;
+        int open = template.indexOf('{');
+        while (open >= 0) {
+            int close = template.indexOf('}', open + 1);
+            if (close < 0) {
+                break;
+            }
+            int nested = template.lastIndexOf('{', close);
+            literals.add(template.substring(literalStart, nested));
+            names.add(template.substring(nested + 1, close));
+            literalStart = close + 1;
+            open = template.indexOf('{', literalStart);
+        }
+        literals.add(template.substring(literalStart));
+        return new UriTemplate(template, literals, names);
+    }
+
+    static void clearCache() {
+        CACHE.clear();
+        EVICTION_ORDER.clear();
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    boolean hasPlaceholder(String name) {
+        for (String n : names) {
+            if (n.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean hasQuery() {
+        return hasQuery;
+    }
+
+    /**
+     * Write the template to the builder, substituting any placeholders that have a value.
+     * Placeholders without a value are written back out as-is.
+     * @param values already encoded values by placeholder name
+     * @param sb the builder to append to
+     */
+    void expand(Map<String, String> values, StringBuilder sb) {
+        if (names.length == 0) {
+            sb.append(template);
+            return;
+        }
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            String value = values.get(names[i]);
+            if (value == null) {
+                sb.append('{').append(names[i]).append('}');
+            } else {
+                sb.append(value);
+            }
+        }
+        sb.append(literals[names.length]);
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
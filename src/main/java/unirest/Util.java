@@ -30,8 +30,12 @@ import org.apache.http.NameValuePair;
 import org.apache.http.message.BasicNameValuePair;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
 import java.net.URLEncoder;
 import java.util.*;
 import java.util.stream.Stream;
@@ -92,6 +96,24 @@ class Util {
         return new ByteArrayInputStream(new byte[0]);
     }
 
+    static String toString(InputStream stream) {
+        return toString(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    static String toString(Reader reader) {
+        try {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[4096];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, read);
+            }
+            return sb.toString();
+        } catch (IOException e) {
+            throw new UnirestException(e);
+        }
+    }
+
 
     @FunctionalInterface
     public interface ExConsumer<T>{
@@ -0,0 +1,86 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The keys a cache holds for each url. A response with a Vary header is stored once for every set of request header
+ * values it was sent for, so a lookup needs all of them to find the one that matches.
+ * It isn't thread safe, the caches only use it while holding their own lock.
+ */
+class VariantIndex {
+    private final Map<String, Set<String>> keys = new HashMap<>();
+
+    /**
+     * @param url the method and url of the request
+     * @param vary the values of the request headers named by the response's Vary header
+     * @return the key to store the response under
+     */
+    static String key(String url, Map<String, String> vary) {
+        if (vary.isEmpty()) {
+            return url;
+        }
+        StringBuilder key = new StringBuilder(url);
+        new TreeMap<>(vary).forEach((name, value) -> key.append('\n').append(name).append(':').append(value));
+        return key.toString();
+    }
+
+    static String url(String key) {
+        int end = key.indexOf('\n');
+        return end < 0 ? key : key.substring(0, end);
+    }
+
+    void add(String key) {
+        keys.computeIfAbsent(url(key), u -> new HashSet<>(2)).add(key);
+    }
+
+    void remove(String key) {
+        String url = url(key);
+        Set<String> variants = keys.get(url);
+        if (variants != null && variants.remove(key) && variants.isEmpty()) {
+            keys.remove(url);
+        }
+    }
+
+    /**
+     * @return a copy of the keys stored for the url, which is safe to hold on to while removing them
+     */
+    Set<String> of(String url) {
+        Set<String> variants = keys.get(url);
+        return variants == null ? Collections.emptySet() : new HashSet<>(variants);
+    }
+
+    void clear() {
+        keys.clear();
+    }
+}
@@ -27,21 +27,39 @@
 package BehaviorTests;
 
 import org.junit.Test;
+import unirest.BufferPool;
+import unirest.GetRequest;
+import unirest.HttpResponse;
 import unirest.JacksonObjectMapper;
+import unirest.RequestOptions;
+import unirest.RetryPolicy;
 import unirest.TestUtil;
 import unirest.Unirest;
+import unirest.UnirestException;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class AsFileTests extends BddTest {
 
     private Path test = Paths.get("results.json");
+    private Path partial = Paths.get("results.json.part");
     private JacksonObjectMapper om = new JacksonObjectMapper();
 
     @Override
@@ -49,6 +67,10 @@ public class AsFileTests extends BddTest {
         try {
             Files.delete(test);
         } catch (Exception e) { }
+        try {
+            Files.delete(partial);
+        } catch (Exception e) { }
+        super.tearDown();
     }
 
     @Test
@@ -111,4 +133,200 @@ public class AsFileTests extends BddTest {
 
         assertTrue(com.google.common.io.Files.equal(f1, f2));
     }
+
+    @Test
+    public void replacesAnExistingFile() throws Exception {
+        Files.write(test, "old".getBytes());
+
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", 1000)
+                .asFile(test.toString())
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, 1000), Files.readAllBytes(result.toPath()));
+    }
+
+    @Test
+    public void downloadsCanBeCopiedThroughPooledBuffers() throws Exception {
+        Unirest.config().bufferPool(BufferPool.threadLocal(64 * 1024));
+
+        for (int size : new int[]{100 * 1024, 1000}) {
+            File result = Unirest.get(MockServer.BYTES)
+                    .queryString("size", size)
+                    .asFile(test.toString())
+                    .getBody();
+
+            assertArrayEquals(MockServer.pattern(0, size), Files.readAllBytes(result.toPath()));
+        }
+    }
+
+    @Test
+    public void largeAsyncDownloadsAreWrittenAsTheyArrive() throws Exception {
+        int size = 8 * 1024 * 1024;
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", size)
+                .asFileAsync(test.toString())
+                .get(10, TimeUnit.SECONDS)
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, size), Files.readAllBytes(result.toPath()));
+    }
+
+    @Test
+    public void aFailedDownloadLeavesNothingBehind() throws Exception {
+        Files.write(test, "old".getBytes());
+        try {
+            Unirest.get(MockServer.BYTES)
+                    .queryString("size", 100000)
+                    .options(new RequestOptions().maxResponseSize(1000))
+                    .asFile(test.toString());
+            fail();
+        } catch (UnirestException e) {
+            // expected
+        }
+
+        assertEquals("old", new String(Files.readAllBytes(test)));
+        assertEquals(Collections.emptyList(), leftovers());
+    }
+
+    @Test
+    public void aFailedAsyncDownloadLeavesNothingBehind() throws Exception {
+        try {
+            Unirest.get(MockServer.BYTES)
+                    .queryString("size", 100000)
+                    .options(new RequestOptions().maxResponseSize(1000))
+                    .asFileAsync(test.toString())
+                    .get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            // expected
+        }
+
+        assertFalse(Files.exists(test));
+        assertEquals(Collections.emptyList(), leftovers());
+    }
+
+    @Test
+    public void resumesAPartialDownload() throws Exception {
+        Files.write(partial, MockServer.pattern(0, 1000));
+
+        HttpResponse<File> response = Unirest.get(MockServer.BYTES)
+                .queryString("size", 5000)
+                .options(new RequestOptions().resumeDownloads(true))
+                .asFile(test.toString());
+
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(MockServer.pattern(0, 5000), Files.readAllBytes(response.getBody().toPath()));
+        assertFalse(Files.exists(partial));
+    }
+
+    @Test
+    public void resumesAPartialDownloadAsync() throws Exception {
+        Files.write(partial, MockServer.pattern(0, 1000));
+
+        HttpResponse<File> response = Unirest.get(MockServer.BYTES)
+                .queryString("size", 5000)
+                .options(new RequestOptions().resumeDownloads(true))
+                .asFileAsync(test.toString())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(MockServer.pattern(0, 5000), Files.readAllBytes(response.getBody().toPath()));
+        assertFalse(Files.exists(partial));
+    }
+
+    @Test
+    public void theRangeIsNotKeptOnTheRequest() throws Exception {
+        Files.write(partial, MockServer.pattern(0, 1000));
+        GetRequest request = Unirest.get(MockServer.BYTES).queryString("size", 5000);
+
+        request.options(new RequestOptions().resumeDownloads(true)).asFileAsync(test.toString()).get(5, TimeUnit.SECONDS);
+
+        assertNull(request.getHeaders().getFirst("Range"));
+        assertEquals(200, request.asString().getStatus());
+    }
+
+    @Test
+    public void asyncDownloadsAreRetried() throws Exception {
+        HttpResponse<File> response = Unirest.get(MockServer.FLAKY)
+                .queryString("key", "a")
+                .queryString("fail", 2)
+                .options(new RequestOptions().retryPolicy(new RetryPolicy().backoff(1, 5)))
+                .asFileAsync(test.toString())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(3, MockServer.flakyHits("a").get());
+        assertTrue(Files.exists(test));
+    }
+
+    @Test
+    public void aPartialFileThatIsAlreadyCompleteIsFinished() throws Exception {
+        Files.write(partial, MockServer.pattern(0, 5000));
+
+        HttpResponse<File> response = Unirest.get(MockServer.BYTES)
+                .queryString("size", 5000)
+                .options(new RequestOptions().resumeDownloads(true))
+                .asFile(test.toString());
+
+        assertEquals(416, response.getStatus());
+        assertArrayEquals(MockServer.pattern(0, 5000), Files.readAllBytes(response.getBody().toPath()));
+    }
+
+    @Test
+    public void startsOverWhenTheServerIgnoresTheRange() throws Exception {
+        Files.write(partial, "not the start of it".getBytes());
+
+        HttpResponse<File> response = Unirest.get(MockServer.BYTES)
+                .queryString("size", 5000)
+                .queryString("norange", true)
+                .options(new RequestOptions().resumeDownloads(true))
+                .asFile(test.toString());
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(MockServer.pattern(0, 5000), Files.readAllBytes(response.getBody().toPath()));
+    }
+
+    @Test
+    public void errorsLeaveThePartialFileAlone() throws Exception {
+        Files.write(partial, MockServer.pattern(0, 1000));
+
+        HttpResponse<File> response = Unirest.get(MockServer.INVALID_REQUEST)
+                .options(new RequestOptions().resumeDownloads(true))
+                .asFile(test.toString());
+
+        assertEquals(400, response.getStatus());
+        assertNull(response.getBody());
+        assertArrayEquals(MockServer.pattern(0, 1000), Files.readAllBytes(partial));
+    }
+
+    @Test
+    public void anInterruptedResumableDownloadKeepsWhatItHas() throws Exception {
+        try {
+            Unirest.get(MockServer.BYTES)
+                    .queryString("size", 100000)
+                    .queryString("chunked", true)
+                    .options(new RequestOptions().maxResponseSize(50000).resumeDownloads(true))
+                    .asFile(test.toString());
+            fail();
+        } catch (UnirestException e) {
+            // expected
+        }
+        assertTrue(Files.size(partial) > 0);
+
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", 100000)
+                .options(new RequestOptions().resumeDownloads(true))
+                .asFile(test.toString())
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, 100000), Files.readAllBytes(result.toPath()));
+    }
+
+    private List<Path> leftovers() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("."))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("results.json") && f.toString().endsWith(".tmp"))
+                    .collect(Collectors.toList());
+        }
+    }
 }
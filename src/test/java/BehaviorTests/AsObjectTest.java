@@ -98,7 +98,7 @@ public class AsObjectTest extends BddTest {
         assertNull(request.getBody());
         assertTrue(request.getParsingError().isPresent());
         assertEquals("unirest.UnirestException: com.fasterxml.jackson.core.JsonParseException: Unrecognized token 'You': was expecting ('true', 'false' or 'null')\n" +
-                " at [Source: (String)\"You did something bad\"; line: 1, column: 4]", request.getParsingError().get().getMessage());
+                " at [Source: (ByteArrayInputStream); line: 1, column: 5]", request.getParsingError().get().getMessage());
         assertEquals("You did something bad", request.getParsingError().get().getOriginalBody());
 
     }
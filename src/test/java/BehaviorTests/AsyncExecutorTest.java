@@ -0,0 +1,116 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.After;
+import org.junit.Test;
+import unirest.HttpResponse;
+import unirest.Unirest;
+
+import java.net.ConnectException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncExecutorTest extends BddTest {
+    private ExecutorService requests = Executors.newFixedThreadPool(2, r -> new Thread(r, "request-thread"));
+    private ExecutorService callbacks = Executors.newSingleThreadExecutor(r -> new Thread(r, "callback-thread"));
+
+    @After
+    public void tearDown() {
+        super.tearDown();
+        requests.shutdownNow();
+        callbacks.shutdownNow();
+    }
+
+    @Test
+    public void asyncRequestsCanRunOnAnExecutorWithTheSyncClient() throws ExecutionException, InterruptedException {
+        Unirest.config().asyncExecutor(requests);
+
+        CompletableFuture<String> thread = Unirest.get(MockServer.GET)
+                .queryString("foo", "bar")
+                .asObjectAsync(RequestCapture.class)
+                .thenApply(r -> {
+                    r.getBody().assertParam("foo", "bar");
+                    return Thread.currentThread().getName();
+                });
+
+        assertEquals("request-thread", thread.get());
+    }
+
+    @Test
+    public void callbacksAreRunOnTheExecutor() throws ExecutionException, InterruptedException {
+        Unirest.config().asyncExecutor(requests);
+        CompletableFuture<String> thread = new CompletableFuture<>();
+
+        Unirest.get(MockServer.GET)
+                .asStringAsync(r -> thread.complete(Thread.currentThread().getName()));
+
+        assertEquals("request-thread", thread.get());
+    }
+
+    @Test
+    public void failuresAreUnwrappedToMatchTheAsyncClient() throws InterruptedException {
+        Unirest.config().asyncExecutor(requests);
+
+        try {
+            Unirest.get("http://localhost:1/nothing").asStringAsync().get();
+            fail("should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+    }
+
+    @Test
+    public void nioCompletionsCanBeMovedOffTheReactorThreads() throws ExecutionException, InterruptedException {
+        Unirest.config().callbackExecutor(callbacks);
+
+        CompletableFuture<String> thread = Unirest.get(MockServer.GET)
+                .asStringAsync()
+                .thenApply(r -> Thread.currentThread().getName());
+
+        assertEquals("callback-thread", thread.get());
+    }
+
+    @Test
+    public void executorModeCanAlsoHandOffCompletions() throws ExecutionException, InterruptedException {
+        Unirest.config().asyncExecutor(requests).callbackExecutor(callbacks);
+
+        HttpResponse<String> response = Unirest.get(MockServer.GET).asStringAsync().get();
+        CompletableFuture<String> thread = Unirest.get(MockServer.GET)
+                .asStringAsync()
+                .thenApply(r -> Thread.currentThread().getName());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("callback-thread", thread.get());
+    }
+}
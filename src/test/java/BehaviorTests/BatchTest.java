@@ -0,0 +1,137 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.BatchResult;
+import unirest.GetRequest;
+import unirest.HttpRequest;
+import unirest.HttpResponse;
+import unirest.Unirest;
+import unirest.UnirestConfigException;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchTest extends BddTest {
+
+    @Test
+    public void resultsComeBackInTheOrderOfTheRequests() {
+        List<BatchResult<RequestCapture>> results = Unirest.batch(requests(20), r -> r.asObjectAsync(RequestCapture.class))
+                .inOrder()
+                .join();
+
+        assertEquals(20, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BatchResult<RequestCapture> result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertTrue(result.isSuccess());
+            result.getResponse().get().getBody().assertParam("id", String.valueOf(i));
+        }
+    }
+
+    @Test
+    public void noMoreThanMaxInFlightAreSentAtOnce() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger highWater = new AtomicInteger();
+
+        List<BatchResult<String>> results = Unirest.batch(requests(30), r -> {
+            highWater.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return r.asStringAsync().whenComplete((s, e) -> inFlight.decrementAndGet());
+        }).maxInFlight(3).inOrder().join();
+
+        assertEquals(30, results.size());
+        assertTrue(highWater.get() <= 3);
+    }
+
+    @Test
+    public void failuresDoNotFailTheRestOfTheBatch() {
+        List<GetRequest> requests = requests(3);
+        requests.add(1, Unirest.get("http://localhost:1/nothing"));
+
+        List<BatchResult<String>> results = Unirest.batch(requests, HttpRequest::asStringAsync)
+                .inOrder()
+                .join();
+
+        assertEquals(4, results.size());
+        assertFalse(results.get(1).isSuccess());
+        assertFalse(results.get(1).getResponse().isPresent());
+        assertTrue(results.get(1).getError().get() instanceof ConnectException);
+        assertEquals(3, results.stream().filter(BatchResult::isSuccess).count());
+    }
+
+    @Test
+    public void senderExceptionsAreCapturedAsFailures() {
+        List<BatchResult<String>> results = Unirest.<GetRequest, String>batch(requests(3), r -> {
+            throw new IllegalStateException("boom");
+        }).inOrder().join();
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(r -> r.getError().get() instanceof IllegalStateException));
+    }
+
+    @Test
+    public void resultsCanBeStreamedAsTheyComplete() {
+        Set<Integer> indexes = Unirest.batch(requests(10), HttpRequest::asStringAsync)
+                .maxInFlight(2)
+                .asCompleted()
+                .peek(r -> assertEquals(200, r.getResponse().get().getStatus()))
+                .map(BatchResult::getIndex)
+                .collect(Collectors.toSet());
+
+        assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toSet()), indexes);
+    }
+
+    @Test
+    public void emptyBatchesCompleteImmediately() {
+        CompletableFuture<List<BatchResult<String>>> results = Unirest.batch(new ArrayList<GetRequest>(), HttpRequest::asStringAsync)
+                .inOrder();
+
+        assertTrue(results.join().isEmpty());
+    }
+
+    @Test(expected = UnirestConfigException.class)
+    public void maxInFlightMustBePositive() {
+        Unirest.batch(requests(1), HttpRequest::asStringAsync).maxInFlight(0);
+    }
+
+    private List<GetRequest> requests(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> Unirest.get(MockServer.GET).queryString("id", i))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.ApacheAsyncClient;
+import unirest.CircuitBreaker;
+import unirest.CircuitBreakerOpenException;
+import unirest.RetryPolicy;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static BehaviorTests.MockServer.flakyHits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static unirest.CircuitBreaker.State.*;
+
+public class CircuitBreakerTest extends BddTest {
+    private List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private CircuitBreaker breaker = new CircuitBreaker()
+            .slidingWindow(4, 4)
+            .failureRateThreshold(50)
+            .waitInOpen(200)
+            .halfOpenCalls(2)
+            .onStateChange((key, from, to) -> events.add(key + " " + from + " -> " + to));
+
+    @Test
+    public void opensOnceTheFailureRateIsReached() {
+        Unirest.config().circuitBreaker(breaker);
+
+        failing("a", 2);
+        succeeding(2);
+
+        assertEquals(OPEN, breaker.getState(MockServer.HOST));
+        assertEquals(Collections.singletonList(MockServer.HOST + " CLOSED -> OPEN"), events);
+        assertOpen();
+        assertEquals(2, flakyHits("a").get());
+    }
+
+    @Test
+    public void staysClosedBelowTheThreshold() {
+        Unirest.config().circuitBreaker(breaker);
+
+        failing("a", 1);
+        succeeding(3);
+
+        assertEquals(CLOSED, breaker.getState(MockServer.HOST));
+        succeeding(1);
+    }
+
+    @Test
+    public void connectionFailuresCount() {
+        Unirest.config().circuitBreaker(breaker.slidingWindow(2, 2));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                Unirest.get("http://localhost:1/nothing").asString();
+            } catch (UnirestException e) {
+                // expected
+            }
+        }
+
+        assertEquals(OPEN, breaker.getState("http://localhost:1"));
+        assertEquals(CLOSED, breaker.getState(MockServer.HOST));
+    }
+
+    @Test
+    public void halfOpenTrialsCloseTheBreakerAgain() throws InterruptedException {
+        Unirest.config().circuitBreaker(breaker);
+        failing("a", 4);
+        assertOpen();
+
+        Thread.sleep(250);
+        assertEquals(HALF_OPEN, breaker.getState(MockServer.HOST));
+        succeeding(2);
+
+        assertEquals(CLOSED, breaker.getState(MockServer.HOST));
+        assertEquals(3, events.size());
+        assertTrue(events.get(2).endsWith("HALF_OPEN -> CLOSED"));
+    }
+
+    @Test
+    public void failedTrialsOpenTheBreakerAgain() throws InterruptedException {
+        Unirest.config().circuitBreaker(breaker);
+        failing("a", 4);
+        Thread.sleep(250);
+
+        failing("b", 2);
+
+        assertEquals(OPEN, breaker.getState(MockServer.HOST));
+        assertTrue(events.get(events.size() - 1).endsWith("HALF_OPEN -> OPEN"));
+    }
+
+    @Test
+    public void noMoreTrialsThanTheWindowHoldsAreNeeded() throws InterruptedException {
+        Unirest.config().circuitBreaker(breaker.slidingWindow(2, 2).halfOpenCalls(5));
+        failing("a", 2);
+        Thread.sleep(250);
+
+        succeeding(2);
+
+        assertEquals(CLOSED, breaker.getState(MockServer.HOST));
+    }
+
+    @Test
+    public void cancelledTrialsAreNotRecordedAndAreGivenBack() throws InterruptedException {
+        Unirest.config().circuitBreaker(breaker.halfOpenCalls(1));
+        failing("a", 4);
+        Thread.sleep(250);
+
+        CompletableFuture<?> trial = Unirest.get(MockServer.CACHED).queryString("sleep", 500).asStringAsync();
+        trial.cancel(true);
+
+        assertEquals(HALF_OPEN, breaker.getState(MockServer.HOST));
+        succeeding(1);
+        assertEquals(CLOSED, breaker.getState(MockServer.HOST));
+    }
+
+    @Test
+    public void asyncRequestsThatCannotBeSentAreRecorded() {
+        Unirest.config().circuitBreaker(breaker.slidingWindow(2, 2)).asyncClient(c -> {
+            throw new IllegalStateException("no client");
+        });
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertTrue(Unirest.get(MockServer.GET).asStringAsync().isCompletedExceptionally());
+            }
+
+            assertEquals(OPEN, breaker.getState(MockServer.HOST));
+        } finally {
+            Unirest.config().asyncClient(ApacheAsyncClient::new);
+        }
+    }
+
+    @Test
+    public void slowCallsCanOpenTheBreaker() {
+        Unirest.config().circuitBreaker(breaker.slidingWindow(2, 2).slowCalls(100, 100));
+
+        Unirest.get(MockServer.CACHED).queryString("sleep", 150).asString();
+        Unirest.get(MockServer.CACHED).queryString("sleep", 150).asString();
+
+        assertEquals(OPEN, breaker.getState(MockServer.HOST));
+    }
+
+    @Test
+    public void asyncRequestsFailFastToo() throws InterruptedException {
+        Unirest.config().circuitBreaker(breaker);
+        for (int i = 0; i < 4; i++) {
+            Unirest.get(MockServer.FLAKY).queryString("key", "a").queryString("fail", 10).queryString("status", 500)
+                    .asStringAsync()
+                    .join();
+        }
+
+        try {
+            Unirest.get(MockServer.GET).asStringAsync().get();
+            fail("should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CircuitBreakerOpenException);
+        }
+    }
+
+    @Test
+    public void breakersCanBeKeyedByRoute() {
+        Unirest.config().circuitBreaker(breaker.keyBy(CircuitBreaker.KeyBy.ROUTE));
+
+        failing("a", 4);
+
+        assertEquals(OPEN, breaker.getState("GET " + MockServer.FLAKY));
+        succeeding(1);
+    }
+
+    @Test
+    public void openBreakersAreNotRetried() {
+        Unirest.config().circuitBreaker(breaker).retryPolicy(new RetryPolicy().backoff(1, 5));
+        failing("a", 4);
+        int before = flakyHits("a").get();
+
+        assertOpen();
+        assertEquals(before, flakyHits("a").get());
+    }
+
+    private void assertOpen() {
+        try {
+            Unirest.get(MockServer.GET).asString();
+            fail("should have failed");
+        } catch (CircuitBreakerOpenException e) {
+            assertEquals(MockServer.HOST, e.getKey());
+        }
+    }
+
+    private void failing(String key, int times) {
+        for (int i = 0; i < times; i++) {
+            Unirest.get(MockServer.FLAKY)
+                    .queryString("key", key)
+                    .queryString("fail", 100)
+                    .queryString("status", 500)
+                    .asString();
+        }
+    }
+
+    private void succeeding(int times) {
+        for (int i = 0; i < times; i++) {
+            assertEquals(200, Unirest.get(MockServer.GET).asString().getStatus());
+        }
+    }
+}
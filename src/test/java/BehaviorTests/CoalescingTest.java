@@ -0,0 +1,216 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.ApacheClient;
+import unirest.HedgePolicy;
+import unirest.HttpResponse;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static BehaviorTests.MockServer.cachedHits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class CoalescingTest extends BddTest {
+    private static final String SLOW = MockServer.CACHED + "?sleep=500";
+
+    @Test
+    public void concurrentSyncRequestsShareOneExchange() throws Exception {
+        Unirest.config().coalesceRequests(true);
+
+        List<HttpResponse<RequestCapture>> responses = inParallel(5, () -> Unirest.get(SLOW).asObject(RequestCapture.class));
+
+        assertEquals(1, cachedHits.get());
+        for (HttpResponse<RequestCapture> response : responses) {
+            assertEquals(200, response.getStatus());
+            response.getBody().assertParam("sleep", "500");
+        }
+        assertNotSame(responses.get(0).getBody(), responses.get(1).getBody());
+    }
+
+    @Test
+    public void concurrentAsyncRequestsShareOneExchange() {
+        Unirest.config().coalesceRequests(true);
+
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(Unirest.get(SLOW).asStringAsync());
+        }
+        List<String> bodies = futures.stream().map(f -> f.join().getBody()).collect(Collectors.toList());
+
+        assertEquals(1, cachedHits.get());
+        assertTrue(bodies.stream().allMatch(b -> b.equals(bodies.get(0))));
+    }
+
+    @Test
+    public void syncAndAsyncRequestsCanShareAnExchange() throws Exception {
+        Unirest.config().coalesceRequests(true);
+
+        CompletableFuture<HttpResponse<String>> async = Unirest.get(SLOW).asStringAsync();
+        Thread.sleep(100);
+        HttpResponse<String> sync = Unirest.get(SLOW).asString();
+
+        assertEquals(async.get().getBody(), sync.getBody());
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void keyHeadersMustMatch() {
+        Unirest.config().coalesceRequests(true, "Authorization");
+
+        List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+        for (String auth : new String[]{"a", "b", "a", "b"}) {
+            futures.add(Unirest.get(SLOW).header("Authorization", auth).asStringAsync());
+        }
+        futures.forEach(CompletableFuture::join);
+
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void requestsAreOnlyCoalescedWhileInFlight() {
+        Unirest.config().coalesceRequests(true);
+
+        Unirest.get(MockServer.CACHED).asString();
+        Unirest.get(MockServer.CACHED).asString();
+
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void unsafeRequestsAreNotCoalesced() throws Exception {
+        Unirest.config().coalesceRequests(true);
+
+        CompletableFuture<HttpResponse<String>> first = Unirest.post(MockServer.POST).asStringAsync();
+        CompletableFuture<HttpResponse<String>> second = Unirest.post(MockServer.POST).asStringAsync();
+
+        assertEquals(200, first.get().getStatus());
+        assertEquals(200, second.get().getStatus());
+    }
+
+    @Test
+    public void followersFailWhenTheLeaderDoes() throws Exception {
+        Unirest.config().coalesceRequests(true).maxResponseSize(10);
+
+        List<Object> results = inParallel(3, () -> {
+            try {
+                return Unirest.get(SLOW).asString();
+            } catch (UnirestException e) {
+                return e;
+            }
+        });
+
+        assertEquals(1, cachedHits.get());
+        assertTrue(results.stream().allMatch(r -> r instanceof UnirestException));
+    }
+
+    @Test(timeout = 5000)
+    public void aLeaderThatCannotBeSentDoesNotStrandTheNextRequest() {
+        Unirest.config().coalesceRequests(true).httpClient(c -> {
+            throw new IllegalStateException("no client");
+        });
+        try {
+            Unirest.get(SLOW).asString();
+        } catch (IllegalStateException expected) { }
+
+        Unirest.config().httpClient(ApacheClient::new);
+
+        assertEquals(200, Unirest.get(SLOW).asString().getStatus());
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void cancellingTheLeaderLeavesTheFollowersWaiting() {
+        Unirest.config().coalesceRequests(true);
+
+        CompletableFuture<HttpResponse<String>> leader = Unirest.get(SLOW).asStringAsync();
+        CompletableFuture<HttpResponse<String>> follower = Unirest.get(SLOW).asStringAsync();
+        leader.cancel(true);
+
+        assertEquals(200, follower.join().getStatus());
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void theExchangeIsAbortedOnceEveryoneHasLeft() throws Exception {
+        Unirest.config().coalesceRequests(true);
+
+        CompletableFuture<HttpResponse<String>> leader = Unirest.get(SLOW).asStringAsync();
+        CompletableFuture<HttpResponse<String>> follower = Unirest.get(SLOW).asStringAsync();
+        follower.cancel(true);
+        leader.cancel(true);
+
+        HttpResponse<String> next = Unirest.get(SLOW).asStringAsync().get();
+
+        assertEquals(200, next.getStatus());
+    }
+
+    @Test
+    public void hedgesAreNeverCoalescedWithTheRequestTheyHedge() {
+        Unirest.config().coalesceRequests(true).hedging(new HedgePolicy().after(50));
+
+        assertEquals(200, Unirest.get(SLOW).asStringAsync().join().getStatus());
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void noCoalescingByDefault() throws Exception {
+        inParallel(3, () -> Unirest.get(SLOW).asString());
+
+        assertEquals(3, cachedHits.get());
+    }
+
+    private <T> List<T> inParallel(int count, Callable<T> request) throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(pool.submit(request));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> f : futures) {
+                results.add(f.get());
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
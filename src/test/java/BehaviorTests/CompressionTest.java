@@ -0,0 +1,139 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.HttpResponse;
+import unirest.TestUtil;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompressionTest extends BddTest {
+    private static final String DOCUMENT = IntStream.range(0, 20000)
+            .mapToObj(i -> "{\"id\":" + i + ",\"name\":\"record " + i + "\"}")
+            .collect(Collectors.joining(",", "[", "]"));
+
+    @Test
+    public void gzipsTheBody() {
+        HttpResponse<String> response = Unirest.post(MockServer.INFLATE)
+                .body(DOCUMENT)
+                .compress("gzip")
+                .asString();
+
+        assertEquals("gzip", response.getHeaders().getFirst("X-Content-Encoding"));
+        assertEquals("chunked", response.getHeaders().getFirst("X-Transfer-Encoding"));
+        assertEquals(DOCUMENT, response.getBody());
+    }
+
+    @Test
+    public void deflatesTheBodyAsync() throws Exception {
+        HttpResponse<String> response = Unirest.post(MockServer.INFLATE)
+                .body(DOCUMENT.getBytes(StandardCharsets.UTF_8))
+                .compress("deflate")
+                .asStringAsync()
+                .get();
+
+        assertEquals("deflate", response.getHeaders().getFirst("X-Content-Encoding"));
+        assertEquals(DOCUMENT, response.getBody());
+    }
+
+    @Test
+    public void bodiesUnderTheThresholdAreSentAsTheyAre() {
+        Unirest.config().compressionThreshold(1024);
+
+        HttpResponse<String> response = Unirest.post(MockServer.INFLATE)
+                .body("{\"small\":true}")
+                .compress("gzip")
+                .asString();
+
+        assertNull(response.getHeaders().getFirst("X-Content-Encoding"));
+        assertEquals("{\"small\":true}", response.getBody());
+    }
+
+    @Test
+    public void bodiesOverTheThresholdAreCompressed() throws Exception {
+        Unirest.config().compressionThreshold(1024);
+
+        HttpResponse<String> response = Unirest.post(MockServer.INFLATE)
+                .body(DOCUMENT)
+                .compress("gzip")
+                .asStringAsync()
+                .get();
+
+        assertEquals("gzip", response.getHeaders().getFirst("X-Content-Encoding"));
+        assertEquals(DOCUMENT, response.getBody());
+    }
+
+    @Test
+    public void compressesForms() {
+        HttpResponse<String> response = Unirest.post(MockServer.INFLATE)
+                .field("name", "Mark")
+                .field("document", DOCUMENT)
+                .compress("gzip")
+                .asString();
+
+        assertEquals("gzip", response.getHeaders().getFirst("X-Content-Encoding"));
+        assertTrue(response.getBody().startsWith("document="));
+        assertTrue(response.getBody().endsWith("&name=Mark"));
+    }
+
+    @Test
+    public void compressesMultipartBodiesAsTheyAreStreamed() throws Exception {
+        HttpResponse<String> response = Unirest.post(MockServer.INFLATE)
+                .field("name", "Mark")
+                .field("file", TestUtil.rezFile("/test"))
+                .field("stream", new ByteArrayInputStream(DOCUMENT.getBytes(StandardCharsets.UTF_8)), "document.json")
+                .compress("deflate")
+                .asStringAsync()
+                .get();
+
+        assertEquals("deflate", response.getHeaders().getFirst("X-Content-Encoding"));
+        assertTrue(response.getBody().contains("Mark"));
+        assertTrue(response.getBody().contains("This is a test file"));
+        assertTrue(response.getBody().contains(DOCUMENT));
+    }
+
+    @Test
+    public void onlyGzipAndDeflateAreSupported() {
+        try {
+            Unirest.post(MockServer.INFLATE).body(DOCUMENT).compress("zstd");
+            fail("Expected an exception");
+        } catch (UnirestException e) {
+            assertEquals("Request bodies can be compressed with gzip or deflate, not zstd", e.getMessage());
+        }
+    }
+}
@@ -95,6 +95,6 @@ public class DefectTest extends BddTest {
                 .asJsonAsync().get().getBody().getObject();
 
         assertEquals(true, body.getBoolean("gzipped"));
-        assertEquals("gzip", body.getJSONObject("headers").getString("Accept-Encoding"));
+        assertEquals("gzip, deflate", body.getJSONObject("headers").getString("Accept-Encoding"));
     }
 }
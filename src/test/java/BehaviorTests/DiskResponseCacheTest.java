@@ -0,0 +1,179 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import unirest.GetRequest;
+import unirest.HttpResponse;
+import unirest.ResponseCache;
+import unirest.Unirest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static BehaviorTests.MockServer.cachedHits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DiskResponseCacheTest extends BddTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void responsesSurviveARestart() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        Unirest.config().cache(ResponseCache.onDisk(dir, 1024 * 1024));
+        get(1).getBody().assertParam("id", "1");
+
+        Unirest.config().reset().cache(ResponseCache.onDisk(dir, 1024 * 1024));
+        HttpResponse<RequestCapture> second = get(1);
+
+        assertEquals(1, cachedHits.get());
+        second.getBody().assertParam("id", "1");
+    }
+
+    @Test
+    public void cachedBodiesCanBeStreamedToAFile() throws IOException {
+        Unirest.config().cache(ResponseCache.onDisk(folder.newFolder().toPath(), 1024 * 1024));
+        String expected = request(1).asString().getBody();
+
+        File target = new File(folder.getRoot(), "out.json");
+        File file = request(1).asFile(target.getPath()).getBody();
+
+        assertEquals(expected, new String(Files.readAllBytes(file.toPath()), "UTF-8"));
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void cachedBodiesCanBeReadAsBinary() throws IOException {
+        Unirest.config().cache(ResponseCache.onDisk(folder.newFolder().toPath(), 1024 * 1024));
+        String expected = request(1).asString().getBody();
+
+        try (InputStream in = request(1).asBinary().getBody()) {
+            assertEquals(expected, new String(readAll(in), "UTF-8"));
+        }
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void revalidationOnlyRewritesTheMetadata() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        Unirest.config().cache(ResponseCache.onDisk(dir, 1024 * 1024));
+        Unirest.get(MockServer.CACHED).queryString("etag", "v1").asString();
+        List<Path> before = bodies(dir);
+
+        HttpResponse<String> second = Unirest.get(MockServer.CACHED).queryString("etag", "v1").asString();
+
+        assertEquals("true", second.getHeaders().getFirst("X-Revalidated"));
+        assertEquals(before, bodies(dir));
+    }
+
+    @Test
+    public void oldestEntriesAreEvictedWhenOverTheLimit() throws IOException {
+        ResponseCache sizing = ResponseCache.onDisk(folder.newFolder().toPath(), 1024 * 1024);
+        Unirest.config().cache(sizing);
+        get(1);
+        long limit = sizing.byteSize() * 5 / 2;
+
+        Path dir = folder.newFolder().toPath();
+        ResponseCache cache = ResponseCache.onDisk(dir, limit);
+        Unirest.config().reset().cache(cache);
+        get(1);
+        get(2);
+        get(3);
+
+        assertEquals(2, cache.size());
+        assertEquals(2, bodies(dir).size());
+        assertTrue(cache.byteSize() <= limit);
+        get(1);
+        assertEquals(5, cachedHits.get());
+    }
+
+    @Test
+    public void leftoversFromACrashAreCleanedUp() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        Files.write(dir.resolve("abc.123.tmp"), new byte[10]);
+        Files.write(dir.resolve("abc.123.body"), new byte[10]);
+        Files.write(dir.resolve("abc.meta"), new byte[]{1, 2, 3});
+
+        ResponseCache cache = ResponseCache.onDisk(dir, 1024 * 1024);
+
+        assertEquals(0, cache.size());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    public void clearDeletesTheFiles() throws IOException {
+        Path dir = folder.getRoot().toPath();
+        ResponseCache cache = ResponseCache.onDisk(dir, 1024 * 1024);
+        Unirest.config().cache(cache);
+        get(1);
+        get(2);
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private HttpResponse<RequestCapture> get(int id) {
+        return request(id).asObject(RequestCapture.class);
+    }
+
+    private GetRequest request(int id) {
+        return Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").queryString("id", id);
+    }
+
+    private List<Path> bodies(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".body")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[1024];
+        int len;
+        while ((len = in.read(buf)) != -1) {
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+}
@@ -26,10 +26,31 @@
 
 package BehaviorTests;
 
-import unirest.Unirest;
 import org.junit.Test;
+import unirest.BodyDecoder;
+import unirest.GetRequest;
+import unirest.HttpResponse;
+import unirest.TestUtil;
+import unirest.Unirest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 public class GZipTest extends BddTest {
+    private static final int SIZE = 100000;
+
     @Test
     public void testGzip() {
         Unirest.get(MockServer.GZIP)
@@ -48,4 +69,158 @@ public class GZipTest extends BddTest {
                 .getBody()
                 .assertParam("zipme", "up");
     }
+
+    @Test
+    public void offersTheEncodingsItCanDecode() {
+        Unirest.get(MockServer.GET)
+                .asObject(RequestCapture.class)
+                .getBody()
+                .assertHeader("Accept-Encoding", "gzip, deflate");
+    }
+
+    @Test
+    public void offersRegisteredEncodingsToo() {
+        Unirest.config().bodyDecoder(new Xor());
+
+        Unirest.get(MockServer.GET)
+                .asObject(RequestCapture.class)
+                .getBody()
+                .assertHeader("Accept-Encoding", "gzip, deflate, xor");
+    }
+
+    @Test
+    public void anEncodingSetOnTheRequestIsLeftAlone() {
+        Unirest.get(MockServer.GET)
+                .header("Accept-Encoding", "br")
+                .asObject(RequestCapture.class)
+                .getBody()
+                .assertHeader("Accept-Encoding", "br");
+    }
+
+    @Test
+    public void decodesDeflate() {
+        HttpResponse<byte[]> response = encoded("deflate").asObject(r -> r.getContentAsBytes());
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), response.getBody());
+    }
+
+    @Test
+    public void decodesDeflateWithoutTheZlibHeader() throws Exception {
+        HttpResponse<byte[]> response = encoded("raw-deflate").asObjectAsync(r -> r.getContentAsBytes()).get();
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), response.getBody());
+    }
+
+    @Test
+    public void decodesTheContentStream() {
+        AtomicReference<byte[]> body = new AtomicReference<>();
+
+        encoded("x-gzip").thenConsume(r -> body.set(readAll(r.getContent())));
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), body.get());
+    }
+
+    @Test
+    public void decodesFilesOnTheWayToDisk() throws Exception {
+        File file = encoded("deflate").asFile("encoded.bin").getBody();
+        try {
+            assertArrayEquals(MockServer.pattern(0, SIZE), Files.readAllBytes(file.toPath()));
+        } finally {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    @Test
+    public void undoesEncodingsInTheReverseOrder() {
+        Unirest.config().bodyDecoder(new Xor());
+
+        HttpResponse<byte[]> response = encoded("x-gzip, xor, deflate").asObject(r -> r.getContentAsBytes());
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), response.getBody());
+    }
+
+    @Test
+    public void unknownEncodingsAreLeftAsTheyAre() {
+        HttpResponse<byte[]> response = encoded("xor").asObject(r -> r.getContentAsBytes());
+
+        assertEquals("xor", response.getHeaders().getFirst("Content-Encoding"));
+        byte[] expected = MockServer.pattern(0, SIZE);
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] ^= 0x5A;
+        }
+        assertArrayEquals(expected, response.getBody());
+    }
+
+    @Test
+    public void streamsDeflatedJsonAsync() throws Exception {
+        try (Stream<Foo> body = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 1000)
+                .queryString("deflate", true)
+                .asStreamAsync(Foo.class)
+                .get()
+                .getBody()) {
+            assertEquals(IntStream.range(0, 1000).mapToObj(String::valueOf).collect(Collectors.toList()),
+                    body.map(f -> f.bar).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void asyncFilesAskForTheBodyUnencoded() throws Exception {
+        Unirest.get(MockServer.GET)
+                .asFileAsync("encoded.json")
+                .get();
+        try {
+            TestUtil.readValue(new String(Files.readAllBytes(Paths.get("encoded.json"))), RequestCapture.class)
+                    .assertHeader("Accept-Encoding", "identity");
+        } finally {
+            Files.deleteIfExists(Paths.get("encoded.json"));
+        }
+    }
+
+    private static GetRequest encoded(String encoding) {
+        return Unirest.get(MockServer.ENCODED)
+                .queryString("size", SIZE)
+                .queryString("encoding", encoding);
+    }
+
+    private static byte[] readAll(InputStream in) {
+        try (InputStream content = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[4096];
+            int len;
+            while ((len = content.read(buf)) != -1) {
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class Xor implements BodyDecoder {
+        @Override
+        public String getEncoding() {
+            return "xor";
+        }
+
+        @Override
+        public InputStream decode(InputStream encoded) {
+            return new FilterInputStream(encoded) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    return b == -1 ? -1 : (b ^ 0x5A);
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = super.read(b, off, len);
+                    for (int i = off; i < off + read; i++) {
+                        b[i] ^= 0x5A;
+                    }
+                    return read;
+                }
+            };
+        }
+    }
 }
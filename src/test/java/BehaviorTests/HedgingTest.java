@@ -0,0 +1,130 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.ConnectionPoolStats;
+import unirest.GetRequest;
+import unirest.HedgePolicy;
+import unirest.HttpResponse;
+import unirest.MetricsListener;
+import unirest.Unirest;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static BehaviorTests.MockServer.flakyHits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HedgingTest extends BddTest {
+    private static final String SLOW_ONCE = MockServer.FLAKY + "?key={key}&slow=1&sleep=2000";
+
+    @Test
+    public void aSlowRequestIsHedgedAndTheFirstResponseWins() throws ExecutionException, InterruptedException {
+        Unirest.config().hedging(new HedgePolicy().after(50));
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = slowOnce("a").asStringAsync().get();
+
+        assertEquals(200, response.getStatus());
+        assertTrue(elapsedMillis(start) < 1500);
+        assertEquals(2, flakyHits("a").get());
+    }
+
+    @Test
+    public void fastRequestsAreNotHedged() throws ExecutionException, InterruptedException {
+        Unirest.config().hedging(new HedgePolicy().after(1000));
+
+        Unirest.get(MockServer.FLAKY).queryString("key", "a").asStringAsync().get();
+        TimeUnit.MILLISECONDS.sleep(1100);
+
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void theLoserIsAbortedAndItsConnectionReleased() throws Exception {
+        AtomicReference<Supplier<ConnectionPoolStats>> pool = new AtomicReference<>();
+        Unirest.config().hedging(new HedgePolicy().after(50)).instrumentWith(new MetricsListener() {
+            @Override
+            public void onPool(String name, Supplier<ConnectionPoolStats> stats) {
+                if (name.equals("async")) {
+                    pool.set(stats);
+                }
+            }
+        });
+
+        slowOnce("a").asStringAsync().get();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (pool.get().get().getLeased() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(0, pool.get().get().getLeased());
+    }
+
+    @Test
+    public void hedgesAreCappedByTheBudget() throws ExecutionException, InterruptedException {
+        Unirest.config().hedging(new HedgePolicy().after(50).budget(0, 1));
+        slowOnce("a").asStringAsync().get();
+
+        long start = System.nanoTime();
+        slowOnce("b").asStringAsync().get();
+
+        assertTrue(elapsedMillis(start) >= 2000);
+        assertEquals(1, flakyHits("b").get());
+    }
+
+    @Test
+    public void onlyGetAndHeadAreHedgedByDefault() throws ExecutionException, InterruptedException {
+        Unirest.config().hedging(new HedgePolicy().after(50));
+
+        Unirest.post(SLOW_ONCE).routeParam("key", "a").asStringAsync().get();
+
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void syncRequestsAreNotHedged() {
+        Unirest.config().hedging(new HedgePolicy().after(50));
+
+        slowOnce("a").asString();
+
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    private static GetRequest slowOnce(String key) {
+        return Unirest.get(SLOW_ONCE).routeParam("key", key);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
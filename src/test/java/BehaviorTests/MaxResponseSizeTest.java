@@ -0,0 +1,118 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.apache.http.ContentTooLongException;
+import org.junit.Test;
+import unirest.RequestOptions;
+import unirest.RetryPolicy;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MaxResponseSizeTest extends BddTest {
+
+    @Test
+    public void syncResponsesOverTheLimitFail() {
+        Unirest.config().maxResponseSize(10);
+
+        try {
+            Unirest.get(MockServer.GET).asString();
+            fail("should have thrown");
+        } catch (UnirestException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(ContentTooLongException.class.getName()));
+        }
+    }
+
+    @Test
+    public void theClientCanBeUsedAfterAnAbortedResponse() {
+        try {
+            Unirest.get(MockServer.GET).options(new RequestOptions().maxResponseSize(10)).asString();
+            fail("should have thrown");
+        } catch (UnirestException e) {
+            // expected
+        }
+
+        Unirest.get(MockServer.GET)
+                .queryString("foo", "bar")
+                .asObject(RequestCapture.class)
+                .getBody()
+                .assertParam("foo", "bar");
+    }
+
+    @Test
+    public void theLimitCanBeOverriddenPerRequest() {
+        Unirest.config().maxResponseSize(10);
+
+        Unirest.get(MockServer.GET)
+                .queryString("foo", "bar")
+                .options(new RequestOptions().maxResponseSize(0))
+                .asObject(RequestCapture.class)
+                .getBody()
+                .assertParam("foo", "bar");
+    }
+
+    @Test
+    public void requestOptionsOnlyOverrideTheSettingsTheySet() {
+        Unirest.config().maxResponseSize(10);
+
+        try {
+            Unirest.get(MockServer.GET)
+                    .options(new RequestOptions().retryPolicy(new RetryPolicy().maxAttempts(1)))
+                    .asString();
+            fail("should have thrown");
+        } catch (UnirestException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(ContentTooLongException.class.getName()));
+        }
+    }
+
+    @Test
+    public void asyncResponsesOverTheLimitFail() throws InterruptedException {
+        try {
+            Unirest.get(MockServer.GET).options(new RequestOptions().maxResponseSize(10)).asStringAsync().get();
+            fail("should have thrown");
+        } catch (ExecutionException e) {
+            assertEquals(ContentTooLongException.class, e.getCause().getClass());
+        }
+    }
+
+    @Test
+    public void asyncResponsesUnderTheLimitAreFine() throws Exception {
+        Unirest.get(MockServer.GET)
+                .queryString("foo", "bar")
+                .options(new RequestOptions().maxResponseSize(100000))
+                .asObjectAsync(RequestCapture.class)
+                .get()
+                .getBody()
+                .assertParam("foo", "bar");
+    }
+}
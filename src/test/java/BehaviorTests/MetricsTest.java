@@ -0,0 +1,164 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.ConnectionPoolStats;
+import unirest.HttpMethod;
+import unirest.HttpResponse;
+import unirest.MetricsListener;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static unirest.MetricsListener.Phase.*;
+
+public class MetricsTest extends BddTest {
+    private TestListener listener = new TestListener();
+
+    @Test
+    public void syncRequestsReportTheirPhasesByRouteTemplate() {
+        Unirest.config().instrumentWith(listener);
+
+        Unirest.get(MockServer.PASSED_PATH_PARAM)
+                .routeParam("param", "foo")
+                .asObject(RequestCapture.class)
+                .getBody()
+                .assertPathParam("foo");
+
+        assertEquals(Collections.singletonList("GET " + MockServer.PASSED_PATH_PARAM + " 200"), listener.completed);
+        listener.assertPhases(LEASE, CONNECT, FIRST_BYTE, BODY_READ, DESERIALIZE);
+    }
+
+    @Test
+    public void pooledConnectionsDoNotReportConnect() {
+        Unirest.config().instrumentWith(listener);
+        Unirest.get(MockServer.GET).asString();
+        listener.phases.clear();
+
+        Unirest.get(MockServer.GET).asString();
+
+        assertFalse(listener.phases.contains(CONNECT));
+        assertTrue(listener.phases.contains(FIRST_BYTE));
+    }
+
+    @Test
+    public void asyncRequestsReportTheirPhases() throws ExecutionException, InterruptedException {
+        Unirest.config().instrumentWith(listener);
+
+        Unirest.get(MockServer.PASSED_PATH_PARAM)
+                .routeParam("param", "foo")
+                .asObjectAsync(RequestCapture.class)
+                .get()
+                .getBody();
+
+        assertEquals(Collections.singletonList("GET " + MockServer.PASSED_PATH_PARAM + " 200"), listener.completed);
+        listener.assertPhases(LEASE, FIRST_BYTE, BODY_READ, DESERIALIZE);
+    }
+
+    @Test
+    public void lazyBodiesReportDeserializeOnceWhenTheyAreParsed() {
+        Unirest.config().instrumentWith(listener);
+
+        HttpResponse<RequestCapture> response = Unirest.get(MockServer.GET).asObject(RequestCapture.class);
+        assertFalse(listener.phases.contains(DESERIALIZE));
+
+        response.getBody();
+        response.getBody();
+
+        assertEquals(1, listener.phases.stream().filter(DESERIALIZE::equals).count());
+    }
+
+    @Test
+    public void failuresAreReported() {
+        Unirest.config().instrumentWith(listener);
+
+        try {
+            Unirest.get("http://localhost:1/nothing").asString();
+        } catch (UnirestException e) {
+            // expected
+        }
+
+        assertEquals(Collections.singletonList("GET http://localhost:1/nothing"), listener.errors);
+    }
+
+    @Test
+    public void poolsAreRegisteredWhenTheClientsAreBuilt() throws ExecutionException, InterruptedException {
+        Unirest.config().instrumentWith(listener);
+
+        Unirest.get(MockServer.GET).asString();
+        Unirest.get(MockServer.GET).asStringAsync().get();
+
+        assertEquals(200, listener.pools.get("sync").get().getMax());
+        assertEquals(0, listener.pools.get("sync").get().getLeased());
+        assertTrue(listener.pools.containsKey("async"));
+    }
+
+    private static class TestListener implements MetricsListener {
+        private final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        private final Map<String, Supplier<ConnectionPoolStats>> pools = new ConcurrentHashMap<>();
+
+        @Override
+        public void onPhase(HttpMethod method, String route, Phase phase, long nanos) {
+            assertTrue(nanos > 0);
+            phases.add(phase);
+        }
+
+        @Override
+        public void onComplete(HttpMethod method, String route, int status, long nanos) {
+            completed.add(method + " " + route + " " + status);
+        }
+
+        @Override
+        public void onError(HttpMethod method, String route, Exception e, long nanos) {
+            errors.add(method + " " + route);
+        }
+
+        @Override
+        public void onPool(String name, Supplier<ConnectionPoolStats> stats) {
+            pools.put(name, stats);
+        }
+
+        void assertPhases(Phase... expected) {
+            for (Phase phase : expected) {
+                assertTrue("Missing " + phase + " in " + phases, phases.contains(phase));
+            }
+        }
+    }
+}
@@ -62,11 +62,27 @@ import unirest.TestUtil;
 import javax.servlet.ServletOutputStream;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -90,6 +106,14 @@ public class MockServer {
 	public static final String INVALID_REQUEST = HOST + "/invalid";
 	public static final String PASSED_PATH_PARAM = GET + "/{param}/passed";
 	public static final String ALTGET = "http://127.0.0.1:" + PORT + "/get";
+	public static final String CACHED = HOST + "/cached";
+	public static final AtomicInteger cachedHits = new AtomicInteger();
+	public static final String FLAKY = HOST + "/flaky";
+	public static final String BYTES = HOST + "/bytes";
+	public static final String RECORDS = HOST + "/records";
+	public static final String ENCODED = HOST + "/encoded";
+	public static final String INFLATE = HOST + "/inflate";
+	private static final Map<String, AtomicInteger> flakyHits = new ConcurrentHashMap<>();
 
 
 	public static void setJsonAsResponse(Object o){
@@ -98,6 +122,8 @@ public class MockServer {
 
 	public static void reset(){
 		responseBody = null;
+		cachedHits.set(0);
+		flakyHits.clear();
 	}
 
 	static {
@@ -116,6 +142,16 @@ public class MockServer {
 		get("/get/:p/passed", MockServer::jsonResponse);
 		get("/proxy", MockServer::proxiedResponse);
 		get("/binary", MockServer::file);
+		get("/cached", MockServer::cached);
+		get("/flaky", MockServer::flaky);
+		post("/flaky", MockServer::flaky);
+		put("/flaky", MockServer::flaky);
+		post("/cached", MockServer::jsonResponse);
+		get("/bytes", MockServer::bytes);
+		head("/bytes", MockServer::bytes);
+		get("/records", MockServer::records);
+		get("/encoded", MockServer::encoded);
+		post("/inflate", MockServer::inflate);
         Runtime.getRuntime().addShutdownHook(new Thread(Spark::stop));
 		try {
 			new CountDownLatch(1).await(2, TimeUnit.SECONDS);
@@ -124,6 +160,163 @@ public class MockServer {
 		}
 	}
 
+	/**
+	 * Sends ?size=n bytes where each byte is its position modulo 251.
+	 * A Range: bytes=from- or bytes=from-to header is honored with a 206 unless norange=true, and chunked=true leaves out the Content-Length.
+	 * Ranges are counted under flakyHits("ranges"), and with failat=from the first request for a range starting there gets a 503
+	 */
+	private static Object bytes(Request request, Response response) {
+		int size = Integer.parseInt(request.queryParams("size"));
+		boolean ranges = !Boolean.parseBoolean(request.queryParams("norange"));
+		response.type("application/octet-stream");
+		if (ranges) {
+			response.header("Accept-Ranges", "bytes");
+		}
+		String range = request.headers("Range");
+		if (range != null && range.startsWith("bytes=") && ranges) {
+			flakyHits("ranges").incrementAndGet();
+			String[] bounds = range.substring(6).split("-", -1);
+			int from = Integer.parseInt(bounds[0]);
+			int to = bounds[1].isEmpty() ? size - 1 : Math.min(size - 1, Integer.parseInt(bounds[1]));
+			if (from >= size) {
+				response.status(416);
+				response.header("Content-Range", "bytes */" + size);
+				return "";
+			}
+			if (String.valueOf(from).equals(request.queryParams("failat")) && flakyHits("failat" + from).incrementAndGet() == 1) {
+				response.status(503);
+				return "";
+			}
+			response.status(206);
+			response.header("Content-Range", "bytes " + from + "-" + to + "/" + size);
+			response.header("Content-Length", String.valueOf(to + 1 - from));
+			return pattern(from, to + 1 - from);
+		}
+		if (!Boolean.parseBoolean(request.queryParams("chunked"))) {
+			response.header("Content-Length", String.valueOf(size));
+		}
+		return pattern(0, size);
+	}
+
+	/**
+	 * Streams ?count=n Foo records, {"bar":"0"} and so on, as a JSON array or as newline delimited JSON with ndjson=true, deflated with deflate=true
+	 */
+	private static Object records(Request request, Response response) throws IOException {
+		int count = Integer.parseInt(request.queryParams("count"));
+		boolean ndjson = Boolean.parseBoolean(request.queryParams("ndjson"));
+		response.type(ndjson ? "application/x-ndjson" : "application/json");
+		response.status(200);
+		OutputStream body = response.raw().getOutputStream();
+		if (Boolean.parseBoolean(request.queryParams("deflate"))) {
+			response.raw().setHeader("Content-Encoding", "deflate");
+			body = new DeflaterOutputStream(body);
+		}
+		Writer out = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8));
+		try {
+			out.write(ndjson ? "" : "[");
+			for (int i = 0; i < count; i++) {
+				if (i > 0) {
+					out.write(ndjson ? "\n" : ",\n");
+				}
+				out.write("{\"bar\":\"" + i + "\"}");
+			}
+			out.write(ndjson ? "\n" : "]");
+		} catch (IOException e) {
+			// the client hung up
+		} finally {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// the client hung up
+			}
+		}
+		return "";
+	}
+
+	/**
+	 * Sends ?size=n pattern bytes with the Content-Encoding ?encoding=, which is any of deflate, x-gzip,
+	 * raw-deflate (deflate without the zlib header, sent as deflate) or xor, applied in the order listed.
+	 * Any other encoding is sent as is under that name. The body is written directly so Spark doesn't gzip it again.
+	 */
+	private static Object encoded(Request request, Response response) throws IOException {
+		byte[] body = pattern(0, Integer.parseInt(request.queryParams("size")));
+		String encoding = request.queryParams("encoding");
+		for (String token : encoding.split(",")) {
+			body = encode(token.trim(), body);
+		}
+		response.type("application/octet-stream");
+		response.header("Content-Encoding", encoding.replace("raw-deflate", "deflate"));
+		response.status(200);
+		response.raw().setContentLength(body.length);
+		try (OutputStream out = response.raw().getOutputStream()) {
+			out.write(body);
+		}
+		return "";
+	}
+
+	/**
+	 * Echoes a gzip or deflate compressed request body back decoded, with its Content-Encoding
+	 * and Transfer-Encoding in X-Content-Encoding and X-Transfer-Encoding
+	 */
+	private static Object inflate(Request request, Response response) throws IOException {
+		String encoding = request.headers("Content-Encoding");
+		InputStream raw = request.raw().getInputStream();
+		InputStream in = raw;
+		if ("gzip".equals(encoding)) {
+			in = new GZIPInputStream(raw);
+		} else if ("deflate".equals(encoding)) {
+			in = new InflaterInputStream(raw);
+		}
+		if (encoding != null) {
+			response.header("X-Content-Encoding", encoding);
+		}
+		if (request.headers("Transfer-Encoding") != null) {
+			response.header("X-Transfer-Encoding", request.headers("Transfer-Encoding"));
+		}
+		response.type("text/plain");
+		String body = IOUtils.toString(in);
+		// the decoder stops at the end of the compressed data, read up to the end of the request
+		// so Jetty doesn't reset the connection over unread input
+		while (raw.read() != -1) {
+		}
+		return body;
+	}
+
+	private static byte[] encode(String encoding, byte[] body) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		OutputStream out;
+		switch (encoding) {
+			case "x-gzip":
+				out = new GZIPOutputStream(bytes);
+				break;
+			case "deflate":
+				out = new DeflaterOutputStream(bytes);
+				break;
+			case "raw-deflate":
+				out = new DeflaterOutputStream(bytes, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+				break;
+			case "xor":
+				for (byte b : body) {
+					bytes.write(b ^ 0x5A);
+				}
+				return bytes.toByteArray();
+			default:
+				return body;
+		}
+		try (OutputStream o = out) {
+			o.write(body);
+		}
+		return bytes.toByteArray();
+	}
+
+	public static byte[] pattern(long from, int length) {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++) {
+			bytes[i] = (byte) ((from + i) % 251);
+		}
+		return bytes;
+	}
+
 	private static Object file(Request request, Response response) throws Exception {
 		 File f = TestUtil.rezFile("/image.jpg");
 		 response.raw().setContentType("application/octet-stream");
@@ -137,6 +330,64 @@ public class MockServer {
 		 return null;
 	}
 
+	/**
+	 * Caching headers come from the query string, e.g. /cached?cc=max-age=60&etag=abc
+	 * and it can be made to take a while with sleep=millis
+	 */
+	private static Object cached(Request request, Response response) throws InterruptedException {
+		cachedHits.incrementAndGet();
+		if (request.queryParams("sleep") != null) {
+			Thread.sleep(Long.parseLong(request.queryParams("sleep")));
+		}
+		String etag = request.queryParams("etag");
+		String lastModified = request.queryParams("lm");
+		if (request.queryParams("cc") != null) {
+			response.header("Cache-Control", request.queryParams("cc"));
+		}
+		if (request.queryParams("vary") != null) {
+			response.header("Vary", request.queryParams("vary"));
+		}
+		if (etag != null) {
+			response.header("ETag", etag);
+			if (etag.equals(request.headers("If-None-Match"))) {
+				response.header("X-Revalidated", "true");
+				Spark.halt(304);
+			}
+		}
+		if (lastModified != null) {
+			response.header("Last-Modified", lastModified);
+			if (lastModified.equals(request.headers("If-Modified-Since"))) {
+				response.header("X-Revalidated", "true");
+				Spark.halt(304);
+			}
+		}
+		return jsonResponse(request, response);
+	}
+
+	/**
+	 * Fails the first ?fail=n requests for each ?key with ?status (503 by default)
+	 * and an optional ?retryAfter header. The first ?slow=n requests take ?sleep millis.
+	 */
+	private static Object flaky(Request request, Response response) throws InterruptedException {
+		int hit = flakyHits(request.queryParams("key")).incrementAndGet();
+		if (request.queryParams("slow") != null && hit <= Integer.parseInt(request.queryParams("slow"))) {
+			Thread.sleep(Long.parseLong(request.queryParams("sleep")));
+		}
+		int fail = request.queryParams("fail") == null ? 0 : Integer.parseInt(request.queryParams("fail"));
+		if (hit <= fail) {
+			if (request.queryParams("retryAfter") != null) {
+				response.header("Retry-After", request.queryParams("retryAfter"));
+			}
+			String status = request.queryParams("status");
+			Spark.halt(status == null ? 503 : Integer.parseInt(status));
+		}
+		return jsonResponse(request, response);
+	}
+
+	public static AtomicInteger flakyHits(String key) {
+		return flakyHits.computeIfAbsent(String.valueOf(key), k -> new AtomicInteger());
+	}
+
 	private static Object nobody(Request request, Response response) {
 		Spark.halt(200);
 		return null;
@@ -0,0 +1,157 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.HttpResponse;
+import unirest.RequestOptions;
+import unirest.RetryPolicy;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class ParallelDownloadTest extends BddTest {
+    private static final int SIZE = 8 * 1024 * 1024;
+    private Path test = Paths.get("parallel.bin");
+
+    @Override
+    public void tearDown() {
+        try {
+            Files.delete(test);
+        } catch (Exception e) { }
+    }
+
+    @Test
+    public void downloadsTheRangesAtOnce() throws Exception {
+        HttpResponse<File> response = Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE)
+                .asFileParallel(test.toString(), 4);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(MockServer.pattern(0, SIZE), Files.readAllBytes(response.getBody().toPath()));
+        assertEquals(4, MockServer.flakyHits("ranges").get());
+    }
+
+    @Test
+    public void canDownloadAsync() throws Exception {
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE + 3)
+                .options(new RequestOptions().downloadSegments(3))
+                .asFileAsync(test.toString())
+                .get(10, TimeUnit.SECONDS)
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, SIZE + 3), Files.readAllBytes(result.toPath()));
+        assertEquals(3, MockServer.flakyHits("ranges").get());
+    }
+
+    @Test
+    public void asFileDownloadsTheRangesWhenTheOptionsSaySo() throws Exception {
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE)
+                .options(new RequestOptions().downloadSegments(2))
+                .asFile(test.toString())
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), Files.readAllBytes(result.toPath()));
+        assertEquals(2, MockServer.flakyHits("ranges").get());
+    }
+
+    @Test
+    public void aFailedSegmentIsRetriedOnItsOwn() throws Exception {
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE)
+                .queryString("failat", SIZE / 2)
+                .asFileParallel(test.toString(), 4)
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), Files.readAllBytes(result.toPath()));
+        assertEquals(5, MockServer.flakyHits("ranges").get());
+    }
+
+    @Test
+    public void givesUpWhenASegmentCannotBeFetched() throws Exception {
+        try {
+            Unirest.get(MockServer.BYTES)
+                    .queryString("size", SIZE)
+                    .queryString("failat", SIZE / 2)
+                    .options(new RequestOptions().retryPolicy(new RetryPolicy().maxAttempts(1)))
+                    .asFileParallel(test.toString(), 4);
+            fail();
+        } catch (UnirestException e) {
+            // expected
+        }
+
+        assertFalse(Files.exists(test));
+        assertEquals(Collections.emptyList(), leftovers());
+    }
+
+    @Test
+    public void serversWithoutRangesGetAPlainDownload() throws Exception {
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE)
+                .queryString("norange", true)
+                .asFileParallel(test.toString(), 4)
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, SIZE), Files.readAllBytes(result.toPath()));
+        assertEquals(0, MockServer.flakyHits("ranges").get());
+    }
+
+    @Test
+    public void smallFilesAreNotSplit() throws Exception {
+        File result = Unirest.get(MockServer.BYTES)
+                .queryString("size", 1000)
+                .asFileParallel(test.toString(), 4)
+                .getBody();
+
+        assertArrayEquals(MockServer.pattern(0, 1000), Files.readAllBytes(result.toPath()));
+        assertEquals(0, MockServer.flakyHits("ranges").get());
+    }
+
+    private List<Path> leftovers() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get("."))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("parallel.bin") && f.toString().endsWith(".tmp"))
+                    .collect(Collectors.toList());
+        }
+    }
+}
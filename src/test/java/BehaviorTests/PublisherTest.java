@@ -0,0 +1,252 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.BodyFlow;
+import unirest.ConnectionPoolStats;
+import unirest.GetRequest;
+import unirest.HttpResponse;
+import unirest.MetricsListener;
+import unirest.RetryPolicy;
+import unirest.Unirest;
+
+import java.io.ByteArrayOutputStream;
+import java.net.ConnectException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PublisherTest extends BddTest {
+    private static final int SIZE = 1024 * 1024;
+
+    @Test
+    public void theResponseIsReadyBeforeTheBody() throws Exception {
+        HttpResponse<BodyFlow.Publisher<ByteBuffer>> response = Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE)
+                .asPublisherAsync()
+                .get();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(String.valueOf(SIZE), response.getHeaders().getFirst("Content-Length"));
+
+        Collector collector = new Collector(Long.MAX_VALUE);
+        response.getBody().subscribe(collector);
+        assertArrayEquals(MockServer.pattern(0, SIZE), collector.bytes.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void chunksAreOnlySentWhenAskedFor() throws Exception {
+        Collector collector = new Collector(1);
+        Unirest.get(MockServer.BYTES)
+                .queryString("size", SIZE)
+                .asPublisherAsync()
+                .get()
+                .getBody()
+                .subscribe(collector);
+
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(1, collector.chunks.get());
+        assertFalse(collector.bytes.isDone());
+
+        collector.subscription.request(Long.MAX_VALUE);
+        assertEquals(SIZE, collector.bytes.get(5, TimeUnit.SECONDS).length);
+        assertTrue(collector.chunks.get() > 1);
+    }
+
+    @Test
+    public void cancellingAbortsTheRequestAndReleasesTheConnection() throws Exception {
+        AtomicReference<Supplier<ConnectionPoolStats>> pool = new AtomicReference<>();
+        Unirest.config().instrumentWith(new MetricsListener() {
+            @Override
+            public void onPool(String name, Supplier<ConnectionPoolStats> stats) {
+                if (name.equals("async")) {
+                    pool.set(stats);
+                }
+            }
+        });
+        Collector collector = new Collector(1);
+        Unirest.get(MockServer.BYTES)
+                .queryString("size", 32 * SIZE)
+                .asPublisherAsync()
+                .get()
+                .getBody()
+                .subscribe(collector);
+        collector.first.await(5, TimeUnit.SECONDS);
+
+        collector.subscription.cancel();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (pool.get().get().getLeased() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(0, pool.get().get().getLeased());
+        assertFalse(collector.bytes.isDone());
+    }
+
+    @Test
+    public void emptyBodiesComplete() throws Exception {
+        Collector collector = new Collector(1);
+        Unirest.get(MockServer.BYTES)
+                .queryString("size", 0)
+                .asPublisherAsync()
+                .get()
+                .getBody()
+                .subscribe(collector);
+
+        assertEquals(0, collector.bytes.get(5, TimeUnit.SECONDS).length);
+    }
+
+    @Test
+    public void aBodyCanOnlyBeSubscribedToOnce() throws Exception {
+        BodyFlow.Publisher<ByteBuffer> body = Unirest.get(MockServer.BYTES)
+                .queryString("size", 10)
+                .asPublisherAsync()
+                .get()
+                .getBody();
+        body.subscribe(new Collector(Long.MAX_VALUE));
+
+        Collector second = new Collector(1);
+        body.subscribe(second);
+
+        try {
+            second.bytes.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void failuresBeforeTheHeadersFailTheFuture() throws InterruptedException {
+        try {
+            Unirest.get("http://localhost:1/nothing").asPublisherAsync().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+    }
+
+    @Test
+    public void publishedResponsesAreRetried() throws Exception {
+        Unirest.config().retryPolicy(new RetryPolicy().backoff(1, 5));
+
+        HttpResponse<BodyFlow.Publisher<ByteBuffer>> response = Unirest.get(MockServer.FLAKY)
+                .queryString("key", "a")
+                .queryString("fail", 2)
+                .asPublisherAsync()
+                .get(5, TimeUnit.SECONDS);
+
+        Collector collector = new Collector(Long.MAX_VALUE);
+        response.getBody().subscribe(collector);
+        assertEquals(200, response.getStatus());
+        assertEquals(3, MockServer.flakyHits("a").get());
+        assertTrue(collector.bytes.get(5, TimeUnit.SECONDS).length > 0);
+    }
+
+    @Test
+    public void withAnAsyncExecutorTheBodyIsPublishedFromTheSyncClient() throws Exception {
+        ExecutorService requests = Executors.newSingleThreadExecutor();
+        try {
+            Unirest.config().asyncExecutor(requests);
+
+            Collector collector = new Collector(1);
+            Unirest.get(MockServer.BYTES)
+                    .queryString("size", SIZE)
+                    .asPublisherAsync()
+                    .get(5, TimeUnit.SECONDS)
+                    .getBody()
+                    .subscribe(collector);
+
+            assertEquals(1, collector.chunks.get());
+            collector.subscription.request(Long.MAX_VALUE);
+            assertArrayEquals(MockServer.pattern(0, SIZE), collector.bytes.get(5, TimeUnit.SECONDS));
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    public void theRequestHeadersAreLeftAlone() throws Exception {
+        GetRequest request = Unirest.get(MockServer.BYTES).queryString("size", 10);
+
+        Collector collector = new Collector(Long.MAX_VALUE);
+        request.asPublisherAsync().get(5, TimeUnit.SECONDS).getBody().subscribe(collector);
+        collector.bytes.get(5, TimeUnit.SECONDS);
+
+        assertFalse("identity".equals(request.getHeaders().getFirst("Accept-Encoding")));
+    }
+
+    private static class Collector implements BodyFlow.Subscriber<ByteBuffer> {
+        private final long initial;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> bytes = new CompletableFuture<>();
+        private final AtomicInteger chunks = new AtomicInteger();
+        private final CountDownLatch first = new CountDownLatch(1);
+        private volatile BodyFlow.Subscription subscription;
+
+        Collector(long initial) {
+            this.initial = initial;
+        }
+
+        @Override
+        public void onSubscribe(BodyFlow.Subscription s) {
+            subscription = s;
+            s.request(initial);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            chunks.incrementAndGet();
+            out.write(item.array(), item.arrayOffset() + item.position(), item.remaining());
+            first.countDown();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            bytes.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            bytes.complete(out.toByteArray());
+        }
+    }
+}
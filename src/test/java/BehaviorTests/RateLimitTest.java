@@ -0,0 +1,149 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.HttpMethod;
+import unirest.HttpResponse;
+import unirest.MetricsListener;
+import unirest.RateLimitExceededException;
+import unirest.Unirest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RateLimitTest extends BddTest {
+
+    @Test
+    public void requestsOverTheBurstWaitForAPermit() {
+        Unirest.config().rateLimit(MockServer.HOST, 5, 2);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertEquals(200, Unirest.get(MockServer.GET).asString().getStatus());
+        }
+
+        assertTrue(elapsedMillis(start) >= 350);
+    }
+
+    @Test
+    public void otherHostsAreNotLimited() {
+        Unirest.config().rateLimit("http://example.com", 1, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            Unirest.get(MockServer.GET).asString();
+        }
+
+        assertTrue(elapsedMillis(start) < 1000);
+    }
+
+    @Test
+    public void failsRatherThanWaitingLongerThanTheConnectionRequestTimeout() {
+        Unirest.config().rateLimit(MockServer.HOST, 1, 1).connectionRequestTimeout(100);
+        Unirest.get(MockServer.GET).asString();
+
+        try {
+            Unirest.get(MockServer.GET).asString();
+            fail();
+        } catch (RateLimitExceededException e) {
+            assertEquals(MockServer.HOST, e.getHost());
+        }
+    }
+
+    @Test
+    public void aTimeoutOfZeroWaitsAsLongAsItTakes() {
+        Unirest.config().rateLimit(MockServer.HOST, 5, 1).socketTimeout(0);
+        Unirest.get(MockServer.GET).asString();
+
+        long start = System.nanoTime();
+        assertEquals(200, Unirest.get(MockServer.GET).asString().getStatus());
+
+        assertTrue(elapsedMillis(start) >= 150);
+    }
+
+    @Test
+    public void asyncRequestsAreDeferredWithoutBlockingTheCaller() throws ExecutionException, InterruptedException {
+        Unirest.config().rateLimit(MockServer.HOST, 4, 1);
+        Unirest.get(MockServer.GET).asString();
+
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> first = Unirest.get(MockServer.GET).asStringAsync();
+        CompletableFuture<HttpResponse<String>> second = Unirest.get(MockServer.GET).asStringAsync();
+
+        assertTrue(elapsedMillis(start) < 200);
+        assertFalse(second.isDone());
+        assertEquals(200, first.get().getStatus());
+        assertEquals(200, second.get().getStatus());
+        assertTrue(elapsedMillis(start) >= 450);
+    }
+
+    @Test
+    public void asyncRequestsFailWhenThePermitIsTooFarAway() throws InterruptedException {
+        Unirest.config().rateLimit(MockServer.HOST, 1, 1).connectionRequestTimeout(100);
+        Unirest.get(MockServer.GET).asString();
+
+        try {
+            Unirest.get(MockServer.GET).asStringAsync().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RateLimitExceededException);
+        }
+    }
+
+    @Test
+    public void theWaitIsReportedToMetrics() {
+        List<Long> waits = Collections.synchronizedList(new ArrayList<>());
+        Unirest.config().rateLimit(MockServer.HOST, 5, 1).instrumentWith(new MetricsListener() {
+            @Override
+            public void onPhase(HttpMethod method, String route, Phase phase, long nanos) {
+                if (phase == Phase.RATE_LIMIT) {
+                    waits.add(TimeUnit.NANOSECONDS.toMillis(nanos));
+                }
+            }
+        });
+
+        Unirest.get(MockServer.GET).asString();
+        Unirest.get(MockServer.GET).asString();
+
+        assertEquals(1, waits.size());
+        assertTrue(waits.get(0) > 100);
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.HttpResponse;
+import unirest.ResponseCache;
+import unirest.Unirest;
+
+import java.util.concurrent.ExecutionException;
+
+import static BehaviorTests.MockServer.cachedHits;
+import static org.junit.Assert.assertEquals;
+
+public class ResponseCacheTest extends BddTest {
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2015 07:28:00 GMT";
+    private ResponseCache cache = ResponseCache.inMemory(100, 1024 * 1024);
+
+    @Override
+    public void setUp() {
+        super.setUp();
+        Unirest.config().cache(cache);
+    }
+
+    @Test
+    public void freshResponsesAreServedFromTheCache() {
+        get("max-age=60").assertParam("foo", "bar");
+        HttpResponse<RequestCapture> second = Unirest.get(MockServer.CACHED)
+                .queryString("cc", "max-age=60")
+                .queryString("foo", "bar")
+                .asObject(RequestCapture.class);
+
+        assertEquals(200, second.getStatus());
+        second.getBody().assertParam("foo", "bar");
+        assertEquals(1, cachedHits.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void differentUrlsAreDifferentEntries() {
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").queryString("a", 1).asString();
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").queryString("a", 2).asString();
+
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void noStoreIsNeverCached() {
+        get("no-store");
+        get("no-store");
+
+        assertEquals(2, cachedHits.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void staleEntriesAreRevalidatedWithTheETag() {
+        Unirest.get(MockServer.CACHED).queryString("etag", "\"v1\"").asObject(RequestCapture.class)
+                .getBody()
+                .assertNoHeader("If-None-Match");
+
+        HttpResponse<RequestCapture> second = Unirest.get(MockServer.CACHED)
+                .queryString("etag", "\"v1\"")
+                .asObject(RequestCapture.class);
+
+        assertEquals(2, cachedHits.get());
+        assertEquals(200, second.getStatus());
+        assertEquals("true", second.getHeaders().getFirst("X-Revalidated"));
+        second.getBody().assertNoHeader("If-None-Match");
+    }
+
+    @Test
+    public void staleEntriesAreRevalidatedWithLastModified() {
+        Unirest.get(MockServer.CACHED).queryString("cc", "no-cache").queryString("lm", LAST_MODIFIED).asString();
+        HttpResponse<String> second = Unirest.get(MockServer.CACHED)
+                .queryString("cc", "no-cache")
+                .queryString("lm", LAST_MODIFIED)
+                .asString();
+
+        assertEquals(2, cachedHits.get());
+        assertEquals(200, second.getStatus());
+        assertEquals("true", second.getHeaders().getFirst("X-Revalidated"));
+        assertEquals(LAST_MODIFIED, second.getHeaders().getFirst("Last-Modified"));
+    }
+
+    @Test
+    public void requestsCanAskToRevalidate() {
+        get("max-age=60");
+        Unirest.get(MockServer.CACHED)
+                .queryString("cc", "max-age=60")
+                .queryString("foo", "bar")
+                .header("Cache-Control", "no-cache")
+                .asString();
+
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void asyncRequestsUseTheCacheToo() throws ExecutionException, InterruptedException {
+        get("max-age=60");
+
+        HttpResponse<RequestCapture> second = Unirest.get(MockServer.CACHED)
+                .queryString("cc", "max-age=60")
+                .queryString("foo", "bar")
+                .asObjectAsync(RequestCapture.class)
+                .get();
+
+        second.getBody().assertParam("foo", "bar");
+        assertEquals(1, cachedHits.get());
+    }
+
+    @Test
+    public void asyncRevalidation() throws ExecutionException, InterruptedException {
+        Unirest.get(MockServer.CACHED).queryString("etag", "abc").asStringAsync().get();
+        HttpResponse<String> second = Unirest.get(MockServer.CACHED).queryString("etag", "abc").asStringAsync().get();
+
+        assertEquals(2, cachedHits.get());
+        assertEquals(200, second.getStatus());
+        assertEquals("true", second.getHeaders().getFirst("X-Revalidated"));
+        assertEquals("abc", second.getHeaders().getFirst("ETag"));
+    }
+
+    @Test
+    public void varyHeadersMustMatch() {
+        getVary("en");
+        getVary("en");
+        assertEquals(1, cachedHits.get());
+
+        getVary("fr");
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void eachVariantIsKept() {
+        getVary("en");
+        getVary("fr");
+        getVary("en");
+        getVary("fr");
+
+        assertEquals(2, cachedHits.get());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void unsafeRequestsInvalidateEveryVariant() {
+        getVary("en");
+        getVary("fr");
+        Unirest.post(MockServer.CACHED).queryString("cc", "max-age=60").queryString("vary", "Accept-Language").asString();
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void unsafeRequestsInvalidateTheUrl() {
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").asString();
+        Unirest.post(MockServer.CACHED).queryString("cc", "max-age=60").asString();
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").asString();
+
+        assertEquals(2, cachedHits.get());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreEvicted() {
+        Unirest.config().reset().cache(ResponseCache.inMemory(2, 1024 * 1024));
+        for (int i = 0; i < 3; i++) {
+            Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").queryString("i", i).asString();
+        }
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").queryString("i", 0).asString();
+
+        assertEquals(4, cachedHits.get());
+    }
+
+    @Test
+    public void rangedRequestsSkipTheCache() {
+        get("max-age=60");
+        Unirest.get(MockServer.CACHED)
+                .queryString("cc", "max-age=60")
+                .queryString("foo", "bar")
+                .header("Range", "bytes=0-9")
+                .asString();
+        Unirest.get(MockServer.CACHED)
+                .queryString("cc", "max-age=60")
+                .queryString("other", "one")
+                .header("Range", "bytes=0-9")
+                .asString();
+
+        assertEquals(3, cachedHits.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void credentialedResponsesAreOnlyStoredWhenPublic() {
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").header("Authorization", "Basic Zm9vOmJhcg==").asString();
+        Unirest.get(MockServer.CACHED).queryString("cc", "max-age=60").header("Cookie", "session=1").asString();
+        assertEquals(0, cache.size());
+
+        Unirest.get(MockServer.CACHED).queryString("cc", "public, max-age=60").header("Authorization", "Basic Zm9vOmJhcg==").asString();
+        assertEquals(1, cache.size());
+    }
+
+    private RequestCapture get(String cacheControl) {
+        return Unirest.get(MockServer.CACHED)
+                .queryString("cc", cacheControl)
+                .queryString("foo", "bar")
+                .asObject(RequestCapture.class)
+                .getBody();
+    }
+
+    private void getVary(String language) {
+        Unirest.get(MockServer.CACHED)
+                .queryString("cc", "max-age=60")
+                .queryString("vary", "Accept-Language")
+                .header("Accept-Language", language)
+                .asString();
+    }
+}
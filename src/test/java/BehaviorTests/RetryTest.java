@@ -0,0 +1,205 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.GetRequest;
+import unirest.HttpMethod;
+import unirest.HttpResponse;
+import unirest.RequestOptions;
+import unirest.RetryPolicy;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.io.ByteArrayInputStream;
+import java.net.ConnectException;
+import java.util.concurrent.ExecutionException;
+
+import static BehaviorTests.MockServer.flakyHits;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryTest extends BddTest {
+    private RetryPolicy fast = new RetryPolicy().backoff(1, 5);
+
+    @Test
+    public void retriesUntilTheRequestSucceeds() {
+        Unirest.config().retryPolicy(fast);
+
+        HttpResponse<RequestCapture> response = flaky("a", 2).asObject(RequestCapture.class);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(3, flakyHits("a").get());
+    }
+
+    @Test
+    public void asyncRequestsAreRetriedToo() throws ExecutionException, InterruptedException {
+        Unirest.config().retryPolicy(fast);
+
+        HttpResponse<String> response = flaky("a", 2).asStringAsync().get();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(3, flakyHits("a").get());
+    }
+
+    @Test
+    public void givesUpAfterMaxAttempts() throws ExecutionException, InterruptedException {
+        Unirest.config().retryPolicy(fast.maxAttempts(2));
+
+        assertEquals(503, flaky("a", 5).asString().getStatus());
+        assertEquals(503, flaky("b", 5).asStringAsync().get().getStatus());
+
+        assertEquals(2, flakyHits("a").get());
+        assertEquals(2, flakyHits("b").get());
+    }
+
+    @Test
+    public void nothingIsRetriedWithoutAPolicy() {
+        assertEquals(503, flaky("a", 1).asString().getStatus());
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void onlyIdempotentMethodsAreRetriedByDefault() {
+        Unirest.config().retryPolicy(fast);
+
+        int status = Unirest.post(MockServer.FLAKY).queryString("key", "a").queryString("fail", 1).asString().getStatus();
+
+        assertEquals(503, status);
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void otherMethodsCanBeRetriedIfAskedFor() {
+        Unirest.config().retryPolicy(fast.retryMethods(HttpMethod.POST));
+
+        int status = Unirest.post(MockServer.FLAKY).queryString("key", "a").queryString("fail", 1).asString().getStatus();
+
+        assertEquals(200, status);
+    }
+
+    @Test
+    public void onlyConfiguredStatusesAreRetried() {
+        Unirest.config().retryPolicy(fast.retryOnStatus(500));
+
+        assertEquals(503, flaky("a", 1).asString().getStatus());
+        assertEquals(200, flaky("b", 1).queryString("status", 500).asString().getStatus());
+    }
+
+    @Test
+    public void requestsCanHaveTheirOwnPolicy() {
+        HttpResponse<String> response = flaky("a", 1).options(new RequestOptions().retryPolicy(fast)).asString();
+
+        assertEquals(200, response.getStatus());
+        assertEquals(2, flakyHits("a").get());
+    }
+
+    @Test
+    public void requestsCanOptOut() {
+        Unirest.config().retryPolicy(fast);
+
+        flaky("a", 1).options(new RequestOptions().retryPolicy(new RetryPolicy().maxAttempts(1))).asString();
+
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void theBudgetLimitsRetries() {
+        Unirest.config().retryPolicy(fast.budget(0, 1));
+
+        assertEquals(200, flaky("a", 1).asString().getStatus());
+        assertEquals(503, flaky("b", 1).asString().getStatus());
+
+        assertEquals(2, flakyHits("a").get());
+        assertEquals(1, flakyHits("b").get());
+    }
+
+    @Test
+    public void aShortRetryAfterIsHonored() {
+        Unirest.config().retryPolicy(new RetryPolicy().backoff(1, 2000).retryOnStatus(429));
+        long start = System.currentTimeMillis();
+
+        int status = flaky("a", 1).queryString("status", 429).queryString("retryAfter", 1).asString().getStatus();
+
+        assertEquals(200, status);
+        assertTrue(System.currentTimeMillis() - start >= 1000);
+    }
+
+    @Test
+    public void aRetryAfterLongerThanTheMaxDelayIsNotRetried() {
+        Unirest.config().retryPolicy(new RetryPolicy().backoff(1, 500).retryOnStatus(429));
+
+        int status = flaky("a", 1).queryString("status", 429).queryString("retryAfter", 60).asString().getStatus();
+
+        assertEquals(429, status);
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void bodiesThatCantBeSentTwiceAreNotRetried() {
+        Unirest.config().retryPolicy(fast);
+
+        int status = Unirest.put(MockServer.FLAKY)
+                .queryString("key", "a")
+                .queryString("fail", 1)
+                .field("file", new ByteArrayInputStream(new byte[]{1, 2, 3}), "file.bin")
+                .asString()
+                .getStatus();
+
+        assertEquals(503, status);
+        assertEquals(1, flakyHits("a").get());
+    }
+
+    @Test
+    public void connectionFailuresAreRetriedAndThenThrown() {
+        Unirest.config().retryPolicy(fast);
+
+        try {
+            Unirest.get("http://localhost:1/nothing").asString();
+            fail("should have failed");
+        } catch (UnirestException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+    }
+
+    @Test
+    public void asyncConnectionFailuresAreUnwrapped() throws InterruptedException {
+        Unirest.config().retryPolicy(fast);
+
+        try {
+            Unirest.get("http://localhost:1/nothing").asStringAsync().get();
+            fail("should have failed");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+    }
+
+    private GetRequest flaky(String key, int failures) {
+        return Unirest.get(MockServer.FLAKY).queryString("key", key).queryString("fail", failures);
+    }
+}
@@ -0,0 +1,206 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package BehaviorTests;
+
+import org.junit.Test;
+import unirest.CircuitBreaker;
+import unirest.CircuitBreakerOpenException;
+import unirest.ConnectionPoolStats;
+import unirest.HttpResponse;
+import unirest.MetricsListener;
+import unirest.Unirest;
+import unirest.UnirestException;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamTest extends BddTest {
+
+    @Test
+    public void canStreamTheElementsOfAnArray() {
+        HttpResponse<Stream<Foo>> response = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 1000)
+                .asStream(Foo.class);
+
+        assertEquals(200, response.getStatus());
+        try (Stream<Foo> body = response.getBody()) {
+            assertEquals(expected(1000), body.map(f -> f.bar).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void canStreamNewlineDelimitedJson() {
+        try (Stream<Foo> body = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 1000)
+                .queryString("ndjson", true)
+                .asStream(Foo.class)
+                .getBody()) {
+            assertEquals(expected(1000), body.map(f -> f.bar).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void emptyArraysAreEmptyStreams() {
+        try (Stream<Foo> body = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 0)
+                .asStream(Foo.class)
+                .getBody()) {
+            assertEquals(0, body.count());
+        }
+    }
+
+    @Test
+    public void closingTheStreamEarlyReleasesTheConnection() throws Exception {
+        Supplier<ConnectionPoolStats> pool = pool("sync");
+        try (Stream<Foo> body = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 1000000)
+                .asStream(Foo.class)
+                .getBody()) {
+            assertEquals(expected(10), body.limit(10).map(f -> f.bar).collect(Collectors.toList()));
+        }
+
+        awaitReleased(pool);
+        assertEquals(200, Unirest.get(MockServer.GET).asString().getStatus());
+    }
+
+    @Test
+    public void streamsGoThroughTheCircuitBreaker() throws InterruptedException {
+        Unirest.config().circuitBreaker(new CircuitBreaker().slidingWindow(2, 2).waitInOpen(60000));
+        for (int i = 0; i < 2; i++) {
+            Unirest.get(MockServer.FLAKY)
+                    .queryString("key", "a")
+                    .queryString("fail", 100)
+                    .queryString("status", 500)
+                    .asString();
+        }
+
+        try {
+            Unirest.get(MockServer.RECORDS).asStream(Foo.class);
+            fail();
+        } catch (CircuitBreakerOpenException e) {
+            // expected
+        }
+        try {
+            Unirest.get(MockServer.RECORDS).asStreamAsync(Foo.class).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof CircuitBreakerOpenException);
+        }
+    }
+
+    @Test
+    public void malformedBodiesFailWhileStreaming() {
+        try (Stream<Foo> body = Unirest.get(MockServer.INVALID_REQUEST)
+                .asStream(Foo.class)
+                .getBody()) {
+            body.count();
+            fail();
+        } catch (UnirestException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void canStreamAsync() throws Exception {
+        HttpResponse<Stream<Foo>> response = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 1000)
+                .asStreamAsync(Foo.class)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(200, response.getStatus());
+        try (Stream<Foo> body = response.getBody()) {
+            assertEquals(expected(1000), body.map(f -> f.bar).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void theAsyncStreamCanBeReadInACallback() throws Exception {
+        List<String> bars = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 100000)
+                .queryString("ndjson", true)
+                .asStreamAsync(Foo.class)
+                .thenApply(r -> {
+                    try (Stream<Foo> body = r.getBody()) {
+                        return body.map(f -> f.bar).collect(Collectors.toList());
+                    }
+                })
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(expected(100000), bars);
+    }
+
+    @Test
+    public void closingTheAsyncStreamEarlyAbortsTheRequest() throws Exception {
+        Supplier<ConnectionPoolStats> pool = pool("async");
+        try (Stream<Foo> body = Unirest.get(MockServer.RECORDS)
+                .queryString("count", 1000000)
+                .asStreamAsync(Foo.class)
+                .get(5, TimeUnit.SECONDS)
+                .getBody()) {
+            assertEquals(expected(10), body.limit(10).map(f -> f.bar).collect(Collectors.toList()));
+        }
+
+        awaitReleased(pool);
+    }
+
+    private Supplier<ConnectionPoolStats> pool(String name) {
+        AtomicReference<Supplier<ConnectionPoolStats>> pool = new AtomicReference<>();
+        Unirest.config().instrumentWith(new MetricsListener() {
+            @Override
+            public void onPool(String n, Supplier<ConnectionPoolStats> stats) {
+                if (n.equals(name)) {
+                    pool.set(stats);
+                }
+            }
+        });
+        Unirest.get(MockServer.GET).asString();
+        Unirest.get(MockServer.GET).asStringAsync().join();
+        return pool.get();
+    }
+
+    private void awaitReleased(Supplier<ConnectionPoolStats> pool) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (pool.get().getLeased() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertEquals(0, pool.get().getLeased());
+    }
+
+    private static List<String> expected(int count) {
+        return IntStream.range(0, count).mapToObj(String::valueOf).collect(Collectors.toList());
+    }
+}
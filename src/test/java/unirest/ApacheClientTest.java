@@ -0,0 +1,81 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ApacheClientTest {
+
+    private ApacheClient client;
+
+    @After
+    public void tearDown() {
+        client.close();
+    }
+
+    @Test
+    public void poolUsesTheConfiguredConcurrency() {
+        client = new ApacheClient(new Config().concurrency(400, 50));
+
+        PoolingHttpClientConnectionManager manager = client.getManager();
+
+        assertEquals(400, manager.getMaxTotal());
+        assertEquals(50, manager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    public void canOverrideTheLimitForSpecificRoutes() {
+        client = new ApacheClient(new Config()
+                .concurrency(400, 50)
+                .maxPerRoute("https://api.example.com", 100)
+                .maxPerRoute("localhost:8080", 5));
+
+        PoolingHttpClientConnectionManager manager = client.getManager();
+
+        assertEquals(100, manager.getMaxPerRoute(new HttpRoute(new HttpHost("api.example.com", 443, "https"), null, true)));
+        assertEquals(5, manager.getMaxPerRoute(new HttpRoute(new HttpHost("localhost", 8080, "http"))));
+        assertEquals(50, manager.getMaxPerRoute(new HttpRoute(new HttpHost("other.example.com", 80, "http"))));
+    }
+
+    @Test
+    public void routeOverridesAccountForTheProxy() {
+        HttpHost proxy = new HttpHost("proxy.example.com", 3128);
+        client = new ApacheClient(new Config()
+                .proxy(proxy)
+                .maxPerRoute("http://api.example.com", 12));
+
+        HttpRoute route = new HttpRoute(new HttpHost("api.example.com", 80, "http"), null, proxy, false);
+
+        assertEquals(12, client.getManager().getMaxPerRoute(route));
+    }
+}
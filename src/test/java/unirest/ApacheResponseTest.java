@@ -0,0 +1,206 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.ContentTooLongException;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ApacheResponseTest {
+
+    @Test
+    public void readsBodiesWithAKnownLength() {
+        byte[] body = new byte[20000];
+        body[19999] = 42;
+
+        assertArrayEquals(body, new ApacheResponse(response(new ByteArrayEntity(body))).getContentAsBytes());
+    }
+
+    @Test
+    public void readsBodiesWithoutALength() {
+        byte[] body = new byte[20000];
+        body[19999] = 42;
+
+        assertArrayEquals(body, new ApacheResponse(response(streaming(body))).getContentAsBytes());
+    }
+
+    @Test
+    public void theContentLengthIsNotTrustedWithTheWholeAllocation() {
+        byte[] body = "hi there".getBytes();
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(body));
+        entity.setContentLength(Integer.MAX_VALUE - 8);
+
+        assertArrayEquals(body, new ApacheResponse(response(entity)).getContentAsBytes());
+    }
+
+    @Test
+    public void longBodiesWithAKnownLengthGrowAsTheyAreRead() {
+        byte[] body = new byte[3 * 1024 * 1024];
+        body[body.length - 1] = 42;
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new ByteArrayInputStream(body));
+        entity.setContentLength(body.length);
+
+        assertArrayEquals(body, new ApacheResponse(response(entity)).getContentAsBytes());
+    }
+
+    @Test
+    public void bodiesUnderTheLimitAreFine() {
+        byte[] body = "hi there".getBytes();
+
+        assertArrayEquals(body, new ApacheResponse(response(streaming(body)), 8, BufferPool.NONE).getContentAsBytes());
+    }
+
+    @Test
+    public void failsFastWhenTheContentLengthIsTooLong() {
+        CountingStream stream = new CountingStream(new byte[100]);
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(stream);
+        entity.setContentLength(100);
+
+        assertTooLong(() -> new ApacheResponse(response(entity), 10, BufferPool.NONE).getContentAsBytes());
+        assertEquals(0, stream.read);
+    }
+
+    @Test
+    public void stopsReadingWhenTheBodyIsTooLong() {
+        CountingStream stream = new CountingStream(new byte[100000]);
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(stream);
+
+        assertTooLong(() -> new ApacheResponse(response(entity), 10000, BufferPool.NONE).getContentAsBytes());
+        assertTrue(stream.read < 20000);
+    }
+
+    @Test
+    public void theLimitAppliesToTheDecodedBody() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(new byte[100000]);
+        }
+        ByteArrayEntity entity = new ByteArrayEntity(out.toByteArray());
+        entity.setContentEncoding("gzip");
+
+        assertTooLong(() -> new ApacheResponse(response(entity), 1000, BufferPool.NONE).getContentAsBytes());
+    }
+
+    @Test
+    public void theLimitAppliesToStreams() {
+        InputStream content = new ApacheResponse(response(streaming(new byte[100])), 10, BufferPool.NONE).getContent();
+
+        try {
+            content.read(new byte[100]);
+            fail("should have thrown");
+        } catch (IOException e) {
+            assertEquals(ContentTooLongException.class, e.getClass());
+        }
+    }
+
+    @Test
+    public void pooledBuffersGrowForLongBodies() {
+        BufferPool pool = BufferPool.threadLocal(1024 * 1024);
+        byte[] body = new byte[100000];
+        body[99999] = 42;
+
+        assertArrayEquals(body, new ApacheResponse(response(streaming(body)), 0, pool).getContentAsBytes());
+        assertArrayEquals(body, new ApacheResponse(response(streaming(body)), 0, pool).getContentAsBytes());
+    }
+
+    @Test
+    public void stringsAreDecodedStraightFromThePooledBuffer() {
+        BufferPool pool = BufferPool.threadLocal(1024 * 1024);
+        ByteArrayEntity entity = new ByteArrayEntity("hÿ there".getBytes(StandardCharsets.ISO_8859_1));
+        entity.setContentType("text/plain; charset=ISO-8859-1");
+
+        assertEquals("hÿ there", new ApacheResponse(response(entity), 0, pool).getContentAsString());
+        assertEquals("hi", new ApacheResponse(response(streaming("hi".getBytes())), 0, pool).getContentAsString());
+    }
+
+    private void assertTooLong(Runnable r) {
+        try {
+            r.run();
+            fail("should have thrown");
+        } catch (UnirestException e) {
+            assertEquals(ContentTooLongException.class, e.getCause().getClass());
+        }
+    }
+
+    private BasicHttpResponse response(org.apache.http.HttpEntity entity) {
+        BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+        response.setEntity(entity);
+        return response;
+    }
+
+    private BasicHttpEntity streaming(byte[] body) {
+        BasicHttpEntity entity = new BasicHttpEntity();
+        entity.setContent(new CountingStream(body));
+        return entity;
+    }
+
+    private static class CountingStream extends InputStream {
+        private final ByteArrayInputStream in;
+        private int read;
+
+        CountingStream(byte[] body) {
+            this.in = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            int b = in.read();
+            if (b != -1) {
+                read++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            int r = in.read(b, off, len);
+            if (r > 0) {
+                read += r;
+            }
+            return r;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BufferPoolTest {
+
+    @Test
+    public void releasedBuffersAreReused() {
+        BufferPool pool = BufferPool.threadLocal(1024);
+        byte[] bytes = pool.acquireBytes(100);
+        char[] chars = pool.acquireChars(100);
+        pool.release(bytes);
+        pool.release(chars);
+
+        assertSame(bytes, pool.acquireBytes(50));
+        assertSame(chars, pool.acquireChars(50));
+    }
+
+    @Test
+    public void aBufferCanOnlyBeHandedOutOnce() {
+        BufferPool pool = BufferPool.threadLocal(1024);
+        byte[] bytes = pool.acquireBytes(100);
+        pool.release(bytes);
+
+        assertSame(bytes, pool.acquireBytes(100));
+        assertNotSame(bytes, pool.acquireBytes(100));
+    }
+
+    @Test
+    public void buffersThatAreTooSmallAreNotUsed() {
+        BufferPool pool = BufferPool.threadLocal(1024);
+        pool.release(new byte[10]);
+
+        assertEquals(100, pool.acquireBytes(100).length);
+    }
+
+    @Test
+    public void buffersOverTheLimitAreNotKept() {
+        BufferPool pool = BufferPool.threadLocal(1024);
+        byte[] big = new byte[2048];
+        pool.release(big);
+
+        assertNotSame(big, pool.acquireBytes(10));
+    }
+
+    @Test
+    public void noPoolNeverKeepsAnything() {
+        byte[] bytes = BufferPool.NONE.acquireBytes(10);
+        BufferPool.NONE.release(bytes);
+
+        assertNotSame(bytes, BufferPool.NONE.acquireBytes(10));
+    }
+
+    @Test
+    public void buffersAreNotSharedBetweenThreads() throws InterruptedException {
+        BufferPool pool = BufferPool.threadLocal(1024);
+        byte[] bytes = pool.acquireBytes(100);
+        pool.release(bytes);
+        byte[][] other = new byte[1][];
+
+        Thread t = new Thread(() -> other[0] = pool.acquireBytes(100));
+        t.start();
+        t.join();
+
+        assertNotSame(bytes, other[0]);
+    }
+
+    @Test
+    public void canDecodeIntoAPooledReader() {
+        BufferPool pool = BufferPool.threadLocal(1024);
+        byte[] body = "{\"ä\":\"ÿ\"}".getBytes(StandardCharsets.UTF_8);
+
+        JsonNode node = pool.decode(body, body.length, StandardCharsets.UTF_8, r -> {
+            assertTrue(r.markSupported());
+            return JsonNode.read(r);
+        });
+
+        assertEquals("ÿ", node.getObject().getString("ä"));
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.client.utils.DateUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachePolicyTest {
+    private static final long NOW = 1_500_000_000_000L;
+    private static final Map<String, String> NONE = Collections.emptyMap();
+
+    @Test
+    public void parsesCacheControl() {
+        Map<String, String> directives = CachePolicy.cacheControl(Arrays.asList("Max-Age=60, no-cache", "private=\"Set-Cookie\""));
+
+        assertEquals("60", directives.get("max-age"));
+        assertEquals("", directives.get("no-cache"));
+        assertEquals("Set-Cookie", directives.get("private"));
+    }
+
+    @Test
+    public void maxAgeWinsOverExpires() {
+        Headers headers = headers("Cache-Control", "max-age=10");
+        headers.add("Date", date(NOW));
+        headers.add("Expires", date(NOW + 60_000));
+
+        assertEquals(10_000, CachePolicy.freshnessLifetime(headers, CachePolicy.cacheControl(headers.get("Cache-Control"))));
+    }
+
+    @Test
+    public void expiresIsRelativeToTheServerDate() {
+        Headers headers = headers("Date", date(NOW));
+        headers.add("Expires", date(NOW + 60_000));
+
+        assertEquals(60_000, CachePolicy.freshnessLifetime(headers, NONE));
+    }
+
+    @Test
+    public void invalidExpiresMeansAlreadyExpired() {
+        Headers headers = headers("Date", date(NOW));
+        headers.add("Expires", "0");
+
+        assertEquals(0, CachePolicy.freshnessLifetime(headers, NONE));
+    }
+
+    @Test
+    public void lastModifiedGivesAHeuristicLifetime() {
+        Headers headers = headers("Date", date(NOW));
+        headers.add("Last-Modified", date(NOW - 100_000));
+
+        assertEquals(10_000, CachePolicy.freshnessLifetime(headers, NONE));
+    }
+
+    @Test
+    public void ageIncludesTheAgeHeaderAndTimeInTheCache() {
+        CacheEntry entry = entry(headers("Age", "5"), NOW - 1000, NOW);
+
+        assertEquals(5_000 + 1_000 + 2_000, CachePolicy.currentAge(entry, NOW + 2000));
+    }
+
+    @Test
+    public void freshness() {
+        CacheEntry entry = entry(headers("Cache-Control", "max-age=10"), NOW, NOW);
+
+        assertTrue(CachePolicy.isFresh(entry, NONE, NOW + 9_000));
+        assertFalse(CachePolicy.isFresh(entry, NONE, NOW + 10_000));
+        assertFalse(CachePolicy.isFresh(entry, CachePolicy.cacheControl(Arrays.asList("max-age=5")), NOW + 6_000));
+        assertFalse(CachePolicy.isFresh(entry, CachePolicy.cacheControl(Arrays.asList("min-fresh=5")), NOW + 6_000));
+        assertFalse(CachePolicy.isFresh(entry, CachePolicy.cacheControl(Arrays.asList("no-cache")), NOW));
+    }
+
+    @Test
+    public void whatCanBeStored() {
+        assertTrue(CachePolicy.canStore(NONE, false, 200, headers("Cache-Control", "max-age=10")));
+        assertTrue(CachePolicy.canStore(NONE, false, 200, headers("ETag", "abc")));
+        assertTrue(CachePolicy.canStore(NONE, false, 500, headers("Cache-Control", "max-age=10")));
+        assertFalse(CachePolicy.canStore(NONE, false, 200, headers("Date", date(NOW))));
+        assertFalse(CachePolicy.canStore(NONE, false, 500, headers("ETag", "abc")));
+        assertFalse(CachePolicy.canStore(NONE, false, 206, headers("Cache-Control", "max-age=10")));
+        assertFalse(CachePolicy.canStore(NONE, false, 200, headers("Cache-Control", "max-age=10, no-store")));
+        assertFalse(CachePolicy.canStore(CachePolicy.cacheControl(Arrays.asList("no-store")), false, 200, headers("ETag", "abc")));
+        assertFalse(CachePolicy.canStore(NONE, false, 200, vary("*")));
+    }
+
+    @Test
+    public void credentialedResponsesMustBeShareable() {
+        assertFalse(CachePolicy.canStore(NONE, true, 200, headers("Cache-Control", "max-age=10")));
+        assertFalse(CachePolicy.canStore(NONE, true, 200, headers("ETag", "abc")));
+        assertTrue(CachePolicy.canStore(NONE, true, 200, headers("Cache-Control", "public, max-age=10")));
+        assertTrue(CachePolicy.canStore(NONE, true, 200, headers("Cache-Control", "max-age=10, s-maxage=10")));
+    }
+
+    private Headers vary(String value) {
+        Headers headers = headers("ETag", "abc");
+        headers.add("Vary", value);
+        return headers;
+    }
+
+    private CacheEntry entry(Headers headers, long requestTime, long responseTime) {
+        return new CacheEntry(200, "OK", headers, CacheEntry.Body.EMPTY, Collections.emptyMap(), requestTime, responseTime);
+    }
+
+    private Headers headers(String name, String value) {
+        Headers headers = new Headers();
+        headers.add(name, value);
+        return headers;
+    }
+
+    private String date(long millis) {
+        return DateUtils.formatDate(new Date(millis));
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.StringBody;
+import org.apache.http.nio.ContentEncoder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompressingEntityTest {
+    private final byte[] stream = new byte[200000];
+
+    @Test
+    public void gzipsWhatTheEntityWrites() throws IOException {
+        HttpEntity entity = CompressingEntity.of(multipart(), "gzip", 0);
+
+        assertArrayEquals(writeTo(multipart()), gunzip(writeTo(entity)));
+    }
+
+    @Test
+    public void deflatesWhatTheEntityWrites() throws IOException {
+        HttpEntity entity = CompressingEntity.of(new StringEntity("hi there"), "deflate", 0);
+
+        assertArrayEquals("hi there".getBytes(), inflate(writeTo(entity)));
+    }
+
+    @Test
+    public void theContentIsCompressedAsItIsRead() throws IOException {
+        byte[] body = new byte[100000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i % 7);
+        }
+        HttpEntity gzip = CompressingEntity.of(new ByteArrayEntity(body), "gzip", 0);
+        HttpEntity deflate = CompressingEntity.of(new ByteArrayEntity(body), "deflate", 0);
+
+        assertArrayEquals(body, gunzip(read(gzip.getContent())));
+        assertArrayEquals(body, inflate(read(deflate.getContent())));
+        assertArrayEquals(read(gzip.getContent()), writeTo(gzip));
+    }
+
+    @Test
+    public void describesTheCompressedBody() throws IOException {
+        HttpEntity entity = CompressingEntity.of(new StringEntity("hi there", ContentType.TEXT_PLAIN), "gzip", 0);
+
+        assertEquals("gzip", entity.getContentEncoding().getValue());
+        assertEquals(ContentType.TEXT_PLAIN.toString(), entity.getContentType().getValue());
+        assertEquals(-1, entity.getContentLength());
+        assertTrue(entity.isChunked());
+    }
+
+    @Test
+    public void smallBodiesAreLeftAlone() throws IOException {
+        HttpEntity small = new StringEntity("hi there");
+
+        assertSame(small, CompressingEntity.of(small, "gzip", 9));
+        assertSame(small, CompressingEntity.of(small, null, 0));
+    }
+
+    @Test
+    public void bodiesOfUnknownLengthAreAlwaysCompressed() {
+        HttpEntity multipart = multipart();
+
+        assertTrue(CompressingEntity.of(multipart, "gzip", Long.MAX_VALUE) instanceof CompressingEntity);
+    }
+
+    @Test
+    public void compressesAsyncBodiesAsTheyAreProduced() throws IOException {
+        CompressingEntity entity = (CompressingEntity) CompressingEntity.of(multipart(), "gzip", 0);
+        HttpEntity async = entity.toAsync(new StreamingAsyncEntity(entity.getWrappedEntity()));
+
+        assertArrayEquals(writeTo(multipart()), gunzip(produce((CompressingAsyncEntity) async, new Encoder(100))));
+    }
+
+    @Test
+    public void compressesBodiesTheAsyncClientWouldStreamItself() throws IOException {
+        CompressingEntity entity = (CompressingEntity) CompressingEntity.of(new StringEntity("hi there"), "deflate", 0);
+        CompressingAsyncEntity async = (CompressingAsyncEntity) entity.toAsync(entity.getWrappedEntity());
+
+        assertArrayEquals("hi there".getBytes(), inflate(produce(async, new Encoder(3))));
+        assertArrayEquals("hi there".getBytes(), inflate(produce(async, new Encoder(3))));
+    }
+
+    private HttpEntity multipart() {
+        return MultipartEntityBuilder.create()
+                .setBoundary("xyz")
+                .addPart("name", new StringBody("Mark", ContentType.TEXT_PLAIN))
+                .addPart("stream", new DeferredStreamBody(new ByteArrayInputStream(stream), ContentType.APPLICATION_OCTET_STREAM, "s"))
+                .build();
+    }
+
+    private byte[] writeTo(HttpEntity entity) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private byte[] produce(CompressingAsyncEntity entity, Encoder encoder) throws IOException {
+        while (!encoder.isCompleted()) {
+            entity.produceContent(encoder, null);
+            encoder.drain();
+        }
+        entity.close();
+        return encoder.out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        return read(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        return read(new InflaterInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int len;
+        while ((len = in.read(buf)) != -1) {
+            out.write(buf, 0, len);
+        }
+        return out.toByteArray();
+    }
+
+    private static class Encoder implements ContentEncoder {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final int capacity;
+        private int available;
+        private boolean completed;
+
+        Encoder(int capacity) {
+            this.capacity = capacity;
+            this.available = capacity;
+        }
+
+        void drain() {
+            available = capacity;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int count = Math.min(available, src.remaining());
+            byte[] bytes = new byte[count];
+            src.get(bytes);
+            out.write(bytes, 0, count);
+            available -= count;
+            return count;
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+}
@@ -64,6 +64,17 @@ public class ConfigTest {
         assertEquals(Config.DEFAULT_MAX_PER_ROUTE, config.getMaxPerRoutes());
     }
 
+    @Test
+    public void connectionRequestTimeoutDefaultsToTheSocketTimeout(){
+        assertEquals(Config.DEFAULT_SOCKET_TIMEOUT, config.getConnectionRequestTimeout());
+
+        config.socketTimeout(4000);
+        assertEquals(4000, config.getConnectionRequestTimeout());
+
+        config.connectionRequestTimeout(250);
+        assertEquals(250, config.getConnectionRequestTimeout());
+    }
+
     @Test
     public void onceTheConfigIsRunningYouCannotChangeConfig(){
         config.httpClient(mock(HttpClient.class));
@@ -0,0 +1,160 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ContentDecodersTest {
+    private static final byte[] BODY = "the same thing over and over and over again".getBytes(StandardCharsets.UTF_8);
+    private final ContentDecoders decoders = ContentDecoders.DEFAULT;
+
+    @Test
+    public void acceptsWhatItCanDecode() {
+        assertEquals("gzip, deflate", decoders.getAcceptEncoding());
+        assertEquals("gzip, deflate, br", decoders.with(new Named("br")).getAcceptEncoding());
+        assertEquals("gzip, deflate", decoders.getAcceptEncoding());
+    }
+
+    @Test
+    public void replacingADecoderKeepsItsPlace() {
+        assertEquals("gzip, deflate", decoders.with(new Named("GZIP")).getAcceptEncoding());
+    }
+
+    @Test
+    public void decodesGzip() throws IOException {
+        assertArrayEquals(BODY, read(decoders.decode("gzip", gzip(BODY))));
+        assertArrayEquals(BODY, read(decoders.decode(" X-GZIP ", gzip(BODY))));
+    }
+
+    @Test
+    public void decodesBothKindsOfDeflate() throws IOException {
+        assertArrayEquals(BODY, read(decoders.decode("deflate", deflate(BODY, false))));
+        assertArrayEquals(BODY, read(decoders.decode("deflate", deflate(BODY, true))));
+    }
+
+    @Test
+    public void plainBodiesAreLeftAlone() {
+        InputStream body = new ByteArrayInputStream(BODY);
+
+        assertSame(body, decoders.decode("", body));
+        assertSame(body, decoders.decode("identity", body));
+        assertSame(body, decoders.decode(null, body));
+        assertFalse(decoders.decodes("identity"));
+    }
+
+    @Test
+    public void bodiesWithAnUnknownEncodingAreLeftAlone() {
+        InputStream body = new ByteArrayInputStream(BODY);
+
+        assertSame(body, decoders.decode("br", body));
+        assertSame(body, decoders.decode("gzip, br", body));
+        assertFalse(decoders.decodes("gzip, br"));
+        assertTrue(decoders.decodes("gzip, identity"));
+    }
+
+    @Test
+    public void emptyBodiesAreEmptyWhateverTheEncoding() throws IOException {
+        assertArrayEquals(new byte[0], read(decoders.decode("gzip", new ByteArrayInputStream(new byte[0]))));
+    }
+
+    @Test
+    public void nothingIsReadUntilTheCallerReads() throws IOException {
+        InputStream body = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("read too early");
+            }
+        };
+
+        InputStream decoded = decoders.decode("gzip", body);
+
+        assertEquals(0, decoded.available());
+        decoded.close();
+    }
+
+    private static InputStream gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(body);
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private static InputStream deflate(byte[] body, boolean raw) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new DeflaterOutputStream(bytes, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            out.write(body);
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try (InputStream content = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[7];
+            int len;
+            while ((len = content.read(buf)) != -1) {
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static class Named implements BodyDecoder {
+        private final String encoding;
+
+        Named(String encoding) {
+            this.encoding = encoding;
+        }
+
+        @Override
+        public String getEncoding() {
+            return encoding;
+        }
+
+        @Override
+        public InputStream decode(InputStream encoded) {
+            return encoded;
+        }
+    }
+}
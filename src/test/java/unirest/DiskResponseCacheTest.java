@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DiskResponseCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bodiesThatWereHandedOutCanStillBeReadOnceEvicted() throws IOException {
+        DiskResponseCache cache = new DiskResponseCache(folder.getRoot().toPath(), 15);
+        cache.store("GET http://a", entry(Collections.emptyMap()), response("aaaaaaaaaa"));
+        CacheEntry found = cache.get("GET http://a", e -> true);
+
+        cache.store("GET http://b", entry(Collections.emptyMap()), response("bbbbbbbbbb"));
+
+        assertNull(cache.get("GET http://a", e -> true));
+        assertEquals("aaaaaaaaaa", read(found.getBody().open()));
+        assertArrayEquals("aaaaaaaaaa".getBytes(), found.getBody().bytes());
+    }
+
+    @Test
+    public void bodiesThatWereHandedOutCanStillBeReadOnceReplaced() throws IOException {
+        DiskResponseCache cache = new DiskResponseCache(folder.getRoot().toPath(), 1024);
+        cache.store("GET http://a", entry(Collections.emptyMap()), response("first"));
+        CacheEntry found = cache.get("GET http://a", e -> true);
+
+        cache.store("GET http://a", entry(Collections.emptyMap()), response("second"));
+
+        assertEquals("first", read(found.getBody().open()));
+        assertEquals("second", read(cache.get("GET http://a", e -> true).getBody().open()));
+    }
+
+    @Test
+    public void eachVariantIsKeptAndRemovedWithTheUrl() throws IOException {
+        DiskResponseCache cache = new DiskResponseCache(folder.getRoot().toPath(), 1024);
+        Map<String, String> en = Collections.singletonMap("accept-language", "en");
+        Map<String, String> fr = Collections.singletonMap("accept-language", "fr");
+        cache.store(VariantIndex.key("GET http://a", en), entry(en), response("hello"));
+        cache.store(VariantIndex.key("GET http://a", fr), entry(fr), response("bonjour"));
+
+        assertEquals("bonjour", read(cache.get("GET http://a", e -> e.matches(fr)).getBody().open()));
+        assertEquals("hello", read(cache.get("GET http://a", e -> e.matches(en)).getBody().open()));
+
+        cache.remove("GET http://a");
+
+        assertEquals(0, cache.size());
+        assertEquals(0, new DiskResponseCache(folder.getRoot().toPath(), 1024).size());
+    }
+
+    private CacheEntry entry(Map<String, String> vary) {
+        return new CacheEntry(200, "OK", new Headers(), CacheEntry.Body.EMPTY, vary, 0, 0);
+    }
+
+    private RawResponse response(String body) {
+        return new BufferedResponse(200, "OK", new Headers(), CacheEntry.Body.of(body.getBytes()));
+    }
+
+    private String read(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buf = new byte[1024];
+            int len;
+            while ((len = stream.read(buf)) != -1) {
+                out.write(buf, 0, len);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HedgePolicyTest {
+
+    @Test
+    public void usesTheFixedDelayByDefault() {
+        HedgePolicy.Hedge hedge = new HedgePolicy().after(250).start(HttpMethod.GET, "/a");
+
+        assertEquals(250, hedge.delay());
+    }
+
+    @Test
+    public void usesTheFixedDelayUntilTheRouteHasEnoughSamples() {
+        HedgePolicy policy = new HedgePolicy().after(250).afterPercentile(95, 100);
+        HedgePolicy.Hedge hedge = policy.start(HttpMethod.GET, "/a");
+        for (int i = 0; i < 19; i++) {
+            hedge.record(millis(10));
+        }
+
+        assertEquals(250, hedge.delay());
+        hedge.record(millis(10));
+        assertEquals(10, hedge.delay());
+    }
+
+    @Test
+    public void theDelayIsThePercentileOfTheRoute() {
+        HedgePolicy policy = new HedgePolicy().afterPercentile(95, 100);
+        HedgePolicy.Hedge hedge = policy.start(HttpMethod.GET, "/a");
+        for (int i = 1; i <= 100; i++) {
+            hedge.record(millis(i));
+        }
+
+        assertEquals(95, policy.start(HttpMethod.GET, "/a").delay());
+        assertEquals(100, policy.start(HttpMethod.GET, "/b").delay());
+    }
+
+    @Test
+    public void onlyTheLatestSamplesAreKept() {
+        HedgePolicy.Latencies latencies = new HedgePolicy.Latencies(20);
+        for (int i = 0; i < 20; i++) {
+            latencies.add(1000);
+        }
+        for (int i = 0; i < 20; i++) {
+            latencies.add(10);
+        }
+
+        assertEquals(10, latencies.percentile(99));
+    }
+
+    @Test
+    public void theBudgetCapsHedges() {
+        HedgePolicy policy = new HedgePolicy().budget(0.5, 1);
+
+        assertTrue(policy.start(HttpMethod.GET, "/a").tryHedge());
+        assertFalse(policy.start(HttpMethod.GET, "/a").tryHedge());
+        assertTrue(policy.start(HttpMethod.GET, "/a").tryHedge());
+    }
+
+    @Test
+    public void onlyIdempotentReadsAreHedgedByDefault() {
+        HedgePolicy policy = new HedgePolicy();
+
+        assertTrue(policy.hedges(HttpMethod.GET));
+        assertTrue(policy.hedges(HttpMethod.HEAD));
+        assertFalse(policy.hedges(HttpMethod.POST));
+        assertTrue(policy.hedgeMethods(HttpMethod.POST).hedges(HttpMethod.POST));
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -94,11 +94,12 @@ public class JacksonObjectMapper implements ObjectMapper {
 		}
 	}
 
+	@Override
 	public <T> T readValue(InputStream rawBody, Class<T> as) {
 		try {
 			return om.readValue(rawBody, as);
 		} catch (IOException e) {
-			throw new RuntimeException(e);
+			throw new UnirestException(e);
 		}
 	}
 
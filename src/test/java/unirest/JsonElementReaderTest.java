@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class JsonElementReaderTest {
+
+    @Test
+    public void splitsTheElementsOfAnArray() throws IOException {
+        assertEquals(Arrays.asList("{\"a\":1}", "{\"a\":2}", "{\"a\":[3,{\"b\":4}]}"),
+                split(" [ {\"a\":1}, {\"a\":2},\n{\"a\":[3,{\"b\":4}]} ] "));
+    }
+
+    @Test
+    public void splitsNewlineDelimitedValues() throws IOException {
+        assertEquals(Arrays.asList("{\"a\":1}", "{\"a\":2}", "[1,2]"),
+                split("{\"a\":1}\n{\"a\":2}\r\n\n[1,2]\n"));
+    }
+
+    @Test
+    public void aSingleObjectIsOneElement() throws IOException {
+        assertEquals(Arrays.asList("{\"a\":1}"), split("{\"a\":1}"));
+    }
+
+    @Test
+    public void bracketsAndQuotesInsideStringsAreIgnored() throws IOException {
+        assertEquals(Arrays.asList("{\"a\":\"]}[{,\"}", "{\"a\":\"say \\\"hi\\\" \\\\\"}", "\"[\""),
+                split("[{\"a\":\"]}[{,\"},{\"a\":\"say \\\"hi\\\" \\\\\"},\"[\"]"));
+    }
+
+    @Test
+    public void scalarsAreElementsToo() throws IOException {
+        assertEquals(Arrays.asList("1", "true", "null", "-2.5e3"), split("[1,true, null ,-2.5e3]"));
+        assertEquals(Arrays.asList("1", "2"), split("1\n2"));
+    }
+
+    @Test
+    public void emptyBodies() throws IOException {
+        assertEquals(Arrays.asList(), split("[]"));
+        assertEquals(Arrays.asList(), split(" [ ] "));
+        assertEquals(Arrays.asList(), split(""));
+        assertEquals(Arrays.asList(), split("\n"));
+    }
+
+    @Test
+    public void elementsCanSpanReads() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"bar\":\"").append(i).append("\"}");
+        }
+        JsonElementReader reader = new JsonElementReader(new OneCharAtATime(json.append("]").toString()));
+
+        for (int i = 0; i < 2000; i++) {
+            assertEquals("{\"bar\":\"" + i + "\"}", reader.next());
+        }
+        assertNull(reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void truncatedBodiesFail() {
+        assertMalformed("[{\"a\":1},{\"a\":");
+        assertMalformed("[{\"a\":1}");
+        assertMalformed("{\"a\":\"1}");
+    }
+
+    @Test
+    public void junkBetweenElementsFails() {
+        assertMalformed("[{\"a\":1} {\"a\":2}]");
+        assertMalformed("[{\"a\":1}] {\"a\":2}");
+    }
+
+    private static void assertMalformed(String json) {
+        try {
+            split(json);
+            fail("expected " + json + " to be malformed");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static List<String> split(String json) throws IOException {
+        JsonElementReader reader = new JsonElementReader(new StringReader(json));
+        List<String> elements = new ArrayList<>();
+        for (String e = reader.next(); e != null; e = reader.next()) {
+            elements.add(e);
+        }
+        return elements;
+    }
+
+    private static class OneCharAtATime extends Reader {
+        private final String value;
+        private int position;
+
+        OneCharAtATime(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (position == value.length()) {
+                return -1;
+            }
+            cbuf[off] = value.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -26,9 +26,12 @@
 
 package unirest;
 
+import org.json.JSONException;
 import org.junit.Test;
 import unirest.JsonNode;
 
+import java.io.StringReader;
+
 import static org.junit.Assert.*;
 
 public class JsonNodeTest {
@@ -58,4 +61,34 @@ public class JsonNodeTest {
         assertEquals("{}", new JsonNode("").toString());
         assertEquals("{}", new JsonNode(null).toString());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void canReadAnObjectFromAReader() {
+        JsonNode node = JsonNode.read(new StringReader("  {\"foo\":\"bar\"}"));
+        assertEquals(false, node.isArray());
+        assertEquals("bar", node.getObject().getString("foo"));
+    }
+
+    @Test
+    public void canReadAnArrayFromAReader() {
+        JsonNode node = JsonNode.read(new StringReader("[{\"foo\":\"bar\"}]"));
+        assertEquals(true, node.isArray());
+        assertEquals("bar", node.getArray().getJSONObject(0).getString("foo"));
+        assertEquals(null, node.getObject());
+    }
+
+    @Test
+    public void emptyReaderResultsInEmptyJson() {
+        assertEquals("{}", JsonNode.read(new StringReader("  ")).toString());
+    }
+
+    @Test
+    public void readerFailuresReportTheSameErrorAsStrings() {
+        try {
+            JsonNode.read(new StringReader("You did something bad"));
+            fail("should have thrown");
+        } catch (JSONException e) {
+            assertEquals("A JSONArray text must start with '[' at 1 [character 2 line 1]", e.getMessage());
+        }
+    }
+}
@@ -42,7 +42,7 @@ import java.util.stream.Collectors;
 public class MockApacheResponse implements HttpResponse {
     private Multimap<String, String> headers = HashMultimap.create();
     private StatusLine statusLine = new BasicStatusLine(new ProtocolVersion("",1,1), 0, "");
-    private BasicHttpEntity entity = make("");
+    private HttpEntity entity = make("");
 
     @Override
     public StatusLine getStatusLine() {
@@ -81,7 +81,7 @@ public class MockApacheResponse implements HttpResponse {
 
     @Override
     public void setEntity(HttpEntity entity) {
-        throw new NotImplimented();
+        this.entity = entity;
     }
 
     @Override
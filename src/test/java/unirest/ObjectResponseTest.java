@@ -0,0 +1,239 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.entity.BasicHttpEntity;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ObjectResponseTest {
+
+    @Test
+    public void utf8BodiesAreHandedToTheMapperAsBytes() {
+        BytesOnlyMapper om = new BytesOnlyMapper();
+        ObjectResponse<String> r = new ObjectResponse<>(om, response("hÿ", "application/json"), String.class);
+
+        assertEquals("bytes:hÿ", r.getBody());
+        assertFalse(r.getParsingError().isPresent());
+    }
+
+    @Test
+    public void mappersThatReadStreamsGetUtf8BodiesAsAStream() {
+        ObjectMapper om = new ObjectMapper() {
+            @Override
+            public <T> T readValue(InputStream value, Class<T> valueType) {
+                return valueType.cast("stream:" + Util.toString(value));
+            }
+
+            @Override
+            public <T> T readValue(String value, Class<T> valueType) {
+                throw new UnirestException("should not be called");
+            }
+
+            @Override
+            public String writeValue(Object value) {
+                return null;
+            }
+        };
+
+        assertEquals("stream:hÿ", new ObjectResponse<>(om, response("hÿ", "application/json"), String.class).getBody());
+    }
+
+    @Test
+    public void otherCharsetsAreDecodedThroughAReader() {
+        BytesOnlyMapper om = new BytesOnlyMapper();
+        MockApacheResponse raw = new MockApacheResponse();
+        BasicHttpEntity e = new BasicHttpEntity();
+        e.setContent(new ByteArrayInputStream("hÿ".getBytes(StandardCharsets.ISO_8859_1)));
+        e.setContentType("application/json; charset=ISO-8859-1");
+        raw.setEntity(e);
+
+        ObjectResponse<String> r = new ObjectResponse<>(om, new ApacheResponse(raw), String.class);
+
+        assertEquals("string:hÿ", r.getBody());
+    }
+
+    @Test
+    public void mappersWithOnlyTheStringMethodGetEveryCharset() {
+        CountingMapper om = new CountingMapper();
+        MockApacheResponse raw = new MockApacheResponse();
+        BasicHttpEntity e = new BasicHttpEntity();
+        e.setContent(new ByteArrayInputStream("hÿ".getBytes(StandardCharsets.ISO_8859_1)));
+        e.setContentType("application/json; charset=ISO-8859-1");
+        raw.setEntity(e);
+
+        assertEquals("hÿ", new ObjectResponse<>(om, response("hÿ", "application/json"), String.class).getBody());
+        assertEquals("hÿ", new ObjectResponse<>(om, new ApacheResponse(raw), String.class).getBody());
+        assertEquals(2, om.calls.get());
+    }
+
+    @Test
+    public void parsingErrorsStillCarryTheOriginalBody() {
+        ObjectMapper om = new ObjectMapper() {
+            @Override
+            public <T> T readValue(String value, Class<T> valueType) {
+                throw new UnirestException("nope");
+            }
+
+            @Override
+            public String writeValue(Object value) {
+                return null;
+            }
+        };
+
+        ObjectResponse<String> r = new ObjectResponse<>(om, response("You did something bad", "application/json"), String.class);
+
+        assertNull(r.getBody());
+        assertEquals("You did something bad", r.getParsingError().get().getOriginalBody());
+    }
+
+    @Test
+    public void bodiesAreOnlyMappedWhenFirstAskedFor() {
+        CountingMapper om = new CountingMapper();
+        ObjectResponse<String> r = new ObjectResponse<>(om, response("hi", "application/json"), String.class);
+
+        r.getHeaders();
+        assertEquals(0, om.calls.get());
+
+        assertEquals("hi", r.getBody());
+        assertEquals("hi", r.getBody());
+        assertEquals(1, om.calls.get());
+    }
+
+    @Test
+    public void bodiesAreMappedOnceWhenManyThreadsAskAtOnce() throws Exception {
+        CountingMapper om = new CountingMapper();
+        ObjectResponse<String> r = new ObjectResponse<>(om, response("hi", "application/json"), String.class);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> bodies = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                bodies.add(pool.submit(r::getBody));
+            }
+            for (Future<String> body : bodies) {
+                assertEquals("hi", body.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(1, om.calls.get());
+    }
+
+    @Test
+    public void askingForTheParsingErrorParsesTheBody() {
+        ObjectResponse<String> r = new ObjectResponse<>(new CountingMapper(), response("boom", "application/json"), String.class);
+
+        assertEquals("boom", r.getParsingError().get().getOriginalBody());
+        assertNull(r.getBody());
+    }
+
+    @Test
+    public void jsonResponsesAreParsedLazilyToo() {
+        JsonResponse r = new JsonResponse(response("You did something bad", "application/json"));
+
+        assertTrue(r.getParsingError().isPresent());
+        assertEquals("You did something bad", r.getParsingError().get().getOriginalBody());
+        assertEquals("You did something bad", Util.toString(r.getRawBody()));
+    }
+
+    @Test
+    public void jsonResponsesAreReadUsingTheResponseCharset() {
+        MockApacheResponse raw = new MockApacheResponse();
+        BasicHttpEntity e = new BasicHttpEntity();
+        e.setContent(new ByteArrayInputStream("{\"foo\":\"hÿ\"}".getBytes(StandardCharsets.ISO_8859_1)));
+        e.setContentType("application/json; charset=ISO-8859-1");
+        raw.setEntity(e);
+
+        JsonResponse r = new JsonResponse(new ApacheResponse(raw));
+
+        assertEquals("hÿ", r.getBody().getObject().getString("foo"));
+    }
+
+    private ApacheResponse response(String body, String contentType) {
+        MockApacheResponse raw = new MockApacheResponse();
+        BasicHttpEntity e = new BasicHttpEntity();
+        e.setContent(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        e.setContentType(contentType);
+        raw.setEntity(e);
+        return new ApacheResponse(raw);
+    }
+
+    private static class CountingMapper implements ObjectMapper {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public <T> T readValue(String value, Class<T> valueType) {
+            calls.incrementAndGet();
+            if (value.equals("boom")) {
+                throw new UnirestException("boom");
+            }
+            return valueType.cast(value);
+        }
+
+        @Override
+        public String writeValue(Object value) {
+            return String.valueOf(value);
+        }
+    }
+
+    private static class BytesOnlyMapper implements ObjectMapper {
+        @Override
+        public <T> T readValue(byte[] value, Class<T> valueType) {
+            return valueType.cast("bytes:" + new String(value, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public <T> T readValue(Reader value, Class<T> valueType) {
+            return valueType.cast("string:" + Util.toString(value));
+        }
+
+        @Override
+        public <T> T readValue(String value, Class<T> valueType) {
+            throw new UnirestException("should not be called");
+        }
+
+        @Override
+        public String writeValue(Object value) {
+            return null;
+        }
+    }
+}
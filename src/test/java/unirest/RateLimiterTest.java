@@ -0,0 +1,111 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class RateLimiterTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void theBurstIsAvailableStraightAway() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(10, 3);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.reserve(now, 0));
+        assertEquals(0, bucket.reserve(now, 0));
+        assertEquals(0, bucket.reserve(now, 0));
+        assertEquals(-1, bucket.reserve(now, 0));
+    }
+
+    @Test
+    public void permitsAfterTheBurstAreSpacedOut() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(10, 1);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.reserve(now, SECOND));
+        assertEquals(SECOND / 10, bucket.reserve(now, SECOND));
+        assertEquals(2 * SECOND / 10, bucket.reserve(now, SECOND));
+    }
+
+    @Test
+    public void aRejectedReservationDoesNotTakeAPermit() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(10, 1);
+        long now = System.nanoTime();
+        bucket.reserve(now, SECOND);
+
+        assertEquals(-1, bucket.reserve(now, SECOND / 20));
+        assertEquals(SECOND / 10, bucket.reserve(now, SECOND));
+    }
+
+    @Test
+    public void permitsAreRefilledOverTime() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(10, 2);
+        long now = System.nanoTime();
+        bucket.reserve(now, 0);
+        bucket.reserve(now, 0);
+
+        assertEquals(-1, bucket.reserve(now, 0));
+        assertEquals(0, bucket.reserve(now + SECOND / 10, 0));
+        assertEquals(0, bucket.reserve(now + SECOND, 0));
+        assertEquals(0, bucket.reserve(now + SECOND, 0));
+        assertEquals(-1, bucket.reserve(now + SECOND, 0));
+    }
+
+    @Test
+    public void hostsWithoutALimitAreNotLimited() {
+        RateLimiter limiter = new RateLimiter();
+        limiter.limit("https://api.example.com", 1, 1);
+
+        assertEquals(-1, limiter.reserve(new Path("http://api.example.com/a"), 0));
+        assertEquals(0, limiter.reserve(new Path("https://api.example.com:443/a"), 0));
+    }
+
+    @Test
+    public void theHostIsNamedWhenItsLimitIsExceeded() {
+        RateLimiter limiter = new RateLimiter();
+        limiter.limit("localhost:8080", 1, 1);
+        limiter.reserve(new Path("http://localhost:8080/a"), 0);
+
+        try {
+            limiter.reserve(new Path("http://localhost:8080/b"), 0);
+            fail();
+        } catch (RateLimitExceededException e) {
+            assertEquals("http://localhost:8080", e.getHost());
+        }
+    }
+
+    @Test(expected = UnirestConfigException.class)
+    public void theRateMustBePositive() {
+        new RateLimiter().limit("localhost", 0, 1);
+    }
+}
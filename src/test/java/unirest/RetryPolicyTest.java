@@ -0,0 +1,94 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void delaysAreJitteredUnderAGrowingCap() {
+        RetryPolicy policy = new RetryPolicy().maxAttempts(10).backoff(100, 1000);
+        RetryPolicy.Attempts attempts = policy.start(HttpMethod.GET, () -> true);
+
+        long[] caps = {100, 200, 400, 800, 1000, 1000};
+        for (long cap : caps) {
+            long delay = attempts.nextDelay(null, new ConnectException());
+            assertTrue(delay + " should be within " + cap, delay >= 0 && delay <= cap);
+        }
+    }
+
+    @Test
+    public void stopsAfterMaxAttempts() {
+        RetryPolicy.Attempts attempts = new RetryPolicy().maxAttempts(2).start(HttpMethod.GET, () -> true);
+
+        assertTrue(attempts.nextDelay(null, new ConnectException()) >= 0);
+        assertEquals(-1, attempts.nextDelay(null, new ConnectException()));
+    }
+
+    @Test
+    public void exceptionsAreMatchedThroughTheirCauses() {
+        RetryPolicy policy = new RetryPolicy();
+
+        assertTrue(policy.start(HttpMethod.GET, () -> true).nextDelay(null, new UnirestException(new SocketTimeoutException())) >= 0);
+        assertEquals(-1, policy.start(HttpMethod.GET, () -> true).nextDelay(null, new UnirestException(new IOException())));
+        assertEquals(-1, policy.start(HttpMethod.GET, () -> true).nextDelay(null, new IllegalStateException()));
+    }
+
+    @Test
+    public void exceptionsCanBeConfigured() {
+        RetryPolicy policy = new RetryPolicy().retryOn(IOException.class);
+
+        assertTrue(policy.start(HttpMethod.GET, () -> true).nextDelay(null, new UnirestException(new IOException())) >= 0);
+    }
+
+    @Test
+    public void unreplayableRequestsAreNotRetried() {
+        assertEquals(-1, new RetryPolicy().start(HttpMethod.GET, () -> false).nextDelay(null, new ConnectException()));
+    }
+
+    @Test
+    public void budgetRefillsWithEachRequest() {
+        RetryPolicy policy = new RetryPolicy().budget(0.5, 1);
+
+        assertTrue(policy.start(HttpMethod.GET, () -> true).nextDelay(null, new ConnectException()) >= 0);
+        assertEquals(-1, policy.start(HttpMethod.GET, () -> true).nextDelay(null, new ConnectException()));
+        assertTrue(policy.start(HttpMethod.GET, () -> true).nextDelay(null, new ConnectException()) >= 0);
+    }
+
+    @Test(expected = UnirestConfigException.class)
+    public void maxAttemptsMustBePositive() {
+        new RetryPolicy().maxAttempts(0);
+    }
+}
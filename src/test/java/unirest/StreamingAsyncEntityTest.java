@@ -0,0 +1,172 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.StringBody;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.FileContentEncoder;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingAsyncEntityTest {
+
+    private final File file = TestUtil.rezFile("/image.jpg");
+
+    @Test
+    public void producesTheSameBytesAsTheBlockingEntity() throws IOException {
+        HttpEntity entity = multipart(new byte[]{1, 2, 3, 4, 5});
+
+        byte[] produced = produce(new StreamingAsyncEntity(entity), new Encoder(1000));
+
+        assertArrayEquals(writeTo(multipart(new byte[]{1, 2, 3, 4, 5})), produced);
+    }
+
+    @Test
+    public void filePartsAreTransferredWithoutCopyingWhenTheEncoderSupportsIt() throws IOException {
+        FileEncoder encoder = new FileEncoder(4096);
+
+        byte[] produced = produce(new StreamingAsyncEntity(multipart(new byte[0])), encoder);
+
+        assertEquals(file.length(), encoder.transferred);
+        assertArrayEquals(writeTo(multipart(new byte[0])), produced);
+    }
+
+    @Test
+    public void stopsWhenTheEncoderIsFullAndPicksUpWhereItLeftOff() throws IOException {
+        StreamingAsyncEntity entity = new StreamingAsyncEntity(multipart(new byte[]{9, 8, 7}));
+        Encoder encoder = new Encoder(10);
+
+        entity.produceContent(encoder, null);
+        assertFalse(encoder.isCompleted());
+
+        assertArrayEquals(writeTo(multipart(new byte[]{9, 8, 7})), produce(entity, encoder));
+    }
+
+    @Test
+    public void keepsTheEntityMetadata() throws IOException {
+        HttpEntity original = multipart(new byte[]{1});
+        StreamingAsyncEntity entity = new StreamingAsyncEntity(original);
+
+        assertEquals(original.getContentType().getValue(), entity.getContentType().getValue());
+        assertEquals(-1, entity.getContentLength());
+        assertTrue(entity.isChunked());
+        assertFalse(entity.isRepeatable());
+    }
+
+    private HttpEntity multipart(byte[] stream) {
+        return MultipartEntityBuilder.create()
+                .setBoundary("xyz")
+                .addPart("name", new StringBody("Mark", ContentType.TEXT_PLAIN))
+                .addPart("file", new DeferredFileBody(file, ContentType.APPLICATION_OCTET_STREAM, "image.jpg"))
+                .addPart("stream", new DeferredStreamBody(new ByteArrayInputStream(stream), ContentType.APPLICATION_OCTET_STREAM, "s"))
+                .build();
+    }
+
+    private byte[] writeTo(HttpEntity entity) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entity.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private byte[] produce(StreamingAsyncEntity entity, Encoder encoder) throws IOException {
+        while (!encoder.isCompleted()) {
+            entity.produceContent(encoder, null);
+            encoder.drain();
+        }
+        entity.close();
+        return encoder.out.toByteArray();
+    }
+
+    private static class Encoder implements ContentEncoder {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final int capacity;
+        private int available;
+        private boolean completed;
+
+        Encoder(int capacity) {
+            this.capacity = capacity;
+            this.available = capacity;
+        }
+
+        void drain() {
+            available = capacity;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int count = Math.min(available, src.remaining());
+            byte[] bytes = new byte[count];
+            src.get(bytes);
+            out.write(bytes, 0, count);
+            available -= count;
+            return count;
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed;
+        }
+    }
+
+    private static class FileEncoder extends Encoder implements FileContentEncoder {
+        long transferred;
+
+        FileEncoder(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public long transfer(FileChannel src, long position, long count) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, 4096));
+            int read = src.read(buffer, position);
+            buffer.flip();
+            int written = write(buffer);
+            transferred += written;
+            return read < 0 ? 0 : written;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * The MIT License
+ *
+ * Copyright for portions of OpenUnirest/uniresr-java are held by Mashape (c) 2013 as part of Kong/unirest-java.
+ * All other copyright for OpenUnirest/unirest-java are held by OpenUnirest (c) 2018.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package unirest;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UriTemplateTest {
+
+    @Before
+    public void setUp() {
+        UriTemplate.clearCache();
+    }
+
+    @After
+    public void tearDown() {
+        UriTemplate.clearCache();
+    }
+
+    @Test
+    public void canExpandPlaceholders() {
+        UriTemplate t = UriTemplate.parse("http://somewhere/{foo}/{bar}/baz?q={foo}");
+        Map<String, String> values = new HashMap<>();
+        values.put("foo", "1");
+        values.put("bar", "2");
+
+        assertEquals("http://somewhere/1/2/baz?q=1", expand(t, values));
+        assertTrue(t.hasPlaceholder("foo"));
+        assertFalse(t.hasPlaceholder("baz"));
+        assertTrue(t.hasQuery());
+    }
+
+    @Test
+    public void placeholdersWithoutValuesAreLeftAlone() {
+        UriTemplate t = UriTemplate.parse("http://somewhere/{foo}/{bar}");
+
+        assertEquals("http://somewhere/1/{bar}", expand(t, Collections.singletonMap("foo", "1")));
+    }
+
+    @Test
+    public void unbalancedBracesAreLiterals() {
+        UriTemplate t = UriTemplate.parse("http://somewhere/{a{foo}}/{bar");
+
+        assertTrue(t.hasPlaceholder("foo"));
+        assertFalse(t.hasPlaceholder("a{foo"));
+        assertEquals("http://somewhere/{a1}/{bar", expand(t, Collections.singletonMap("foo", "1")));
+    }
+
+    @Test
+    public void templatesAreCached() {
+        UriTemplate first = UriTemplate.of("http://somewhere/{foo}");
+
+        assertSame(first, UriTemplate.of("http://somewhere/{foo}"));
+        assertEquals(1, UriTemplate.cacheSize());
+    }
+
+    @Test
+    public void urlsWithoutPlaceholdersAreNotCached() {
+        UriTemplate.of("http://somewhere/foo");
+
+        assertEquals(0, UriTemplate.cacheSize());
+    }
+
+    @Test
+    public void theCacheIsBounded() {
+        for (int i = 0; i < UriTemplate.MAX_CACHED + 10; i++) {
+            UriTemplate.of("http://somewhere/" + i + "/{foo}");
+        }
+
+        assertEquals(UriTemplate.MAX_CACHED, UriTemplate.cacheSize());
+        assertEquals("http://somewhere/x/1", expand(UriTemplate.of("http://somewhere/x/{foo}"), Collections.singletonMap("foo", "1")));
+    }
+
+    @Test
+    public void theCacheStaysBoundedWhenManyThreadsFillItAtOnce() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < UriTemplate.MAX_CACHED; i++) {
+                        UriTemplate.of("http://somewhere/hot/{foo}");
+                        UriTemplate.of("http://somewhere/" + thread + "/" + i + "/{foo}");
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertTrue(UriTemplate.cacheSize() <= UriTemplate.MAX_CACHED);
+        assertSame(UriTemplate.of("http://somewhere/hot/{foo}"), UriTemplate.of("http://somewhere/hot/{foo}"));
+    }
+
+    @Test
+    public void theLeastRecentlyUsedTemplatesAreDropped() {
+        UriTemplate kept = UriTemplate.of("http://somewhere/kept/{foo}");
+        UriTemplate dropped = UriTemplate.of("http://somewhere/dropped/{foo}");
+        for (int i = 0; i < UriTemplate.MAX_CACHED - 1; i++) {
+            assertSame(kept, UriTemplate.of("http://somewhere/kept/{foo}"));
+            UriTemplate.of("http://somewhere/" + i + "/{foo}");
+        }
+
+        assertSame(kept, UriTemplate.of("http://somewhere/kept/{foo}"));
+        assertNotSame(dropped, UriTemplate.of("http://somewhere/dropped/{foo}"));
+    }
+
+    @Test
+    public void pathAppendsQueryToTemplatesThatAlreadyHaveOne() {
+        Path path = new Path("http://somewhere/{foo}?a=b");
+        path.param("foo", "a b");
+        path.queryString("c", "d");
+
+        assertEquals("http://somewhere/a+b?a=b&c=d", path.toString());
+    }
+
+    @Test
+    public void pathCanOnlySetAParamOnce() {
+        Path path = new Path("http://somewhere/{foo}");
+        path.param("foo", "bar");
+
+        TestUtil.assertException(() -> path.param("foo", "baz"),
+                UnirestException.class,
+                "Can't find route parameter name \"foo\"");
+    }
+
+    private String expand(UriTemplate t, Map<String, String> values) {
+        StringBuilder sb = new StringBuilder();
+        t.expand(values, sb);
+        return sb.toString();
+    }
+}